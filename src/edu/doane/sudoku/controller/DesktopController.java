@@ -1,12 +1,25 @@
 package edu.doane.sudoku.controller;
 
+import edu.doane.sudoku.metrics.GameLoadEvent;
+import edu.doane.sudoku.metrics.Histogram;
+import edu.doane.sudoku.metrics.Metrics;
+import edu.doane.sudoku.model.Difficulty;
 import edu.doane.sudoku.model.FactoryGrid;
 import edu.doane.sudoku.model.Game;
 import edu.doane.sudoku.model.GameGrid;
+import edu.doane.sudoku.model.SavedGame;
+import edu.doane.sudoku.persistence.GameJournal;
 import edu.doane.sudoku.persistence.Persistence;
+import edu.doane.sudoku.persistence.SuDoKuPersistence;
+import edu.doane.sudoku.view.BoardSnapshot;
 import edu.doane.sudoku.view.DesktopAudio;
 import edu.doane.sudoku.view.SuDoKu;
+import edu.doane.sudoku.view.SuDoKuAudio;
 import edu.doane.sudoku.view.SuDoKuUI;
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Implementation of the controller interface for the desktop app.
@@ -16,6 +29,15 @@ import edu.doane.sudoku.view.SuDoKuUI;
  */
 public class DesktopController implements SuDoKuController {
 
+    /**
+     * Time taken by playNumber(), including checking for a win.
+     */
+    private static final Histogram PLAY_NUMBER_TIME = Metrics.histogram("controller.playNumber");
+
+    /**
+     * Time taken by each check for a win.
+     */
+    private static final Histogram DID_WIN_TIME = Metrics.histogram("controller.didWin");
 
     /**
      * Reference to the view being controlled by this controller.
@@ -57,20 +79,104 @@ public class DesktopController implements SuDoKuController {
     private int hintCounter;
 
     /**
-     * Construct a new instance of this controller.
+     * Used to count the number of wrong numbers the user has played
+     */
+    private int mistakeCounter;
+
+    /**
+     * True while a new game has been asked for but is waiting for the
+     * local store to be set up. Only touched on the FX thread.
+     */
+    private boolean gamePending;
+
+    /**
+     * Write-behind journal saving the game in progress, so it can be
+     * resumed the next time the app starts.
+     */
+    private GameJournal journal;
+
+    /**
+     * Source of games and keeper of results, which completes once it's
+     * ready; the desktop app sets it up on a background thread at startup.
+     */
+    private final CompletableFuture<? extends SuDoKuPersistence> persistence;
+
+    /**
+     * Sounds played by the controller.
+     */
+    private final SuDoKuAudio audio;
+
+    /**
+     * Construct a new instance of this controller for the desktop app,
+     * using the app's persistence, audio and journal.
      *
      * @param view  SuDoKuUI view to be controlled.
      * @param timer SuDoKuTimer object to keep track of game time
      */
     public DesktopController(SuDoKuUI view, SuDoKuTimer timer) {
+        // the local store, the cloud and the audio are set up in the
+        // background, so the window doesn't wait on any of them
+        this(view, timer, DesktopAudio.getInstance(), startInBackground(),
+                "DoaneSuDoKu.journal");
+    }
+
+    /**
+     * Construct a new instance of this controller with its own
+     * dependencies, e.g., one of many controllers running in parallel on a
+     * server or in a load test. Nothing is shared with other controllers
+     * except what is passed in.
+     *
+     * @param view        SuDoKuUI view to be controlled.
+     * @param timer       SuDoKuTimer object to keep track of game time
+     * @param audio       Sounds to play.
+     * @param persistence Source of games and keeper of results.
+     * @param journalFile Name of the file saving the game in progress.
+     */
+    public DesktopController(SuDoKuUI view, SuDoKuTimer timer, SuDoKuAudio audio,
+            SuDoKuPersistence persistence, String journalFile) {
+        this(view, timer, audio, CompletableFuture.completedFuture(persistence), journalFile);
+    }
+
+    /**
+     * Construct a new instance of this controller.
+     *
+     * @param view        SuDoKuUI view to be controlled.
+     * @param timer       SuDoKuTimer object to keep track of game time
+     * @param audio       Sounds to play.
+     * @param persistence Source of games and keeper of results, once it's
+     *                    ready.
+     * @param journalFile Name of the file saving the game in progress.
+     */
+    private DesktopController(SuDoKuUI view, SuDoKuTimer timer, SuDoKuAudio audio,
+            CompletableFuture<? extends SuDoKuPersistence> persistence, String journalFile) {
         // "wire up" the MVC references
         this.view = view;
         this.timer = timer;
+        this.audio = audio;
+        this.persistence = persistence;
         timer.setView(view);
 
-        // when constructed, i.e., on app start, load the next game we 
-        // have
-        setNextGame();
+        // let the view offer games by difficulty
+        view.setDifficulties(Difficulty.names());
+
+        // when constructed, i.e., on app start, resume the game in
+        // progress when the app last exited; otherwise, play the bundled
+        // game if the local store isn't ready yet, or the next game we
+        // have if it is
+        journal = new GameJournal(journalFile);
+        GameLoadEvent event = new GameLoadEvent();
+        event.begin();
+        SavedGame saved = journal.restore();
+        Game bundled;
+        if (saved != null) {
+            resumeGame(saved);
+            loaded(event, "journal");
+        } else if (!persistence.isDone() && (bundled = Persistence.getBundledGame()) != null) {
+            loadGame(bundled);
+            loaded(event, "bundled");
+        } else {
+            setNextGame(null);
+        }
 
         // ... and start the clock!
         timer.startTimer();
@@ -83,8 +189,16 @@ public class DesktopController implements SuDoKuController {
 
     @Override
     public void playNumber(int row, int col, int number) {
+        long start = System.nanoTime();
+        timer.touch();
+
         // if the requested number isn't a given...
         if (!grid.isGiven(row, col)) {
+            // count numbers that don't match the solution
+            if (number != game.getSolved().getNumber(row, col)) {
+                mistakeCounter++;
+            }
+
             // get any existing number
             int n = grid.getNumber(row, col);
             // if there was a number there, 
@@ -101,15 +215,31 @@ public class DesktopController implements SuDoKuController {
                 view.setNumber(row, col, number);
                 didWin();
             } // if n != 0
+            saveProgress();
         } // if not given
+
+        PLAY_NUMBER_TIME.recordSince(start);
     }
 
     @Override
     public void removeNumber(int row, int col) {
+        timer.touch();
+
         // only remove a number from the cell if it isn't a given
         if (!grid.isGiven(row, col)) {
             grid.unsetNumber(row, col);
             view.setNumber(row, col, 0);
+            saveProgress();
+        }
+    }
+
+    /**
+     * Hand a snapshot of the game in progress to the journal. Returns
+     * immediately; the snapshot is written to disk in the background.
+     */
+    private void saveProgress() {
+        if (!celebrated) {
+            journal.record(SavedGame.of(game, grid, timer.getElapsedMillis()));
         }
     }
 
@@ -118,16 +248,83 @@ public class DesktopController implements SuDoKuController {
      * celebration; otherwise, do nothing.
      */
     private void didWin() {
+        long start = System.nanoTime();
+
         // we win if the grid is complete, valid, and we haven't
         // celebrated yet
-        if (grid.isComplete() && grid.validate() && !celebrated) {
+        boolean won = grid.isComplete() && grid.validate() && !celebrated;
+        DID_WIN_TIME.recordSince(start);
+
+        if (won) {
             // celebrate! and stop the timer
             celebrated = true;
             timer.stopTimer();
+            journal.clear();
+            recordResult();
             view.celebrate(game.getID(), hintCounter, timer.toString());
         }
     }
 
+    /**
+     * Save the result of the game just won. The result is handed over
+     * once persistence is ready, so this never waits on it.
+     */
+    private void recordResult() {
+        int id = game.getID();
+        Difficulty difficulty = game.getDifficulty();
+        long millis = timer.getElapsedMillis();
+        int hints = hintCounter;
+        int mistakes = mistakeCounter;
+        persistence.thenAccept(db -> db.recordResult(id, difficulty, millis, hints,
+                mistakes));
+    }
+
+    /**
+     * Start setting up persistence and audio on background threads, and
+     * print the startup timing report once both are done.
+     *
+     * @return Future completing with the Persistence instance.
+     */
+    private static CompletableFuture<Persistence> startInBackground() {
+        CompletableFuture<Persistence> db = CompletableFuture.supplyAsync(() -> {
+            long start = StartupReport.now();
+            Persistence p = Persistence.getInstance();
+            StartupReport.record("persistence", start, StartupReport.now());
+            StartupReport.recordParts("  ", start, p.getStartupMillis());
+
+            // open the result store now, rather than when the first game is won
+            long resultStart = StartupReport.now();
+            p.getResults();
+            StartupReport.record("results", resultStart, StartupReport.now());
+            return p;
+        }, daemonThread("startup-persistence"));
+
+        CompletableFuture<Void> audio = CompletableFuture.runAsync(() -> {
+            long start = StartupReport.now();
+            DesktopAudio.getInstance().load();
+            StartupReport.record("audio", start, StartupReport.now());
+        }, daemonThread("startup-audio"));
+
+        CompletableFuture.allOf(db, audio).thenRun(() ->
+                System.out.print(StartupReport.report()));
+
+        return db;
+    }
+
+    /**
+     * Make an Executor that runs its task on a new daemon thread.
+     *
+     * @param name Name of the thread.
+     * @return Executor starting one daemon thread per task.
+     */
+    private static Executor daemonThread(String name) {
+        return task -> {
+            Thread t = new Thread(task, name);
+            t.setDaemon(true);
+            t.start();
+        };
+    }
+
     @Override
     public void requestGame(String difficulty) {
         // pause timer
@@ -135,42 +332,138 @@ public class DesktopController implements SuDoKuController {
 
         // confirm new game desire
         if (view.confirmNewGame()) {
-            // move on to next game, reset celebration flag and timer
-            setNextGame();
-            celebrated = false;
-            timer.resetTimer();
+            if (persistence.isDone()) {
+                startNextGame(difficulty);
+            } else if (!gamePending) {
+                // the local store is still being set up; rather than
+                // freezing the window until it is, carry on with the
+                // current game and switch once the store is ready
+                gamePending = true;
+                persistence.thenRunAsync(() -> {
+                    gamePending = false;
+                    startNextGame(difficulty);
+                }, Platform::runLater);
+            }
         }
         // start timer again
         timer.startTimer();
         isRunning = true;
     }
 
-    private void setNextGame() {
-        // get the next game from our local store
-        Persistence db = Persistence.getInstance();
-        game = db.getNextGame();
+    /**
+     * Move on to the next game, resetting the celebration flag and timer.
+     *
+     * @param difficulty Name of the difficulty of game to load, or null for
+     *                   any difficulty.
+     */
+    private void startNextGame(String difficulty) {
+        setNextGame(difficulty);
+        celebrated = false;
+        timer.resetTimer();
+    }
 
-        // set the initial grid in the model
-        grid = game.getInitial();
+    /**
+     * Load the next game of the requested difficulty into the model and view.
+     *
+     * @param difficulty Name of the difficulty of game to load, or null for
+     *                   any difficulty.
+     */
+    private void setNextGame(String difficulty) {
+        GameLoadEvent event = new GameLoadEvent();
+        event.begin();
+
+        // get the next game from our local store; it's only still being set
+        // up here at startup with no bundled game, and then there's nothing
+        // to show while waiting for it
+        SuDoKuPersistence db = persistence.join();
+        loadGame(db.getNextGame(Difficulty.parse(difficulty)));
+        loaded(event, "store");
+    }
+
+    /**
+     * Finish the Flight Recorder event for loading the current game.
+     *
+     * @param event  Event begun before the game was loaded.
+     * @param source Where the game came from: "store", "bundled", or
+     *               "journal".
+     */
+    private void loaded(GameLoadEvent event, String source) {
+        Difficulty d = game.getDifficulty();
+        event.finish(game.getID(), d == null ? null : d.name(), source);
+    }
+
+    /**
+     * Load a new game into the model and view.
+     *
+     * @param newGame Game to load.
+     */
+    private void loadGame(Game newGame) {
+        game = newGame;
+
+        // the player works on a copy of the initial grid; the game's own
+        // grid must keep only the givens, since it's what gets journaled
+        // and what the store may hand out again
+        grid = new GameGrid(game.getInitial().getGameData());
+
+        // results are counted per game
+        hintCounter = 0;
+        mistakeCounter = 0;
+
+        // replace everything on the view grid with the new game's givens
+        audio.playNewGame();
+        view.applyBoard(boardOf(grid));
+
+        // a new game replaces any saved game
+        saveProgress();
+    }
+
+    /**
+     * Load a saved game in progress into the model and view.
+     *
+     * @param saved Snapshot of the game to resume.
+     */
+    private void resumeGame(SavedGame saved) {
+        game = saved.getGame();
+        grid = saved.toGrid();
 
-        // get rid of everything on the view grid
-        view.clearGrid(true);
+        // put givens, numbers and notes into the view
+        audio.playNewGame();
+        view.applyBoard(boardOf(grid));
 
-        // put givens for new game into view
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                if (grid.isGiven(i, j)) {
-                    view.setGiven(i, j, grid.getNumber(i, j));
-                } // if given
-            } // for j
-        } // for i
+        // pick the clock up where it left off
+        timer.setElapsedMillis(saved.getElapsedMillis());
+    }
 
+    /**
+     * Pack a grid's numbers, givens and notes for the view.
+     *
+     * @param grid Grid to show.
+     * @return Snapshot of the grid.
+     */
+    private static BoardSnapshot boardOf(GameGrid grid) {
+        int[] cells = new int[81];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                boolean[] notes = grid.getNotes(row, col);
+                int mask = 0;
+                for (int n = 1; n <= 9; n++) {
+                    if (notes[n]) {
+                        mask |= 1 << n;
+                    }
+                }
+                cells[row * 9 + col] = BoardSnapshot.pack(grid.getNumber(row, col),
+                        grid.isGiven(row, col), mask);
+            }
+        }
+        return new BoardSnapshot(cells);
     }
 
     @Override
     public void getHint(int row, int col){
+        timer.touch();
+
         //punish sound
-        DesktopAudio.getInstance().playPunish();
+        audio.playPunish();
 
         //get game data
 
@@ -195,13 +488,22 @@ public class DesktopController implements SuDoKuController {
 
             timer.hintPunish();
 
-            grid = game.getSolved();
-            view.setGiven(row, col, grid.getNumber(row, col));
+            // fill in just this cell; the rest of the grid is still the
+            // player's to finish
+            int number = game.getSolved().getNumber(row, col);
+            grid.unsetNumber(row, col);
+            grid.setNumber(row, col, number);
+            view.setGiven(row, col, number);
+            // correcting the last wrong number can win the game
+            didWin();
+            saveProgress();
         }
     }
 
     @Override
     public void setNote(int row, int col, int number) {
+        timer.touch();
+
         // fetch the notes from the current model cell
         boolean[] notes = grid.getNotes(row, col);
 
@@ -215,6 +517,7 @@ public class DesktopController implements SuDoKuController {
 
         // toggle the note in the view
         view.toggleNote(row, col, number);
+        saveProgress();
     }
 
     @Override
@@ -224,7 +527,20 @@ public class DesktopController implements SuDoKuController {
 
         // really exit?
         if (view.confirmExit()) {
-            // if so, shut down
+            // if so, save the game in progress and shut down; if the game
+            // was won, save the next one instead, so the next start doesn't
+            // have to wait for the local store. Only a game already claimed
+            // will do: claiming one could mean a download from the cloud
+            // while we're closing, and a claimed game not saved here would
+            // be lost anyway.
+            saveProgress();
+            if (celebrated && persistence.isDone()) {
+                Game next = persistence.join().pollClaimedGame();
+                if (next != null) {
+                    journal.record(SavedGame.of(next, next.getInitial(), 0));
+                }
+            }
+            journal.close();
             System.exit(0);
         }
 
@@ -256,26 +572,11 @@ public class DesktopController implements SuDoKuController {
 
     @Override
     public void resetGrids() {
-        // first zap everything on the view
-        view.clearGrid(false);
-
-        // then remove non-given numbers
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                if (!grid.isGiven(row, col)) {
-                    grid.unsetNumber(row, col);
-                }
-            }
-        }
-
-        // finally, display the givens on the view
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                if (grid.isGiven(i, j)) {
-                    view.setGiven(i, j, grid.getNumber(i, j));
-                }
-            }
-        }
+        // remove non-given numbers and notes, then show what's left
+        grid.clearGrid();
+        audio.playClearGrid();
+        view.applyBoard(boardOf(grid));
+        saveProgress();
     }
 
 
@@ -291,15 +592,12 @@ public class DesktopController implements SuDoKuController {
 
         if (view.confirmRageQuit()){
             // Punish them!
-            DesktopAudio.getInstance().playPunish();
-            grid = game.getSolved();
-            for (int i = 0; i < 9; i++){
-                for (int j = 0; j < 9; j++){
-                    view.setGiven(i, j, grid.getNumber(i, j));
-                }
-            }
+            audio.playPunish();
+            journal.clear();
+            grid = new GameGrid(game.getSolved().getGameData());
+            view.applyBoard(boardOf(grid));
             if (view.confirmNewGame()){
-                setNextGame();
+                setNextGame(null);
             }
         }else{
             timer.startTimer();
@@ -318,6 +616,7 @@ public class DesktopController implements SuDoKuController {
         if (isRunning){
             timer.stopTimer();
             isRunning = false;
+            saveProgress();
         }else{
             timer.startTimer();
             isRunning = true;
@@ -1,32 +1,39 @@
 package edu.doane.sudoku.controller;
 
 import edu.doane.sudoku.model.ElapsedTime;
+import edu.doane.sudoku.model.GameClock;
 import edu.doane.sudoku.view.SuDoKuUI;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
-import javafx.event.ActionEvent;
-import javafx.event.EventHandler;
 import javafx.util.Duration;
 
-import javax.naming.TimeLimitExceededException;
-import java.sql.Time;
-
 /**
- * Timer for the desktop SuDoKu app. Uses the JavaFX Timeline class for keeping time.
+ * Timer for the desktop SuDoKu app. Time is kept by a GameClock, so it is
+ * accurate to the millisecond however busy the JavaFX thread gets; a
+ * JavaFX Timeline only refreshes the time shown on the view, and only
+ * while the clock is running.
  *
  * @author Mark M. Meysenburg
  * @version 1/10/2020
  */
 public class DesktopTimer implements SuDoKuTimer {
+
+    /**
+     * How often the view is refreshed while the clock runs, in
+     * milliseconds. Several times a second, so the shown seconds never lag
+     * the clock by much.
+     */
+    private static final double REFRESH_MS = 200;
+
     /**
-     * JavaFX Timeline timer used by this class.
+     * Clock keeping the time.
      */
-    private Timeline timeline;
+    private final GameClock clock;
 
     /**
-     * Elapsed time object to keep track of the amount of time elapsed.
+     * JavaFX Timeline refreshing the view.
      */
-    private ElapsedTime elapsedTime;
+    private final Timeline refresher;
 
     /**
      * SuDoKuUI view reflecting this timer's value.
@@ -34,53 +41,76 @@ public class DesktopTimer implements SuDoKuTimer {
     private SuDoKuUI view;
 
     /**
-     * Create a new DesktopTimer object, starting at 0:00:00, and ready to count up
-     * by 1 second at a time.
+     * Time last shown on the view, so it is only updated when it changes.
      */
+    private String shown;
 
-
+    /**
+     * Create a new DesktopTimer object, starting at 0:00:00.
+     */
     public DesktopTimer() {
-        elapsedTime = new ElapsedTime();
-
-        //Ryan: Bug Hunt item 2: added another zero on Duration.millis
-        timeline = new Timeline(new KeyFrame(Duration.millis(1000), new EventHandler<ActionEvent>() {
-            @Override
-            public void handle(ActionEvent event) {
-                elapsedTime.tick();
-                view.setTimerValue(elapsedTime.toString());
-            }
-        }));
-        timeline.setCycleCount(Timeline.INDEFINITE);
+        clock = new GameClock();
+        refresher = new Timeline(new KeyFrame(Duration.millis(REFRESH_MS), e -> refresh()));
+        refresher.setCycleCount(Timeline.INDEFINITE);
     }
 
     @Override
     public void startTimer() {
-        timeline.play();
+        clock.start();
+        refresher.play();
     }
 
     @Override
-    public void hintPunish(){
-        elapsedTime.hintPunish();
+    public void hintPunish() {
+        clock.addMillis(ElapsedTime.HINT_PENALTY_SECONDS * 1000L);
+        refresh();
     }
 
-
     @Override
     public void stopTimer() {
-        timeline.stop();
+        clock.stop();
+        refresher.stop();
+        refresh();
     }
 
     @Override
     public void resetTimer() {
-        elapsedTime.reset();
+        clock.reset();
+        refresh();
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return clock.getElapsedMillis();
+    }
+
+    @Override
+    public void setElapsedMillis(long millis) {
+        clock.setElapsedMillis(millis);
+        refresh();
     }
 
     @Override
     public void setView(SuDoKuUI view) {
         this.view = view;
+        shown = null;
+        refresh();
     }
 
     @Override
     public String toString() {
-        return elapsedTime.toString();
+        return ElapsedTime.format(clock.getElapsedMillis());
+    }
+
+    /**
+     * Show the time on the view, if it has changed since it was last
+     * shown.
+     */
+    private void refresh() {
+        String time = toString();
+        if (view != null && !time.equals(shown)) {
+            shown = time;
+            view.setTimerValue(time);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package edu.doane.sudoku.controller;
+
+import edu.doane.sudoku.model.ElapsedTime;
+import edu.doane.sudoku.view.SuDoKuUI;
+
+/**
+ * SuDoKuTimer that never ticks, for driving a controller without JavaFX.
+ * Starting and stopping it do nothing; the time only changes when it is
+ * set, reset, or punished for a hint, so results are the same on every
+ * run.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class HeadlessTimer implements SuDoKuTimer {
+
+    /**
+     * Time on the clock.
+     */
+    private final ElapsedTime elapsedTime = new ElapsedTime();
+
+    /**
+     * View showing the time, or null.
+     */
+    private SuDoKuUI view;
+
+    @Override
+    public void startTimer() {
+        // never ticks
+    }
+
+    @Override
+    public void stopTimer() {
+        // never ticks
+    }
+
+    @Override
+    public void resetTimer() {
+        elapsedTime.reset();
+    }
+
+    @Override
+    public void setView(SuDoKuUI view) {
+        this.view = view;
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return elapsedTime.getTotalSeconds() * 1000;
+    }
+
+    @Override
+    public void setElapsedMillis(long millis) {
+        elapsedTime.setTotalSeconds(millis / 1000);
+        if (view != null) {
+            view.setTimerValue(elapsedTime.toString());
+        }
+    }
+
+    @Override
+    public void hintPunish() {
+        elapsedTime.hintPunish();
+    }
+
+    @Override
+    public String toString() {
+        return elapsedTime.toString();
+    }
+}
@@ -0,0 +1,428 @@
+package edu.doane.sudoku.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.doane.sudoku.metrics.Metrics;
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+import edu.doane.sudoku.model.GameGrid;
+import edu.doane.sudoku.model.Solver;
+import edu.doane.sudoku.persistence.Persistence;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.json.JSONWriter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless HTTP controller serving puzzles to web and mobile clients. All
+ * answers are JSON objects; boards are 81-character game data strings,
+ * with 0 for empty cells, given either as a "board" query parameter or as
+ * the "board" field of a JSON request body.
+ * <pre>
+ * GET  /next?difficulty=easy  next un-played game: id, difficulty, board
+ * POST /solve                 solution of a board, and whether it's unique
+ * POST /validate              clashing cells, and whether the board is solved
+ * POST /hint                  one cell to fill in, and its number
+ * POST /grade                 difficulty, givens, and guesses needed to solve
+ * GET  /metrics               counters, gauges and latency histograms
+ * </pre>
+ * Requests are handled on virtual threads when the JVM has them (Java 21
+ * and later), and on a pool of platform threads otherwise.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class PuzzleHttpApi {
+
+    /**
+     * Port used when none is given.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * HTTP server answering requests.
+     */
+    private final HttpServer server;
+
+    /**
+     * Threads handling requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Source of the games handed out by /next.
+     */
+    private final Persistence persistence;
+
+    /**
+     * Handler for one endpoint: turns a request into a JSON answer.
+     */
+    private interface Endpoint {
+        /**
+         * Answer a request.
+         *
+         * @param request Request parameters, from the query string and the
+         *                JSON body.
+         * @param out     Writer for the answer object's keys and values.
+         */
+        void answer(JSONObject request, JSONWriter out);
+    }
+
+    /**
+     * Create the API, listening on a port. Nothing is answered until start()
+     * is called.
+     *
+     * @param port        Port to listen on; 0 picks any free port.
+     * @param persistence Source of the games handed out by /next.
+     * @throws IOException If the port can't be opened.
+     */
+    public PuzzleHttpApi(int port, Persistence persistence) throws IOException {
+        this.persistence = persistence;
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+
+        route("/next", this::next);
+        route("/solve", PuzzleHttpApi::solve);
+        route("/validate", PuzzleHttpApi::validate);
+        route("/hint", PuzzleHttpApi::hint);
+        route("/grade", PuzzleHttpApi::grade);
+        route("/metrics", (request, out) -> Metrics.writeJson(out));
+    }
+
+    /**
+     * Get the port the API is listening on.
+     *
+     * @return Port number.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Start answering requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop answering requests.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * /next: hand out the next un-played game.
+     *
+     * @param request May hold "difficulty", a difficulty name.
+     * @param out     Writer for the answer.
+     */
+    private void next(JSONObject request, JSONWriter out) {
+        Difficulty difficulty = Difficulty.parse(request.optString("difficulty", null));
+        Game g = persistence.getNextGame(difficulty);
+        if (g == null) {
+            throw new IllegalStateException("no games available");
+        }
+
+        out.key("id").value(g.getID());
+        out.key("difficulty").value(g.getDifficulty().name().toLowerCase());
+        out.key("board").value(g.getInitial().getGameData());
+    }
+
+    /**
+     * /solve: solve a board.
+     *
+     * @param request Holds "board".
+     * @param out     Writer for the answer.
+     */
+    private static void solve(JSONObject request, JSONWriter out) {
+        Solver solver = new Solver(board(request));
+        int solutions = solver.solve(2);
+
+        out.key("solvable").value(solutions > 0);
+        out.key("unique").value(solutions == 1);
+        if (solutions > 0) {
+            out.key("solution").value(solver.getSolution());
+        }
+    }
+
+    /**
+     * /validate: find clashing numbers, and check for a finished game.
+     *
+     * @param request Holds "board".
+     * @param out     Writer for the answer.
+     */
+    private static void validate(JSONObject request, JSONWriter out) {
+        String board = board(request);
+        List<Integer> conflicts = Solver.findConflicts(board);
+
+        out.key("complete").value(board.indexOf('0') < 0);
+        out.key("solved").value(new GameGrid(board).validate());
+        out.key("conflicts").array();
+        for (int i : conflicts) {
+            cell(out, i);
+        }
+        out.endArray();
+    }
+
+    /**
+     * /hint: suggest one cell to fill in. If "initial" is given as well,
+     * numbers in the board that don't match the solution are pointed out
+     * first.
+     *
+     * @param request Holds "board" and, optionally, "initial", the board as
+     *                it was at the start of the game.
+     * @param out     Writer for the answer.
+     */
+    private static void hint(JSONObject request, JSONWriter out) {
+        String board = board(request);
+        String initial = request.optString("initial", board);
+        checkBoard(initial);
+
+        Solver fromStart = new Solver(initial);
+        if (fromStart.solve(1) == 0) {
+            throw new IllegalArgumentException("board has no solution");
+        }
+        String solution = fromStart.getSolution();
+
+        // a wrong number is the most useful thing to point out
+        for (int i = 0; i < 81; i++) {
+            char c = board.charAt(i);
+            if (c != '0' && c != solution.charAt(i)) {
+                cellFields(out, i);
+                out.key("number").value(solution.charAt(i) - '0');
+                out.key("reason").value("wrong");
+                return;
+            }
+        }
+
+        // otherwise, the empty cell with the fewest candidates
+        int i = new Solver(board).getEasiestCell();
+        if (i < 0) {
+            out.key("reason").value("solved");
+            return;
+        }
+        cellFields(out, i);
+        out.key("number").value(solution.charAt(i) - '0');
+        out.key("reason").value("easiest");
+    }
+
+    /**
+     * /grade: rate a board's difficulty.
+     *
+     * @param request Holds "board".
+     * @param out     Writer for the answer.
+     */
+    private static void grade(JSONObject request, JSONWriter out) {
+        String board = board(request);
+        Solver solver = new Solver(board);
+        int solutions = solver.solve(2);
+
+        int givens = 0;
+        for (int i = 0; i < 81; i++) {
+            if (board.charAt(i) != '0') {
+                givens++;
+            }
+        }
+
+        out.key("difficulty").value(Difficulty.rate(new GameGrid(board)).name().toLowerCase());
+        out.key("givens").value(givens);
+        out.key("guesses").value(solver.getGuesses());
+        out.key("unique").value(solutions == 1);
+    }
+
+    /**
+     * Get the board from a request, checking its format.
+     *
+     * @param request Request parameters.
+     * @return 81-character board.
+     * @throws IllegalArgumentException If there is no board, or it isn't
+     *                                  81 digits.
+     */
+    private static String board(JSONObject request) {
+        String board = request.optString("board", null);
+        if (board == null) {
+            throw new IllegalArgumentException("missing board");
+        }
+        checkBoard(board);
+        return board;
+    }
+
+    /**
+     * Check the format of a board.
+     *
+     * @param board Board to check.
+     * @throws IllegalArgumentException If the board isn't 81 digits.
+     */
+    private static void checkBoard(String board) {
+        if (board.length() != 81) {
+            throw new IllegalArgumentException("board must be 81 digits");
+        }
+        for (int i = 0; i < 81; i++) {
+            if (board.charAt(i) < '0' || board.charAt(i) > '9') {
+                throw new IllegalArgumentException("board must be 81 digits");
+            }
+        }
+    }
+
+    /**
+     * Write a cell as a {row, col} object.
+     *
+     * @param out Writer for the answer.
+     * @param i   Index of the cell, row * 9 + col.
+     */
+    private static void cell(JSONWriter out, int i) {
+        out.object();
+        cellFields(out, i);
+        out.endObject();
+    }
+
+    /**
+     * Write the row and col keys of a cell.
+     *
+     * @param out Writer for the answer.
+     * @param i   Index of the cell, row * 9 + col.
+     */
+    private static void cellFields(JSONWriter out, int i) {
+        out.key("row").value(i / 9);
+        out.key("col").value(i % 9);
+    }
+
+    /**
+     * Connect an endpoint to a path, with the request parsing, error
+     * handling and JSON writing every endpoint shares.
+     *
+     * @param path     Path of the endpoint.
+     * @param endpoint Endpoint answering requests on the path.
+     */
+    private void route(String path, Endpoint endpoint) {
+        server.createContext(path, exchange -> {
+            int status = 200;
+            StringBuilder body = new StringBuilder(256);
+            try {
+                JSONObject request = parseRequest(exchange);
+                JSONWriter out = new JSONWriter(body).object();
+                endpoint.answer(request, out);
+                out.endObject();
+            } catch (IllegalArgumentException | JSONException ex) {
+                status = 400;
+                body.setLength(0);
+                new JSONWriter(body).object().key("error").value(ex.getMessage()).endObject();
+            } catch (RuntimeException ex) {
+                status = 500;
+                body.setLength(0);
+                new JSONWriter(body).object().key("error").value(ex.toString()).endObject();
+            }
+            respond(exchange, status, body);
+        });
+    }
+
+    /**
+     * Collect a request's parameters: the JSON object in its body, if any,
+     * plus the parameters in its query string.
+     *
+     * @param exchange Request to read.
+     * @return Request parameters.
+     * @throws IOException If the body can't be read.
+     */
+    private static JSONObject parseRequest(HttpExchange exchange) throws IOException {
+        JSONObject request = new JSONObject();
+
+        if ("POST".equals(exchange.getRequestMethod())) {
+            try (InputStreamReader in = new InputStreamReader(exchange.getRequestBody(),
+                    StandardCharsets.UTF_8)) {
+                JSONTokener x = new JSONTokener(in);
+                if (x.nextClean() == '{') {
+                    x.back();
+                    request = new JSONObject(x);
+                }
+            }
+        }
+
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    request.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        return request;
+    }
+
+    /**
+     * Send a JSON answer.
+     *
+     * @param exchange Request being answered.
+     * @param status   HTTP status code.
+     * @param body     JSON text of the answer.
+     * @throws IOException If the answer can't be sent.
+     */
+    private static void respond(HttpExchange exchange, int status, CharSequence body)
+            throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    /**
+     * Make the executor requests are handled on: one virtual thread per
+     * request if the JVM supports them, or else a pool of platform threads.
+     *
+     * @return Executor for requests.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            // looked up by reflection so the code still compiles and runs
+            // on Java versions without virtual threads
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "puzzle-http");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /**
+     * Run the API, serving games from the store set in DoaneSuDoKu.ini.
+     *
+     * @param args Optional port number; DEFAULT_PORT if not given.
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        try {
+            PuzzleHttpApi api = new PuzzleHttpApi(port, Persistence.getInstance());
+            api.start();
+            System.out.println("Serving the puzzle API on port " + api.getPort());
+        } catch (IOException ex) {
+            System.err.println("Cannot start the puzzle API on port " + port + "! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package edu.doane.sudoku.controller;
+
+import edu.doane.sudoku.persistence.PuzzleAnalytics;
+import edu.doane.sudoku.persistence.PuzzleAnalyticsStore;
+import edu.doane.sudoku.persistence.SessionLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch job replaying the session logs written by SessionEngines into
+ * per-puzzle analytics: median solve time, hint rate, the cells players
+ * stall on, and the wrong numbers they play most often. The logs are
+ * replayed in parallel, one file per task on the common fork/join pool,
+ * each into its own map of aggregates, and the maps are added together
+ * at the end, so the replay threads share nothing.
+ * <p>
+ * Each log file is one engine's over one period, as rotated by
+ * SessionEngine.rotateLog(), and a session's moves are only read in the
+ * file they were written to. A session is counted in the file it starts
+ * in; a session carried into a file from the previous period adds its
+ * later moves, hints and solve to that period, but not another session.
+ * A session picked up from a plain snapshot part way through, as after
+ * SessionEngine.recover(), counts as a session in that file.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class ReplayAnalytics {
+
+    /**
+     * Replay session logs into per-puzzle analytics.
+     *
+     * @param fileNames Names of the log files.
+     * @return Analytics of each puzzle played in the logs, by GAME_ID.
+     * @throws IOException If a log can't be read.
+     */
+    public static Map<Integer, PuzzleAnalytics> replay(List<String> fileNames)
+            throws IOException {
+        try {
+            return fileNames.parallelStream()
+                    .map(ReplayAnalytics::replayFile)
+                    .reduce(ReplayAnalytics::merge)
+                    .orElseGet(HashMap::new);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Replay one session log.
+     *
+     * @param fileName Name of the log file.
+     * @return Analytics of each puzzle played in the log, by GAME_ID.
+     * @throws UncheckedIOException If the log can't be read.
+     */
+    private static Map<Integer, PuzzleAnalytics> replayFile(String fileName) {
+        FileReplay visitor = new FileReplay();
+        try {
+            SessionLog.replay(fileName, visitor);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return visitor.puzzles;
+    }
+
+    /**
+     * Add two maps of aggregates together, reusing the larger one.
+     *
+     * @param a One map.
+     * @param b The other map.
+     * @return Map holding the sums.
+     */
+    private static Map<Integer, PuzzleAnalytics> merge(Map<Integer, PuzzleAnalytics> a,
+            Map<Integer, PuzzleAnalytics> b) {
+        if (a.size() < b.size()) {
+            Map<Integer, PuzzleAnalytics> t = a;
+            a = b;
+            b = t;
+        }
+        for (PuzzleAnalytics p : b.values()) {
+            PuzzleAnalytics q = a.putIfAbsent(p.getGameId(), p);
+            if (q != null) {
+                q.addAll(p);
+            }
+        }
+        return a;
+    }
+
+    /**
+     * State of a session while its log is replayed.
+     */
+    private static class Session {
+
+        /**
+         * Aggregate of the session's puzzle.
+         */
+        final PuzzleAnalytics puzzle;
+
+        /**
+         * Time on the session's clock at its previous record.
+         */
+        long lastMillis;
+
+        /**
+         * Hints taken so far.
+         */
+        int hints;
+
+        /**
+         * Wrong numbers played so far.
+         */
+        int mistakes;
+
+        /**
+         * True once the session has been won or given up; it is still
+         * live, but its moves no longer count.
+         */
+        boolean over;
+
+        /**
+         * Create the state of a session.
+         *
+         * @param puzzle Aggregate of the session's puzzle.
+         */
+        Session(PuzzleAnalytics puzzle) {
+            this.puzzle = puzzle;
+        }
+    }
+
+    /**
+     * Visitor replaying one log into aggregates. Sessions are found by
+     * their snapshots; records of sessions whose snapshot isn't in the log
+     * are skipped.
+     */
+    private static class FileReplay implements SessionLog.Visitor {
+
+        /**
+         * Aggregates built so far, by GAME_ID.
+         */
+        final HashMap<Integer, PuzzleAnalytics> puzzles = new HashMap<>();
+
+        /**
+         * Sessions live at this point in the log, by session ID.
+         */
+        private final HashMap<Long, Session> sessions = new HashMap<>();
+
+        @Override
+        public void snapshot(long session, long millis, ByteBuffer payload) {
+            if (sessions.containsKey(session)) {
+                return;
+            }
+            int gameId = SessionEngine.snapshotGameId(payload);
+            if (gameId < 0) {
+                return;
+            }
+
+            PuzzleAnalytics puzzle = puzzles.computeIfAbsent(gameId, PuzzleAnalytics::new);
+            puzzle.addSession();
+            sessions.put(session, fromSnapshot(puzzle, millis, payload));
+        }
+
+        @Override
+        public void carried(long session, long millis, ByteBuffer payload) {
+            if (sessions.containsKey(session)) {
+                return;
+            }
+            int gameId = SessionEngine.snapshotGameId(payload);
+            if (gameId < 0) {
+                return;
+            }
+
+            // counted as a session in the period it started in
+            PuzzleAnalytics puzzle = puzzles.computeIfAbsent(gameId, PuzzleAnalytics::new);
+            Session s = fromSnapshot(puzzle, millis, payload);
+            s.over = SessionEngine.snapshotSolved(payload);
+            sessions.put(session, s);
+        }
+
+        /**
+         * Create the state of a session picked up from a snapshot.
+         *
+         * @param puzzle  Aggregate of the session's puzzle.
+         * @param millis  Time on the session's clock.
+         * @param payload Snapshot of the session.
+         * @return State of the session.
+         */
+        private static Session fromSnapshot(PuzzleAnalytics puzzle, long millis,
+                ByteBuffer payload) {
+            Session s = new Session(puzzle);
+            s.lastMillis = millis;
+            s.hints = SessionEngine.snapshotHints(payload);
+            s.mistakes = SessionEngine.snapshotMistakes(payload);
+            return s;
+        }
+
+        @Override
+        public void event(long session, byte type, int cell, int number, int flags,
+                long millis) {
+            Session s = sessions.get(session);
+            if (s == null) {
+                return;
+            }
+            if (type == SessionLog.END) {
+                sessions.remove(session);
+                return;
+            }
+            if (s.over) {
+                return;
+            }
+
+            switch (type) {
+                case SessionLog.PLAY:
+                    if ((flags & SessionLog.WRONG) != 0) {
+                        s.puzzle.addWrong(cell, number);
+                        s.mistakes++;
+                    } else {
+                        s.puzzle.addThink(cell, millis - s.lastMillis);
+                    }
+                    break;
+                case SessionLog.HINT:
+                    s.puzzle.addHint();
+                    s.hints++;
+                    break;
+                case SessionLog.QUIT:
+                    s.puzzle.addQuit();
+                    s.over = true;
+                    break;
+                default:
+                    break;
+            }
+
+            if ((flags & SessionLog.WON) != 0) {
+                s.puzzle.addSolve(millis, s.hints, s.mistakes);
+                s.over = true;
+            }
+            s.lastMillis = millis;
+        }
+    }
+
+    /**
+     * Replay session logs and write the analytics to the database in the
+     * working directory.
+     *
+     * @param args Label of the period the logs cover, e.g., "2026-10-19",
+     *             followed by the names of the log files.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ReplayAnalytics period logFile...");
+            System.exit(-1);
+        }
+
+        long start = System.nanoTime();
+        Collection<PuzzleAnalytics> analytics = null;
+        try {
+            analytics = replay(Arrays.asList(args).subList(1, args.length)).values();
+        } catch (IOException ex) {
+            System.err.println("Cannot replay session logs!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+        long replayed = System.nanoTime();
+
+        int sessions = 0;
+        for (PuzzleAnalytics a : analytics) {
+            sessions += a.getSessions();
+        }
+
+        try {
+            new PuzzleAnalyticsStore().write(args[0], analytics);
+        } catch (SQLException ex) {
+            System.err.println("Cannot write puzzle analytics!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+        long written = System.nanoTime();
+
+        System.out.printf("%d sessions of %d puzzles replayed in %d ms, written in %d ms%n",
+                sessions, analytics.size(), (replayed - start) / 1_000_000,
+                (written - replayed) / 1_000_000);
+    }
+}
@@ -0,0 +1,326 @@
+package edu.doane.sudoku.controller;
+
+import edu.doane.sudoku.metrics.Histogram;
+import edu.doane.sudoku.model.Solver;
+import edu.doane.sudoku.persistence.Persistence;
+import edu.doane.sudoku.persistence.SuDoKuPersistence;
+import edu.doane.sudoku.view.HeadlessAudio;
+import edu.doane.sudoku.view.HeadlessUI;
+import edu.doane.sudoku.view.SuDoKuAudio;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load driver playing complete games through a controller, timing every
+ * call. The game on the view is solved with Solver, and the player works
+ * through the empty cells in random order, like a person would: jotting
+ * notes, playing wrong numbers and erasing them, taking the odd hint, and
+ * pausing once a game, before playing each right number. Once the game is
+ * won it asks for the next one. The report gives latency percentiles for
+ * each controller operation, so regressions show up in automated runs.
+ * <p>
+ * Run from the command line, it drives DesktopControllers with a
+ * HeadlessUI, a HeadlessTimer and HeadlessAudio, one per player, with the
+ * players in parallel. Given "wheel", the players' timers are WheelTimers
+ * on one shared TimingWheel instead, as on a server, each pausing its
+ * clock once its player has made no move for IDLE_MILLIS. The controllers
+ * use the store and results database in the working directory, so run it
+ * somewhere other than where the game is usually played.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class ScriptedPlayer {
+
+    /**
+     * Names of the operations timed, indexed by the constants below.
+     */
+    private static final String[] OPERATIONS = {"playNumber", "removeNumber",
+        "setNote", "getHint", "pause", "requestGame"};
+
+    /**
+     * Index of playNumber() in OPERATIONS.
+     */
+    private static final int PLAY = 0;
+
+    /**
+     * Index of removeNumber() in OPERATIONS.
+     */
+    private static final int REMOVE = 1;
+
+    /**
+     * Index of setNote() in OPERATIONS.
+     */
+    private static final int NOTE = 2;
+
+    /**
+     * Index of getHint() in OPERATIONS.
+     */
+    private static final int HINT = 3;
+
+    /**
+     * Index of pause() in OPERATIONS.
+     */
+    private static final int PAUSE = 4;
+
+    /**
+     * Index of requestGame() in OPERATIONS.
+     */
+    private static final int REQUEST = 5;
+
+    /**
+     * How long a player may make no move before a WheelTimer pauses its
+     * clock, in milliseconds.
+     */
+    private static final long IDLE_MILLIS = 60_000;
+
+    /**
+     * Controller being driven.
+     */
+    private final SuDoKuController controller;
+
+    /**
+     * View the controller draws on.
+     */
+    private final HeadlessUI view;
+
+    /**
+     * Source of the player's choices; seeded, so runs can be repeated.
+     */
+    private final Random random;
+
+    /**
+     * Latencies of each operation, indexed like OPERATIONS.
+     */
+    private final Histogram[] latencies;
+
+    /**
+     * Number of games won since the last reset().
+     */
+    private int games;
+
+    /**
+     * Create a player.
+     *
+     * @param controller Controller to drive.
+     * @param view       View the controller draws on.
+     * @param seed       Seed for the player's choices.
+     */
+    public ScriptedPlayer(SuDoKuController controller, HeadlessUI view, long seed) {
+        this.controller = controller;
+        this.view = view;
+        random = new Random(seed);
+        latencies = new Histogram[OPERATIONS.length];
+        reset();
+    }
+
+    /**
+     * Play complete games, asking for the next game after each win.
+     *
+     * @param n Number of games to play.
+     * @throws IllegalStateException If a game can't be solved, or isn't
+     *                               won when it should be.
+     */
+    public void playGames(int n) {
+        for (int i = 0; i < n; i++) {
+            playGame();
+
+            long start = System.nanoTime();
+            controller.requestGame(null);
+            latencies[REQUEST].recordSince(start);
+        }
+    }
+
+    /**
+     * Play the game on the view until it is won.
+     *
+     * @throws IllegalStateException If the game can't be solved, or isn't
+     *                               won when it should be.
+     */
+    public void playGame() {
+        Solver solver = new Solver(view.getGivenData());
+        if (solver.solve(1) == 0) {
+            throw new IllegalStateException("Can't solve game " + view.getGivenData());
+        }
+        String solution = solver.getSolution();
+
+        // the empty cells, in the order the player fills them
+        ArrayList<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < 81; i++) {
+            if (!view.isGiven(i / 9, i % 9)) {
+                cells.add(i);
+            }
+        }
+        Collections.shuffle(cells, random);
+
+        int celebrations = view.getCelebrations();
+        int pauseAt = random.nextInt(cells.size());
+        for (int k = 0; k < cells.size(); k++) {
+            int cell = cells.get(k);
+            int row = cell / 9;
+            int col = cell % 9;
+            int number = solution.charAt(cell) - '0';
+
+            if (k == pauseAt) {
+                time(PAUSE, () -> controller.pause());
+                time(PAUSE, () -> controller.pause());
+            }
+
+            double r = random.nextDouble();
+            if (r < 0.15) {
+                int note = 1 + random.nextInt(9);
+                time(NOTE, () -> controller.setNote(row, col, note));
+            } else if (r < 0.25) {
+                int wrong = 1 + (number + random.nextInt(8)) % 9;
+                time(PLAY, () -> controller.playNumber(row, col, wrong));
+                time(REMOVE, () -> controller.removeNumber(row, col));
+            } else if (r < 0.27 && k < cells.size() - 1) {
+                time(HINT, () -> controller.getHint(row, col));
+                continue;
+            }
+
+            time(PLAY, () -> controller.playNumber(row, col, number));
+        }
+
+        if (view.getCelebrations() == celebrations) {
+            throw new IllegalStateException("Game " + view.getGivenData()
+                    + " wasn't won after playing its solution");
+        }
+        games++;
+    }
+
+    /**
+     * Forget the games played and latencies measured so far, e.g., after
+     * a warm-up.
+     */
+    public void reset() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram();
+        }
+        games = 0;
+    }
+
+    /**
+     * Add the games played and latencies measured by another player to
+     * this one's, e.g., to report on players that ran in parallel.
+     *
+     * @param other Player whose measurements to add.
+     */
+    public void merge(ScriptedPlayer other) {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i].addAll(other.latencies[i]);
+        }
+        games += other.games;
+    }
+
+    /**
+     * Build the report of the latencies measured so far.
+     *
+     * @return Multi-line report, one line per operation.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Scripted play: %d games (latency in microseconds)%n", games));
+        sb.append(String.format("  %-14s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "mean", "p50", "p90", "p99", "max"));
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            Histogram.Snapshot h = latencies[i].snapshot();
+            sb.append(String.format("  %-14s %9d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    OPERATIONS[i], h.getCount(), h.getMean() / 1e3,
+                    h.getPercentile(50) / 1e3, h.getPercentile(90) / 1e3,
+                    h.getPercentile(99) / 1e3, h.getMax() / 1e3));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Call the controller and record how long it took.
+     *
+     * @param operation Index of the operation in OPERATIONS.
+     * @param call      Call to make.
+     */
+    private void time(int operation, Runnable call) {
+        long start = System.nanoTime();
+        call.run();
+        latencies[operation].recordSince(start);
+    }
+
+    /**
+     * Drive DesktopControllers through games and print the latencies.
+     * Each player has its own controller, view, timer and journal; they
+     * share only the Persistence instance, and play in parallel.
+     *
+     * @param args Optional number of games per player (default 1000),
+     *             seed (default 1), number of players (default 1), and
+     *             timer: "headless" (default) or "wheel".
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        TimingWheel wheel = args.length > 3 && args[3].equals("wheel")
+                ? new TimingWheel("scripted-timers", 100, 1024)
+                : null;
+
+        SuDoKuPersistence db = Persistence.getInstance();
+        SuDoKuAudio audio = new HeadlessAudio();
+        ScriptedPlayer[] players = new ScriptedPlayer[count];
+        for (int i = 0; i < count; i++) {
+            File journal;
+            try {
+                // don't touch the player's saved game
+                journal = File.createTempFile("scripted-player", ".journal");
+                journal.deleteOnExit();
+            } catch (IOException ex) {
+                System.err.println("Cannot create scratch journal!");
+                System.err.println(ex.toString());
+                System.exit(-1);
+                return;
+            }
+
+            HeadlessUI view = new HeadlessUI();
+            SuDoKuTimer timer = wheel == null
+                    ? new HeadlessTimer()
+                    : new WheelTimer(wheel, IDLE_MILLIS, null);
+            DesktopController controller = new DesktopController(view, timer,
+                    audio, db, journal.getPath());
+            players[i] = new ScriptedPlayer(controller, view, seed + i);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(count);
+        ArrayList<Future<?>> runs = new ArrayList<>();
+        for (ScriptedPlayer player : players) {
+            runs.add(pool.submit(() -> {
+                // warm up, so the report measures compiled code
+                player.playGames(Math.max(1, n / 10));
+                player.reset();
+                player.playGames(n);
+            }));
+        }
+        pool.shutdown();
+
+        try {
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } catch (ExecutionException | InterruptedException ex) {
+            System.err.println("Scripted play failed!");
+            System.err.println(ex.getCause() == null ? ex.toString() : ex.getCause().toString());
+            System.exit(-1);
+        }
+
+        for (int i = 1; i < count; i++) {
+            players[0].merge(players[i]);
+        }
+        System.out.print(players[0].report());
+        System.exit(0);
+    }
+}
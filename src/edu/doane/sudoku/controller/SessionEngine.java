@@ -0,0 +1,1000 @@
+package edu.doane.sudoku.controller;
+
+import edu.doane.sudoku.model.ElapsedTime;
+import edu.doane.sudoku.model.Game;
+import edu.doane.sudoku.persistence.SessionLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Server-side engine running many games at once, one per session, with
+ * the same operations DesktopController offers a single player: playing
+ * and removing numbers, toggling notes, taking hints, and pausing.
+ * <p>
+ * Sessions aren't objects. Each one is a slot in a set of parallel
+ * primitive arrays: 81 bytes for the board, 81 for the solution, 81 short
+ * note masks, and a few counters and times, so a session costs about 400
+ * bytes and 100,000 live sessions fit in about 40 MB. Session IDs combine
+ * the slot with a generation number, so an ID from an ended session can't
+ * reach whatever session reuses its slot. Operations on a session lock one
+ * of a fixed set of stripes, chosen by slot, so sessions on different
+ * stripes never wait for each other.
+ * <p>
+ * An engine can record every move in a SessionLog, with a snapshot of a
+ * session when it starts and after every SNAPSHOT_EVERY moves, and
+ * recover() rebuilds the live sessions from the log after a crash.
+ * rotateLog() switches to a new log, e.g., once a day, carrying the live
+ * sessions into it, so each log covers one period and can be replayed on
+ * its own.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class SessionEngine {
+
+    /**
+     * Result of playing a number.
+     */
+    public enum Move {
+        /**
+         * The cell holds a given, so nothing changed.
+         */
+        IGNORED,
+        /**
+         * The number was played.
+         */
+        PLAYED,
+        /**
+         * The number was played, and it completed the game.
+         */
+        WON
+    }
+
+    /**
+     * Time added to a session's clock for each hint, in milliseconds; the
+     * same penalty the desktop timer adds.
+     */
+    public static final long HINT_PENALTY_MILLIS = ElapsedTime.HINT_PENALTY_SECONDS * 1000L;
+
+    /**
+     * Number of moves in a session between snapshots in the log.
+     */
+    private static final int SNAPSHOT_EVERY = 64;
+
+    /**
+     * Size of a snapshot in the log, in bytes: GAME_ID, hints, mistakes,
+     * running flag, board, solution, and notes.
+     */
+    private static final int SNAPSHOT_SIZE = 4 + 2 + 2 + 1 + 81 + 81 + 81 * 2;
+
+    /**
+     * Number of lock stripes; a power of two.
+     */
+    private static final int STRIPES = 256;
+
+    /**
+     * Bit set in a board cell holding a given.
+     */
+    private static final byte GIVEN = 0x10;
+
+    /**
+     * Mask for the number in a board cell.
+     */
+    private static final byte NUMBER = 0x0F;
+
+    /**
+     * Most sessions that can be live at once.
+     */
+    private final int capacity;
+
+    /**
+     * Lock objects, one per stripe.
+     */
+    private final Object[] stripes;
+
+    /**
+     * Board of each session: 81 cells per slot, each the number (0 if
+     * empty) with GIVEN set for givens.
+     */
+    private final byte[] boards;
+
+    /**
+     * Solution of each session: 81 numbers per slot.
+     */
+    private final byte[] solutions;
+
+    /**
+     * Notes of each session: 81 masks per slot; bit n set if n is a note.
+     */
+    private final short[] notes;
+
+    /**
+     * Generation of each slot, bumped each time the slot is freed.
+     */
+    private final int[] generations;
+
+    /**
+     * GAME_ID of the game in each slot.
+     */
+    private final int[] gameIds;
+
+    /**
+     * Hints taken in each session.
+     */
+    private final short[] hints;
+
+    /**
+     * Mistakes made in each session, i.e., numbers played that don't match
+     * the solution.
+     */
+    private final short[] mistakes;
+
+    /**
+     * Time each session's clock has run, in milliseconds, up to the last
+     * time it was paused.
+     */
+    private final long[] elapsed;
+
+    /**
+     * System.nanoTime() when each session's clock last started, or 0 if
+     * the clock is stopped (paused or won).
+     */
+    private final long[] runningSince;
+
+    /**
+     * Moves logged for each session since its last snapshot.
+     */
+    private final byte[] sinceSnapshot;
+
+    /**
+     * Log recording the moves of each stripe's sessions, or null; each
+     * entry is guarded by its stripe's lock. All entries hold the same log
+     * except while rotateLog() is switching them.
+     */
+    private final SessionLog[] logs;
+
+    /**
+     * Free slots, used as a stack.
+     */
+    private final int[] free;
+
+    /**
+     * Number of free slots on the stack.
+     */
+    private int freeCount;
+
+    /**
+     * Create an engine that doesn't log moves.
+     *
+     * @param capacity Most sessions that can be live at once.
+     */
+    public SessionEngine(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Create an engine that records every move in a log.
+     *
+     * @param capacity Most sessions that can be live at once.
+     * @param log      Log to append moves to, or null.
+     */
+    public SessionEngine(int capacity, SessionLog log) {
+        this.capacity = capacity;
+        stripes = new Object[STRIPES];
+        logs = new SessionLog[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+            logs[i] = log;
+        }
+
+        boards = new byte[capacity * 81];
+        solutions = new byte[capacity * 81];
+        notes = new short[capacity * 81];
+        generations = new int[capacity];
+        gameIds = new int[capacity];
+        hints = new short[capacity];
+        mistakes = new short[capacity];
+        elapsed = new long[capacity];
+        runningSince = new long[capacity];
+        sinceSnapshot = new byte[capacity];
+
+        free = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            free[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+    }
+
+    /**
+     * Start a session playing a game. The session's clock starts running.
+     *
+     * @param game Game to play.
+     * @return ID of the new session.
+     * @throws IllegalStateException If the engine is full.
+     */
+    public long startSession(Game game) {
+        int slot;
+        synchronized (free) {
+            if (freeCount == 0) {
+                throw new IllegalStateException("Session engine is full: "
+                        + capacity + " sessions");
+            }
+            slot = free[--freeCount];
+        }
+
+        String initial = game.getInitial().getGameData();
+        String solved = game.getSolved().getGameData();
+        synchronized (stripe(slot)) {
+            int base = slot * 81;
+            for (int i = 0; i < 81; i++) {
+                byte n = (byte) (initial.charAt(i) - '0');
+                boards[base + i] = n == 0 ? 0 : (byte) (n | GIVEN);
+                solutions[base + i] = (byte) (solved.charAt(i) - '0');
+                notes[base + i] = 0;
+            }
+            gameIds[slot] = game.getID();
+            hints[slot] = 0;
+            mistakes[slot] = 0;
+            elapsed[slot] = 0;
+            runningSince[slot] = System.nanoTime();
+
+            long session = ((long) generations[slot] << 32) | slot;
+            if (logOf(slot) != null) {
+                snapshot(session, slot);
+            }
+            return session;
+        }
+    }
+
+    /**
+     * End a session, freeing its slot.
+     *
+     * @param session ID of the session.
+     * @throws IllegalArgumentException If the session doesn't exist.
+     */
+    public void endSession(long session) {
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            SessionLog log = logOf(slot);
+            if (log != null) {
+                log.append(session, SessionLog.END, 0, 0, 0, elapsedMillis(slot));
+            }
+            generations[slot]++;
+            solutions[slot * 81] = 0;
+        }
+        synchronized (free) {
+            free[freeCount++] = slot;
+        }
+    }
+
+    /**
+     * Play a number in a session.
+     *
+     * @param session ID of the session.
+     * @param row     Row of the cell, in [0, 8].
+     * @param col     Column of the cell, in [0, 8].
+     * @param number  Number to play, in [1, 9].
+     * @return What happened.
+     * @throws IllegalArgumentException If the session doesn't exist, or
+     *                                  the cell or number is out of range.
+     */
+    public Move playNumber(long session, int row, int col, int number) {
+        checkCell(row, col);
+        checkNumber(number);
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            int cell = row * 9 + col;
+            Move move = applyPlay(slot, cell, number);
+            if (move != Move.IGNORED) {
+                int flags = (number != solutions[slot * 81 + cell] ? SessionLog.WRONG : 0)
+                        | (move == Move.WON ? SessionLog.WON : 0);
+                record(session, slot, SessionLog.PLAY, cell, number, flags);
+            }
+            return move;
+        }
+    }
+
+    /**
+     * Remove a number from a session's board.
+     *
+     * @param session ID of the session.
+     * @param row     Row of the cell, in [0, 8].
+     * @param col     Column of the cell, in [0, 8].
+     * @return True if a number was removed; false if the cell was empty or
+     * held a given.
+     * @throws IllegalArgumentException If the session doesn't exist, or
+     *                                  the cell is out of range.
+     */
+    public boolean removeNumber(long session, int row, int col) {
+        checkCell(row, col);
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            int cell = row * 9 + col;
+            if (!applyRemove(slot, cell)) {
+                return false;
+            }
+            record(session, slot, SessionLog.REMOVE, cell, 0, 0);
+            return true;
+        }
+    }
+
+    /**
+     * Toggle a note in a session.
+     *
+     * @param session ID of the session.
+     * @param row     Row of the cell, in [0, 8].
+     * @param col     Column of the cell, in [0, 8].
+     * @param number  Note to toggle, in [1, 9].
+     * @return True if the note is now set, false if it is now cleared.
+     * @throws IllegalArgumentException If the session doesn't exist, or
+     *                                  the cell or number is out of range.
+     */
+    public boolean setNote(long session, int row, int col, int number) {
+        checkCell(row, col);
+        checkNumber(number);
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            int cell = row * 9 + col;
+            boolean set = applyNote(slot, cell, number);
+            record(session, slot, SessionLog.NOTE, cell, number, 0);
+            return set;
+        }
+    }
+
+    /**
+     * Fill in one cell of a session from the solution, at the cost of a
+     * hint and HINT_PENALTY_MILLIS on the clock. The filled cell becomes a
+     * given.
+     *
+     * @param session ID of the session.
+     * @param row     Row of the cell, in [0, 8].
+     * @param col     Column of the cell, in [0, 8].
+     * @return Number filled in, or 0 if the cell already held a given.
+     * @throws IllegalArgumentException If the session doesn't exist, or
+     *                                  the cell is out of range.
+     */
+    public int getHint(long session, int row, int col) {
+        checkCell(row, col);
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            int cell = row * 9 + col;
+            int number = applyHint(slot, cell);
+            if (number != 0) {
+                record(session, slot, SessionLog.HINT, cell, number,
+                        isSolved(slot) ? SessionLog.WON : 0);
+            }
+            return number;
+        }
+    }
+
+    /**
+     * Pause a running session, or resume a paused one. A won session stays
+     * stopped.
+     *
+     * @param session ID of the session.
+     * @return True if the session is now paused.
+     * @throws IllegalArgumentException If the session doesn't exist.
+     */
+    public boolean pause(long session) {
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            if (runningSince[slot] != 0) {
+                stopClock(slot);
+                record(session, slot, SessionLog.PAUSE, 0, 0, 0);
+                return true;
+            }
+            if (!isSolved(slot)) {
+                runningSince[slot] = System.nanoTime();
+                record(session, slot, SessionLog.RESUME, 0, 0, 0);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Give up on a session: its clock stops, and every cell is filled from
+     * the solution as a given. The session isn't won; it stays live until
+     * it is ended, so the player can look at the solution.
+     *
+     * @param session ID of the session.
+     * @throws IllegalArgumentException If the session doesn't exist.
+     */
+    public void rageQuit(long session) {
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            stopClock(slot);
+            applyQuit(slot);
+            record(session, slot, SessionLog.QUIT, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Get a session's board.
+     *
+     * @param session ID of the session.
+     * @return 81-character game data of the board as the player has it.
+     * @throws IllegalArgumentException If the session doesn't exist.
+     */
+    public String getBoard(long session) {
+        int slot = slot(session);
+        char[] data = new char[81];
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            int base = slot * 81;
+            for (int i = 0; i < 81; i++) {
+                data[i] = (char) ('0' + (boards[base + i] & NUMBER));
+            }
+        }
+        return new String(data);
+    }
+
+    /**
+     * Get the notes in one cell of a session.
+     *
+     * @param session ID of the session.
+     * @param row     Row of the cell, in [0, 8].
+     * @param col     Column of the cell, in [0, 8].
+     * @return Note mask; bit n is set if n is a note.
+     * @throws IllegalArgumentException If the session doesn't exist, or
+     *                                  the cell is out of range.
+     */
+    public int getNotes(long session, int row, int col) {
+        checkCell(row, col);
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            return notes[slot * 81 + row * 9 + col];
+        }
+    }
+
+    /**
+     * Get the GAME_ID of the game a session is playing.
+     *
+     * @param session ID of the session.
+     * @return GAME_ID of the game.
+     * @throws IllegalArgumentException If the session doesn't exist.
+     */
+    public int getGameId(long session) {
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            return gameIds[slot];
+        }
+    }
+
+    /**
+     * Get the time on a session's clock.
+     *
+     * @param session ID of the session.
+     * @return Time played, in milliseconds, including hint penalties.
+     * @throws IllegalArgumentException If the session doesn't exist.
+     */
+    public long getElapsedMillis(long session) {
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            return elapsedMillis(slot);
+        }
+    }
+
+    /**
+     * Get the number of hints a session has taken.
+     *
+     * @param session ID of the session.
+     * @return Number of hints.
+     * @throws IllegalArgumentException If the session doesn't exist.
+     */
+    public int getHints(long session) {
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            return hints[slot];
+        }
+    }
+
+    /**
+     * Get the number of mistakes made in a session.
+     *
+     * @param session ID of the session.
+     * @return Number of numbers played that didn't match the solution.
+     * @throws IllegalArgumentException If the session doesn't exist.
+     */
+    public int getMistakes(long session) {
+        int slot = slot(session);
+        synchronized (stripe(slot)) {
+            check(session, slot);
+            return mistakes[slot];
+        }
+    }
+
+    /**
+     * Get the number of live sessions.
+     *
+     * @return Number of sessions started and not yet ended.
+     */
+    public int size() {
+        synchronized (free) {
+            return capacity - freeCount;
+        }
+    }
+
+    /**
+     * Switch to a new log, e.g., at the start of each day. One stripe at a
+     * time, the stripe's moves are sent to the new log, and a CARRY
+     * snapshot of each of its live sessions is written there first, so the
+     * new log holds everything needed to replay or recover those sessions
+     * without the old one. Moves go on being made while the logs are
+     * rotated; only the stripe being switched waits.
+     *
+     * @param next Log to append moves to from now on, or null to stop
+     *             logging.
+     * @return The previous log, or null if there was none; nothing is
+     * appended to it any more, so the caller may close it.
+     */
+    public SessionLog rotateLog(SessionLog next) {
+        SessionLog previous = null;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            synchronized (stripes[stripe]) {
+                if (logs[stripe] != null) {
+                    previous = logs[stripe];
+                }
+                logs[stripe] = next;
+                if (next == null) {
+                    continue;
+                }
+                for (int slot = stripe; slot < capacity; slot += STRIPES) {
+                    if (!isFree(slot)) {
+                        long session = ((long) generations[slot] << 32) | slot;
+                        next.appendCarried(session, elapsedMillis(slot), encode(slot));
+                        sinceSnapshot[slot] = 0;
+                    }
+                }
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Rebuild an engine's sessions from a log: each session is loaded from
+     * a snapshot, and the moves after it are applied in order. Sessions
+     * that were running when the log ends are running again, their clocks
+     * picking up from the last logged time.
+     *
+     * @param fileName Name of the log file.
+     * @param capacity Most sessions that can be live at once; at least the
+     *                 capacity of the engine that wrote the log.
+     * @param log      Log for the rebuilt engine to append moves to, or
+     *                 null.
+     * @return Engine holding the sessions that were live.
+     * @throws IOException If the log can't be read.
+     */
+    public static SessionEngine recover(String fileName, int capacity, SessionLog log)
+            throws IOException {
+        SessionEngine engine = new SessionEngine(capacity, log);
+        long now = System.nanoTime();
+        SessionLog.replay(fileName, new SessionLog.Visitor() {
+            @Override
+            public void event(long session, byte type, int cell, int number, int flags,
+                    long millis) {
+                int slot = (int) session;
+                if (slot < 0 || slot >= capacity || engine.isFree(slot)
+                        || (int) (session >>> 32) != engine.generations[slot]) {
+                    // a session whose start was lost
+                    return;
+                }
+
+                switch (type) {
+                    case SessionLog.PLAY:
+                        engine.applyPlay(slot, cell, number);
+                        break;
+                    case SessionLog.REMOVE:
+                        engine.applyRemove(slot, cell);
+                        break;
+                    case SessionLog.NOTE:
+                        engine.applyNote(slot, cell, number);
+                        break;
+                    case SessionLog.HINT:
+                        engine.applyHint(slot, cell);
+                        break;
+                    case SessionLog.PAUSE:
+                        engine.runningSince[slot] = 0;
+                        break;
+                    case SessionLog.RESUME:
+                        engine.runningSince[slot] = now;
+                        break;
+                    case SessionLog.QUIT:
+                        engine.runningSince[slot] = 0;
+                        engine.applyQuit(slot);
+                        break;
+                    case SessionLog.END:
+                        engine.generations[slot]++;
+                        engine.solutions[slot * 81] = 0;
+                        return;
+                    default:
+                        return;
+                }
+
+                // the logged time already includes any hint penalty
+                engine.elapsed[slot] = millis;
+                if (engine.isSolved(slot)) {
+                    engine.runningSince[slot] = 0;
+                }
+            }
+
+            @Override
+            public void snapshot(long session, long millis, ByteBuffer payload) {
+                int slot = (int) session;
+                if (slot >= 0 && slot < capacity && payload.remaining() == SNAPSHOT_SIZE) {
+                    engine.generations[slot] = (int) (session >>> 32);
+                    engine.restore(slot, millis, payload, now);
+                }
+            }
+        });
+
+        // sessions still live keep their slots
+        engine.freeCount = 0;
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            if (engine.isFree(slot)) {
+                engine.free[engine.freeCount++] = slot;
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Play a number in a cell. Must be called holding the session's stripe.
+     *
+     * @param slot   Slot of the session.
+     * @param cell   Cell (row * 9 + col).
+     * @param number Number to play, in [1, 9].
+     * @return What happened.
+     */
+    private Move applyPlay(int slot, int cell, int number) {
+        int i = slot * 81 + cell;
+        if ((boards[i] & GIVEN) != 0) {
+            return Move.IGNORED;
+        }
+
+        boards[i] = (byte) number;
+        if (number != solutions[i]) {
+            mistakes[slot]++;
+        }
+
+        if (isSolved(slot)) {
+            stopClock(slot);
+            return Move.WON;
+        }
+        return Move.PLAYED;
+    }
+
+    /**
+     * Remove the number from a cell. Must be called holding the session's
+     * stripe.
+     *
+     * @param slot Slot of the session.
+     * @param cell Cell (row * 9 + col).
+     * @return True if a number was removed.
+     */
+    private boolean applyRemove(int slot, int cell) {
+        int i = slot * 81 + cell;
+        if ((boards[i] & GIVEN) != 0 || boards[i] == 0) {
+            return false;
+        }
+        boards[i] = 0;
+        return true;
+    }
+
+    /**
+     * Toggle a note in a cell. Must be called holding the session's stripe.
+     *
+     * @param slot   Slot of the session.
+     * @param cell   Cell (row * 9 + col).
+     * @param number Note to toggle, in [1, 9].
+     * @return True if the note is now set.
+     */
+    private boolean applyNote(int slot, int cell, int number) {
+        int i = slot * 81 + cell;
+        notes[i] ^= (short) (1 << number);
+        return (notes[i] & (1 << number)) != 0;
+    }
+
+    /**
+     * Fill a cell from the solution, as a given, and charge a hint. Must
+     * be called holding the session's stripe.
+     *
+     * @param slot Slot of the session.
+     * @param cell Cell (row * 9 + col).
+     * @return Number filled in, or 0 if the cell already held a given.
+     */
+    private int applyHint(int slot, int cell) {
+        int i = slot * 81 + cell;
+        if ((boards[i] & GIVEN) != 0) {
+            return 0;
+        }
+        boards[i] = (byte) (solutions[i] | GIVEN);
+        hints[slot]++;
+        elapsed[slot] += HINT_PENALTY_MILLIS;
+        if (isSolved(slot)) {
+            stopClock(slot);
+        }
+        return solutions[i];
+    }
+
+    /**
+     * Fill every cell from the solution, as givens. Must be called holding
+     * the session's stripe.
+     *
+     * @param slot Slot of the session.
+     */
+    private void applyQuit(int slot) {
+        int base = slot * 81;
+        for (int i = base; i < base + 81; i++) {
+            boards[i] = (byte) (solutions[i] | GIVEN);
+        }
+    }
+
+    /**
+     * Log a move, and a snapshot of the session if it is due for one. Must
+     * be called holding the session's stripe, after the move is applied.
+     *
+     * @param session ID of the session.
+     * @param slot    Slot of the session.
+     * @param type    Record type, e.g., SessionLog.PLAY.
+     * @param cell    Cell (row * 9 + col), or 0.
+     * @param number  Number, or 0.
+     * @param flags   Event flags, e.g., SessionLog.WRONG.
+     */
+    private void record(long session, int slot, byte type, int cell, int number, int flags) {
+        SessionLog log = logOf(slot);
+        if (log == null) {
+            return;
+        }
+        log.append(session, type, cell, number, flags, elapsedMillis(slot));
+        if (++sinceSnapshot[slot] >= SNAPSHOT_EVERY) {
+            snapshot(session, slot);
+        }
+    }
+
+    /**
+     * Log a snapshot of a session. Must be called holding the session's
+     * stripe.
+     *
+     * @param session ID of the session.
+     * @param slot    Slot of the session.
+     */
+    private void snapshot(long session, int slot) {
+        logOf(slot).appendSnapshot(session, elapsedMillis(slot), encode(slot));
+        sinceSnapshot[slot] = 0;
+    }
+
+    /**
+     * Encode a session's state for a snapshot. Must be called holding the
+     * session's stripe.
+     *
+     * @param slot Slot of the session.
+     * @return Encoded state, SNAPSHOT_SIZE bytes.
+     */
+    private byte[] encode(int slot) {
+        ByteBuffer buf = ByteBuffer.allocate(SNAPSHOT_SIZE);
+        buf.putInt(gameIds[slot]);
+        buf.putShort(hints[slot]);
+        buf.putShort(mistakes[slot]);
+        buf.put((byte) (runningSince[slot] != 0 ? 1 : 0));
+        buf.put(boards, slot * 81, 81);
+        buf.put(solutions, slot * 81, 81);
+        for (int i = slot * 81; i < slot * 81 + 81; i++) {
+            buf.putShort(notes[i]);
+        }
+        return buf.array();
+    }
+
+    /**
+     * Load a session from a snapshot.
+     *
+     * @param slot    Slot of the session.
+     * @param millis  Time on the session's clock.
+     * @param payload Snapshot, as written by snapshot().
+     * @param now     System.nanoTime() to restart a running clock from.
+     */
+    private void restore(int slot, long millis, ByteBuffer payload, long now) {
+        gameIds[slot] = payload.getInt();
+        hints[slot] = payload.getShort();
+        mistakes[slot] = payload.getShort();
+        runningSince[slot] = payload.get() != 0 ? now : 0;
+        payload.get(boards, slot * 81, 81);
+        payload.get(solutions, slot * 81, 81);
+        for (int i = slot * 81; i < slot * 81 + 81; i++) {
+            notes[i] = payload.getShort();
+        }
+        elapsed[slot] = millis;
+    }
+
+    /**
+     * Read the GAME_ID from a snapshot, without consuming it.
+     *
+     * @param payload Snapshot, as written by snapshot().
+     * @return GAME_ID of the session's game, or -1 if the payload isn't a
+     * snapshot this engine wrote.
+     */
+    static int snapshotGameId(ByteBuffer payload) {
+        return payload.remaining() == SNAPSHOT_SIZE ? payload.getInt(payload.position()) : -1;
+    }
+
+    /**
+     * Read the number of hints taken from a snapshot, without consuming
+     * it.
+     *
+     * @param payload Snapshot, as written by snapshot().
+     * @return Hints taken when the snapshot was written.
+     */
+    static int snapshotHints(ByteBuffer payload) {
+        return payload.getShort(payload.position() + 4);
+    }
+
+    /**
+     * Read the number of mistakes made from a snapshot, without consuming
+     * it.
+     *
+     * @param payload Snapshot, as written by snapshot().
+     * @return Wrong numbers played when the snapshot was written.
+     */
+    static int snapshotMistakes(ByteBuffer payload) {
+        return payload.getShort(payload.position() + 6);
+    }
+
+    /**
+     * Determine from a snapshot if the session's board was complete, i.e.,
+     * the game had been won or given up, without consuming it.
+     *
+     * @param payload Snapshot, as written by snapshot().
+     * @return True if every cell matched the solution.
+     */
+    static boolean snapshotSolved(ByteBuffer payload) {
+        int board = payload.position() + 9;
+        for (int i = 0; i < 81; i++) {
+            if ((payload.get(board + i) & NUMBER) != payload.get(board + 81 + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the time on a session's clock. Must be called holding the
+     * session's stripe.
+     *
+     * @param slot Slot of the session.
+     * @return Time played, in milliseconds.
+     */
+    private long elapsedMillis(int slot) {
+        long ms = elapsed[slot];
+        if (runningSince[slot] != 0) {
+            ms += (System.nanoTime() - runningSince[slot]) / 1_000_000;
+        }
+        return ms;
+    }
+
+    /**
+     * Determine if a session's board matches its solution. Must be called
+     * holding the session's stripe.
+     *
+     * @param slot Slot of the session.
+     * @return True if every cell holds the solution's number.
+     */
+    private boolean isSolved(int slot) {
+        int base = slot * 81;
+        for (int i = base; i < base + 81; i++) {
+            if ((boards[i] & NUMBER) != solutions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop a session's clock. Must be called holding the session's stripe.
+     *
+     * @param slot Slot of the session.
+     */
+    private void stopClock(int slot) {
+        if (runningSince[slot] != 0) {
+            elapsed[slot] += (System.nanoTime() - runningSince[slot]) / 1_000_000;
+            runningSince[slot] = 0;
+        }
+    }
+
+    /**
+     * Get the slot of a session ID.
+     *
+     * @param session ID of the session.
+     * @return Slot number.
+     * @throws IllegalArgumentException If the slot is out of range.
+     */
+    private int slot(long session) {
+        int slot = (int) session;
+        if (slot < 0 || slot >= capacity) {
+            throw new IllegalArgumentException("Unknown session: " + session);
+        }
+        return slot;
+    }
+
+    /**
+     * Check that a session ID is for the session now in its slot. Must be
+     * called holding the slot's stripe.
+     *
+     * @param session ID of the session.
+     * @param slot    Slot of the session.
+     * @throws IllegalArgumentException If the session has ended.
+     */
+    private void check(long session, int slot) {
+        if ((int) (session >>> 32) != generations[slot] || isFree(slot)) {
+            throw new IllegalArgumentException("Unknown session: " + session);
+        }
+    }
+
+    /**
+     * Determine if a slot is unused. Slots in use have a solution, which
+     * never has a 0 in its first cell; endSession() clears that cell.
+     *
+     * @param slot Slot to check.
+     * @return True if no session is using the slot.
+     */
+    private boolean isFree(int slot) {
+        return solutions[slot * 81] == 0;
+    }
+
+    /**
+     * Get the lock for a slot.
+     *
+     * @param slot Slot number.
+     * @return Lock object of the slot's stripe.
+     */
+    private Object stripe(int slot) {
+        return stripes[slot & (STRIPES - 1)];
+    }
+
+    /**
+     * Get the log for a slot's moves. Must be called holding the slot's
+     * stripe.
+     *
+     * @param slot Slot number.
+     * @return Log of the slot's stripe, or null.
+     */
+    private SessionLog logOf(int slot) {
+        return logs[slot & (STRIPES - 1)];
+    }
+
+    /**
+     * Check a cell's coordinates.
+     *
+     * @param row Row of the cell.
+     * @param col Column of the cell.
+     * @throws IllegalArgumentException If either is not in [0, 8].
+     */
+    private static void checkCell(int row, int col) {
+        if (row < 0 || row > 8 || col < 0 || col > 8) {
+            throw new IllegalArgumentException("Illegal cell: (" + row + ", " + col + ")");
+        }
+    }
+
+    /**
+     * Check a number.
+     *
+     * @param number Number to check.
+     * @throws IllegalArgumentException If it is not in [1, 9].
+     */
+    private static void checkNumber(int number) {
+        if (number < 1 || number > 9) {
+            throw new IllegalArgumentException("Illegal number: " + number);
+        }
+    }
+}
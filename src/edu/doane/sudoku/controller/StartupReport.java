@@ -0,0 +1,102 @@
+package edu.doane.sudoku.controller;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Record of how long each phase of application startup took. Phases may
+ * run on different threads; each one is recorded with the thread it ran on
+ * and its start and end times, in milliseconds since the JVM started, so
+ * the report shows which phases overlapped and which held up the window.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public final class StartupReport {
+
+    /**
+     * One recorded phase.
+     */
+    private static class Phase {
+        final String name;
+        final String thread;
+        final long start;
+        final long end;
+
+        Phase(String name, String thread, long start, long end) {
+            this.name = name;
+            this.thread = thread;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Phases recorded so far, in the order they finished.
+     */
+    private static final ArrayList<Phase> phases = new ArrayList<>();
+
+    /**
+     * Private constructor; this class only has static methods.
+     */
+    private StartupReport() {
+    }
+
+    /**
+     * Get the current time, in milliseconds since the JVM started.
+     *
+     * @return Milliseconds since the JVM started.
+     */
+    public static long now() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /**
+     * Record a phase that ran on the current thread.
+     *
+     * @param name  Name of the phase.
+     * @param start Time the phase started, from now().
+     * @param end   Time the phase ended, from now().
+     */
+    public static synchronized void record(String name, long start, long end) {
+        phases.add(new Phase(name, Thread.currentThread().getName(), start, end));
+    }
+
+    /**
+     * Record the parts of a phase, given as durations. The parts are
+     * assumed to have run one after another on the current thread,
+     * starting at the given time.
+     *
+     * @param prefix Prefix added to the name of each part.
+     * @param start  Time the first part started, from now().
+     * @param parts  Duration of each part, in milliseconds, in order.
+     */
+    public static synchronized void recordParts(String prefix, long start, Map<String, Long> parts) {
+        long t = start;
+        for (Map.Entry<String, Long> part : parts.entrySet()) {
+            record(prefix + part.getKey(), t, t + part.getValue());
+            t += part.getValue();
+        }
+    }
+
+    /**
+     * Build the report of the phases recorded so far.
+     *
+     * @return Multi-line report, one line per phase, in start order.
+     */
+    public static synchronized String report() {
+        ArrayList<Phase> sorted = new ArrayList<>(phases);
+        sorted.sort((a, b) -> Long.compare(a.start, b.start));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Startup timing (ms since JVM start)%n"));
+        sb.append(String.format("  %-24s %-24s %7s %7s %7s%n",
+                "phase", "thread", "start", "end", "took"));
+        for (Phase p : sorted) {
+            sb.append(String.format("  %-24s %-24s %7d %7d %7d%n",
+                    p.name, p.thread, p.start, p.end, p.end - p.start));
+        }
+        return sb.toString();
+    }
+}
@@ -33,12 +33,34 @@ public interface SuDoKuTimer {
      */
     void setView(SuDoKuUI view);
 
+    /**
+     * Get the time elapsed on this timer.
+     *
+     * @return Elapsed time, in milliseconds.
+     */
+    long getElapsedMillis();
+
+    /**
+     * Set the time elapsed on this timer, e.g., when resuming a saved game.
+     *
+     * @param millis Elapsed time, in milliseconds.
+     */
+    void setElapsedMillis(long millis);
+
     /**
      * Add 30 seconds to the timer if the hint feature is called
      */
 
     public void hintPunish();
 
+    /**
+     * Record that the player just made a move. Timers that pause themselves
+     * when the player is idle need this called on every move; the others
+     * ignore it.
+     */
+    default void touch() {
+    }
+
     /**
      * Get a string representation of the timer.
      *
@@ -0,0 +1,328 @@
+package edu.doane.sudoku.controller;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel running any number of timeouts on one thread, for
+ * servers with a timer or two per session. The wheel is a ring of buckets,
+ * one per tick; a timeout goes in the bucket its deadline falls in, with a
+ * count of the turns of the wheel left before it is due, so scheduling and
+ * cancelling are O(1) however many timeouts are pending, and each tick only
+ * looks at one bucket.
+ * <p>
+ * Any thread may schedule or cancel; both only put the timeout on a
+ * lock-free queue, which the driver thread drains at the next tick.
+ * Timeouts fire on the driver thread, at most one tick late, so their
+ * tasks must be short and must not block.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class TimingWheel {
+
+    /**
+     * A scheduled task, which can be cancelled until it fires.
+     */
+    public static final class Timeout {
+
+        /**
+         * State: waiting to fire.
+         */
+        private static final int PENDING = 0;
+
+        /**
+         * State: cancelled before it fired.
+         */
+        private static final int CANCELLED = 1;
+
+        /**
+         * State: fired.
+         */
+        private static final int EXPIRED = 2;
+
+        /**
+         * Wheel the timeout is scheduled on.
+         */
+        private final TimingWheel wheel;
+
+        /**
+         * Task to run when the timeout fires.
+         */
+        private final Runnable task;
+
+        /**
+         * System.nanoTime() at or after which the timeout fires.
+         */
+        private final long deadline;
+
+        /**
+         * PENDING, CANCELLED, or EXPIRED.
+         */
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        /**
+         * Turns of the wheel left before the timeout is due; driver only.
+         */
+        private long rounds;
+
+        /**
+         * Bucket the timeout is linked into, or -1; driver only.
+         */
+        private int bucket = -1;
+
+        /**
+         * Previous timeout in the bucket; driver only.
+         */
+        private Timeout prev;
+
+        /**
+         * Next timeout in the bucket; driver only.
+         */
+        private Timeout next;
+
+        /**
+         * Create a timeout.
+         *
+         * @param wheel    Wheel the timeout is scheduled on.
+         * @param task     Task to run.
+         * @param deadline System.nanoTime() to fire at.
+         */
+        private Timeout(TimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the timeout, if it hasn't fired yet.
+         *
+         * @return True if it was cancelled; false if it had already fired
+         * or been cancelled.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * Determine if the timeout is still waiting to fire.
+         *
+         * @return True if it has neither fired nor been cancelled.
+         */
+        public boolean isPending() {
+            return state.get() == PENDING;
+        }
+    }
+
+    /**
+     * Length of a tick, in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * Number of buckets minus one; the number of buckets is a power of two.
+     */
+    private final int mask;
+
+    /**
+     * First timeout in each bucket, or null; driver only.
+     */
+    private final Timeout[] buckets;
+
+    /**
+     * Timeouts scheduled since the last tick.
+     */
+    private final ConcurrentLinkedQueue<Timeout> added = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Timeouts cancelled since the last tick.
+     */
+    private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * System.nanoTime() when the wheel started; tick n ends at
+     * start + (n + 1) * tickNanos.
+     */
+    private final long start;
+
+    /**
+     * Thread turning the wheel and running the tasks.
+     */
+    private final Thread driver;
+
+    /**
+     * Number of the tick being processed; driver only.
+     */
+    private long tick;
+
+    /**
+     * Set by stop() to stop the driver.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Create a wheel and start its driver thread.
+     *
+     * @param name       Name of the driver thread.
+     * @param tickMillis Length of a tick, in milliseconds; timeouts fire
+     *                   at most this late.
+     * @param wheelSize  Number of buckets; rounded up to a power of two.
+     *                   Timeouts due within tickMillis * wheelSize
+     *                   milliseconds never wait more than one turn.
+     */
+    public TimingWheel(String name, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        tickNanos = tickMillis * 1_000_000;
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        mask = size - 1;
+        buckets = new Timeout[size];
+
+        start = System.nanoTime();
+        driver = new Thread(this::run, name);
+        driver.setDaemon(true);
+        driver.start();
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param task        Task to run on the driver thread; must be short.
+     * @param delayMillis How long from now to run it, in milliseconds.
+     * @return Timeout, for cancelling the task.
+     * @throws IllegalStateException If the wheel has been stopped.
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        if (stopped) {
+            throw new IllegalStateException("Timing wheel has been stopped");
+        }
+        Timeout t = new Timeout(this, task, System.nanoTime()
+                + Math.max(0, delayMillis) * 1_000_000);
+        added.add(t);
+        return t;
+    }
+
+    /**
+     * Stop the driver thread. Pending timeouts never fire.
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(driver);
+        try {
+            driver.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Body of the driver thread: wait for the end of each tick, then fire
+     * the timeouts due in its bucket.
+     */
+    private void run() {
+        while (!stopped) {
+            long end = start + (tick + 1) * tickNanos;
+            long wait;
+            while ((wait = end - System.nanoTime()) > 0 && !stopped) {
+                LockSupport.parkNanos(wait);
+            }
+            if (stopped) {
+                break;
+            }
+
+            unlinkCancelled();
+            linkAdded();
+            expire(System.nanoTime());
+            tick++;
+        }
+    }
+
+    /**
+     * Take the timeouts cancelled since the last tick out of their buckets.
+     */
+    private void unlinkCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null) {
+            // a timeout cancelled before it was linked is skipped by
+            // linkAdded() instead
+            if (t.bucket >= 0) {
+                unlink(t);
+            }
+        }
+    }
+
+    /**
+     * Put the timeouts scheduled since the last tick into their buckets.
+     */
+    private void linkAdded() {
+        Timeout t;
+        while ((t = added.poll()) != null) {
+            if (t.state.get() != Timeout.PENDING) {
+                continue;
+            }
+
+            // the tick the deadline falls in; one already past is due now
+            long due = Math.max((t.deadline - start) / tickNanos, tick);
+            t.rounds = (due - tick) / buckets.length;
+            t.bucket = (int) (due & mask);
+            t.prev = null;
+            t.next = buckets[t.bucket];
+            if (t.next != null) {
+                t.next.prev = t;
+            }
+            buckets[t.bucket] = t;
+        }
+    }
+
+    /**
+     * Fire the timeouts due in the current tick's bucket, and count down
+     * the rest.
+     *
+     * @param now System.nanoTime() at the end of the tick.
+     */
+    private void expire(long now) {
+        Timeout t = buckets[(int) (tick & mask)];
+        while (t != null && !stopped) {
+            Timeout next = t.next;
+            if (t.rounds > 0) {
+                t.rounds--;
+            } else if (t.deadline <= now) {
+                unlink(t);
+                if (t.state.compareAndSet(Timeout.PENDING, Timeout.EXPIRED)) {
+                    try {
+                        t.task.run();
+                    } catch (RuntimeException ex) {
+                        System.err.println("Timer task failed!");
+                        System.err.println(ex.toString());
+                    }
+                }
+            }
+            t = next;
+        }
+    }
+
+    /**
+     * Take a timeout out of its bucket.
+     *
+     * @param t Timeout linked into a bucket.
+     */
+    private void unlink(Timeout t) {
+        if (t.prev != null) {
+            t.prev.next = t.next;
+        } else {
+            buckets[t.bucket] = t.next;
+        }
+        if (t.next != null) {
+            t.next.prev = t.prev;
+        }
+        t.prev = null;
+        t.next = null;
+        t.bucket = -1;
+    }
+}
@@ -0,0 +1,270 @@
+package edu.doane.sudoku.controller;
+
+import edu.doane.sudoku.model.ElapsedTime;
+import edu.doane.sudoku.model.GameClock;
+import edu.doane.sudoku.view.SuDoKuUI;
+
+/**
+ * SuDoKuTimer for server sessions, driven by a TimingWheel shared with
+ * every other session instead of a thread or Timeline of its own. Time is
+ * kept by a GameClock. While the clock runs, the timer has at most two
+ * timeouts on the wheel: one refreshing the view as each second goes by,
+ * and, if the timer has an idle limit, one pausing the clock once the
+ * player has done nothing for that long.
+ * <p>
+ * DesktopController calls touch() on every move, through SuDoKuTimer; a
+ * controller that doesn't would have its player paused while active.
+ * Moves only record the time in touch(); the idle timeout checks it when
+ * it fires and, if the player has been active since, goes back on the
+ * wheel for the time left, so a move never costs a trip to the wheel.
+ * Views are refreshed, and the idle action run, on the wheel's driver
+ * thread.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class WheelTimer implements SuDoKuTimer {
+
+    /**
+     * Wheel the timeouts are scheduled on.
+     */
+    private final TimingWheel wheel;
+
+    /**
+     * Clock keeping the time.
+     */
+    private final GameClock clock = new GameClock();
+
+    /**
+     * How long the player may do nothing before the clock is paused, in
+     * milliseconds, or 0 for no limit.
+     */
+    private final long idleMillis;
+
+    /**
+     * Run when the clock is paused for idleness, or null.
+     */
+    private final Runnable onIdle;
+
+    /**
+     * System.nanoTime() of the player's last move.
+     */
+    private volatile long lastActivity;
+
+    /**
+     * View reflecting this timer's value, or null.
+     */
+    private SuDoKuUI view;
+
+    /**
+     * Time last shown on the view, so it is only updated when it changes.
+     */
+    private String shown;
+
+    /**
+     * Timeout refreshing the view, or null.
+     */
+    private TimingWheel.Timeout display;
+
+    /**
+     * Timeout checking for idleness, or null.
+     */
+    private TimingWheel.Timeout idle;
+
+    /**
+     * Bumped whenever the display timeout is replaced, so a refresh that
+     * fired just before it was cancelled doesn't start a second chain.
+     */
+    private int displayRound;
+
+    /**
+     * Bumped whenever the idle timeout is replaced, for the same reason.
+     */
+    private int idleRound;
+
+    /**
+     * Create a timer with no idle limit.
+     *
+     * @param wheel Wheel to schedule timeouts on.
+     */
+    public WheelTimer(TimingWheel wheel) {
+        this(wheel, 0, null);
+    }
+
+    /**
+     * Create a timer that pauses itself when the player is idle.
+     *
+     * @param wheel      Wheel to schedule timeouts on.
+     * @param idleMillis How long the player may do nothing before the clock
+     *                   is paused, in milliseconds, or 0 for no limit.
+     * @param onIdle     Run on the wheel's thread after the clock is paused
+     *                   for idleness, e.g., to hide the grid; may be null.
+     */
+    public WheelTimer(TimingWheel wheel, long idleMillis, Runnable onIdle) {
+        this.wheel = wheel;
+        this.idleMillis = idleMillis;
+        this.onIdle = onIdle;
+    }
+
+    /**
+     * Record that the player just made a move. Costs a volatile write; the
+     * wheel isn't touched.
+     */
+    @Override
+    public void touch() {
+        lastActivity = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void startTimer() {
+        if (clock.isRunning()) {
+            return;
+        }
+        clock.start();
+        touch();
+        scheduleDisplay();
+        if (idleMillis > 0) {
+            scheduleIdle(idleMillis);
+        }
+    }
+
+    @Override
+    public synchronized void stopTimer() {
+        clock.stop();
+        cancelTimeouts();
+        refresh();
+    }
+
+    @Override
+    public synchronized void resetTimer() {
+        clock.reset();
+        refresh();
+        if (clock.isRunning()) {
+            // seconds now turn over at different times
+            if (display != null) {
+                display.cancel();
+            }
+            scheduleDisplay();
+        }
+    }
+
+    @Override
+    public synchronized void setView(SuDoKuUI view) {
+        this.view = view;
+        shown = null;
+        refresh();
+        if (clock.isRunning() && display == null) {
+            scheduleDisplay();
+        }
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return clock.getElapsedMillis();
+    }
+
+    @Override
+    public synchronized void setElapsedMillis(long millis) {
+        clock.setElapsedMillis(millis);
+        refresh();
+    }
+
+    @Override
+    public synchronized void hintPunish() {
+        clock.addMillis(ElapsedTime.HINT_PENALTY_SECONDS * 1000L);
+        refresh();
+    }
+
+    @Override
+    public String toString() {
+        return ElapsedTime.format(clock.getElapsedMillis());
+    }
+
+    /**
+     * Refresh the view and schedule the next refresh, for when the next
+     * second goes by on the clock.
+     *
+     * @param round displayRound when the refresh was scheduled.
+     */
+    private synchronized void tickDisplay(int round) {
+        if (round == displayRound && clock.isRunning()) {
+            refresh();
+            scheduleDisplay();
+        }
+    }
+
+    /**
+     * Schedule the next display refresh, if there is a view. Must be called
+     * holding the lock.
+     */
+    private void scheduleDisplay() {
+        int round = ++displayRound;
+        display = view == null ? null
+                : wheel.schedule(() -> tickDisplay(round), 1000 - clock.getElapsedMillis() % 1000);
+    }
+
+    /**
+     * Schedule an idle check. Must be called holding the lock.
+     *
+     * @param delayMillis How long from now to check, in milliseconds.
+     */
+    private void scheduleIdle(long delayMillis) {
+        int round = ++idleRound;
+        idle = wheel.schedule(() -> checkIdle(round), delayMillis);
+    }
+
+    /**
+     * Pause the clock if the player has been idle for idleMillis, or check
+     * again once they could have been.
+     *
+     * @param round idleRound when the check was scheduled.
+     */
+    private void checkIdle(int round) {
+        synchronized (this) {
+            if (round != idleRound || !clock.isRunning()) {
+                return;
+            }
+            long idleFor = (System.nanoTime() - lastActivity) / 1_000_000;
+            if (idleFor < idleMillis) {
+                scheduleIdle(idleMillis - idleFor);
+                return;
+            }
+            clock.stop();
+            cancelTimeouts();
+            refresh();
+        }
+
+        // outside the lock, in case the action calls back into the timer
+        if (onIdle != null) {
+            onIdle.run();
+        }
+    }
+
+    /**
+     * Cancel the display and idle timeouts. Must be called holding the lock.
+     */
+    private void cancelTimeouts() {
+        displayRound++;
+        idleRound++;
+        if (display != null) {
+            display.cancel();
+            display = null;
+        }
+        if (idle != null) {
+            idle.cancel();
+            idle = null;
+        }
+    }
+
+    /**
+     * Show the time on the view, if it has changed since it was last
+     * shown. Must be called holding the lock.
+     */
+    private void refresh() {
+        String time = toString();
+        if (view != null && !time.equals(shown)) {
+            shown = time;
+            view.setTimerValue(time);
+        }
+    }
+}
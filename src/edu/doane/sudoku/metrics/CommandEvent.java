@@ -0,0 +1,34 @@
+package edu.doane.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for handling one command from the player, from
+ * the key press to the view being updated.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+@Name("edu.doane.sudoku.Command")
+@Label("UI Command")
+@Category({"Doane SuDoKu", "UI"})
+@Description("A command from the player was handled")
+@Enabled(false)
+public class CommandEvent extends jdk.jfr.Event {
+
+    /**
+     * Command handled, e.g., "playNumber".
+     */
+    @Label("Command")
+    public String command;
+
+    /**
+     * Index of the selected cell (row * 9 + col), or -1 if none.
+     */
+    @Label("Cell")
+    public int cell;
+}
@@ -0,0 +1,44 @@
+package edu.doane.sudoku.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count of events, e.g., games fetched from the cloud. Counting is
+ * lock-free and striped across threads, so it's cheap even when many
+ * threads count at once.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class Counter {
+
+    /**
+     * Running count.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Count one event.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Count several events.
+     *
+     * @param n Number of events.
+     */
+    public void add(long n) {
+        count.add(n);
+    }
+
+    /**
+     * Get the count.
+     *
+     * @return Number of events counted so far.
+     */
+    public long get() {
+        return count.sum();
+    }
+}
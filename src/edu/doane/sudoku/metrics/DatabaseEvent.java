@@ -0,0 +1,58 @@
+package edu.doane.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one operation on the Derby database, e.g.,
+ * claiming a batch of games or writing a batch of results.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+@Name("edu.doane.sudoku.Database")
+@Label("Database Operation")
+@Category({"Doane SuDoKu", "Persistence"})
+@Description("An operation on the Derby database")
+@Enabled(false)
+public class DatabaseEvent extends jdk.jfr.Event {
+
+    /**
+     * Table operated on, e.g., "GAME".
+     */
+    @Label("Table")
+    public String table;
+
+    /**
+     * Operation, e.g., "claim".
+     */
+    @Label("Operation")
+    public String operation;
+
+    /**
+     * Rows read, written or counted.
+     */
+    @Label("Rows")
+    public int rows;
+
+    /**
+     * End the event, and commit it if it's enabled and long enough to
+     * keep. The fields are only filled in if it is.
+     *
+     * @param table     Table operated on.
+     * @param operation Operation.
+     * @param rows      Rows read, written or counted.
+     */
+    public void finish(String table, String operation, int rows) {
+        end();
+        if (shouldCommit()) {
+            this.table = table;
+            this.operation = operation;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
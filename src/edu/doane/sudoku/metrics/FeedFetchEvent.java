@@ -0,0 +1,54 @@
+package edu.doane.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for downloading games from the cloud feed and
+ * adding them to the local store.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+@Name("edu.doane.sudoku.FeedFetch")
+@Label("Feed Fetch")
+@Category({"Doane SuDoKu", "Persistence"})
+@Description("Games were downloaded from the cloud feed")
+@Enabled(false)
+public class FeedFetchEvent extends jdk.jfr.Event {
+
+    /**
+     * URL of the feed.
+     */
+    @Label("URL")
+    public String url;
+
+    /**
+     * "full" or "delta".
+     */
+    @Label("Mode")
+    public String mode;
+
+    /**
+     * Bytes read from the network, before any decompression.
+     */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Games in the feed's answer.
+     */
+    @Label("Rows")
+    public int rows;
+
+    /**
+     * Games added to the store; the rest were already there.
+     */
+    @Label("Added")
+    public int added;
+}
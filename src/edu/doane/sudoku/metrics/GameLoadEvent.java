@@ -0,0 +1,58 @@
+package edu.doane.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for loading a game onto the grid, from getting
+ * the game to showing its givens.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+@Name("edu.doane.sudoku.GameLoad")
+@Label("Game Load")
+@Category({"Doane SuDoKu", "Game"})
+@Description("A game was loaded onto the grid")
+@Enabled(false)
+public class GameLoadEvent extends jdk.jfr.Event {
+
+    /**
+     * GAME_ID of the game loaded.
+     */
+    @Label("Game ID")
+    public int gameId;
+
+    /**
+     * Name of the game's difficulty.
+     */
+    @Label("Difficulty")
+    public String difficulty;
+
+    /**
+     * Where the game came from: "store", "bundled", or "journal".
+     */
+    @Label("Source")
+    public String source;
+
+    /**
+     * End the event, and commit it if it's enabled and long enough to
+     * keep. The fields are only filled in if it is.
+     *
+     * @param gameId     GAME_ID of the game loaded.
+     * @param difficulty Name of the game's difficulty.
+     * @param source     Where the game came from.
+     */
+    public void finish(int gameId, String difficulty, String source) {
+        end();
+        if (shouldCommit()) {
+            this.gameId = gameId;
+            this.difficulty = difficulty;
+            this.source = source;
+            commit();
+        }
+    }
+}
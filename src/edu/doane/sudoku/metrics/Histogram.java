@@ -0,0 +1,255 @@
+package edu.doane.sudoku.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Histogram of latencies in nanoseconds, in the style of HdrHistogram.
+ * Values below 16 have a bucket each; above that, each power of two is
+ * split into 16 buckets, so a percentile is never off by more than about
+ * 6%, and any value a long can hold fits.
+ * <p>
+ * Recording is lock-free and safe from any thread. Each thread records
+ * into one of several stripes, picked by its thread ID, so threads on
+ * different cores rarely touch the same memory; a stripe is only
+ * allocated once a thread uses it. Snapshots add the stripes up.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class Histogram {
+
+    /**
+     * Sub-buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 16;
+
+    /**
+     * Number of buckets.
+     */
+    private static final int BUCKETS = (64 - 4) * SUB_BUCKETS;
+
+    /**
+     * Index in a stripe of the sum of the values recorded.
+     */
+    private static final int SUM = BUCKETS;
+
+    /**
+     * Index in a stripe of the largest value recorded.
+     */
+    private static final int MAX = BUCKETS + 1;
+
+    /**
+     * Number of stripes; a power of two, at least twice the number of
+     * cores, so threads seldom share one.
+     */
+    private static final int STRIPES = Integer.highestOneBit(
+            Math.max(1, 4 * Runtime.getRuntime().availableProcessors() - 1));
+
+    /**
+     * Counts in each bucket, then the sum and max, for each stripe;
+     * null until a thread records into the stripe.
+     */
+    private final AtomicReferenceArray<AtomicLongArray> stripes =
+            new AtomicReferenceArray<>(STRIPES);
+
+    /**
+     * Record a value.
+     *
+     * @param nanos Latency in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        AtomicLongArray s = stripe();
+        s.incrementAndGet(bucket(v));
+        s.addAndGet(SUM, v);
+        if (v > s.get(MAX)) {
+            s.accumulateAndGet(MAX, v, Math::max);
+        }
+    }
+
+    /**
+     * Record the time since a start time.
+     *
+     * @param start System.nanoTime() when the timed work started.
+     */
+    public void recordSince(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    /**
+     * Add all the values recorded by another histogram to this one.
+     *
+     * @param other Histogram whose values to add.
+     */
+    public void addAll(Histogram other) {
+        Snapshot o = other.snapshot();
+        AtomicLongArray s = stripe();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (o.buckets[i] != 0) {
+                s.addAndGet(i, o.buckets[i]);
+            }
+        }
+        s.addAndGet(SUM, o.sum);
+        s.accumulateAndGet(MAX, o.max, Math::max);
+    }
+
+    /**
+     * Take a snapshot of the values recorded so far. Values recorded while
+     * the snapshot is taken may or may not be in it.
+     *
+     * @return Snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (int k = 0; k < STRIPES; k++) {
+            AtomicLongArray s = stripes.get(k);
+            if (s == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                long n = s.get(i);
+                buckets[i] += n;
+                count += n;
+            }
+            sum += s.get(SUM);
+            max = Math.max(max, s.get(MAX));
+        }
+        return new Snapshot(buckets, count, sum, max);
+    }
+
+    /**
+     * Get the current thread's stripe, allocating it if need be.
+     *
+     * @return Stripe to record into.
+     */
+    private AtomicLongArray stripe() {
+        int k = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        AtomicLongArray s = stripes.get(k);
+        if (s == null) {
+            stripes.compareAndSet(k, null, new AtomicLongArray(BUCKETS + 2));
+            s = stripes.get(k);
+        }
+        return s;
+    }
+
+    /**
+     * Find the bucket holding a value.
+     *
+     * @param v Value, at least 0.
+     * @return Bucket index.
+     */
+    private static int bucket(long v) {
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (msb - 4)) & (SUB_BUCKETS - 1);
+        return (msb - 3) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Get the smallest value in a bucket.
+     *
+     * @param i Bucket index.
+     * @return Smallest value the bucket holds.
+     */
+    private static long lowest(int i) {
+        if (i < SUB_BUCKETS) {
+            return i;
+        }
+        int msb = i / SUB_BUCKETS + 3;
+        return (long) (SUB_BUCKETS + i % SUB_BUCKETS) << (msb - 4);
+    }
+
+    /**
+     * Values recorded by a histogram up to some moment.
+     */
+    public static final class Snapshot {
+
+        /**
+         * Count in each bucket.
+         */
+        private final long[] buckets;
+
+        /**
+         * Number of values recorded.
+         */
+        private final long count;
+
+        /**
+         * Sum of the values recorded.
+         */
+        private final long sum;
+
+        /**
+         * Largest value recorded.
+         */
+        private final long max;
+
+        /**
+         * Create a snapshot.
+         *
+         * @param buckets Count in each bucket.
+         * @param count   Number of values recorded.
+         * @param sum     Sum of the values recorded.
+         * @param max     Largest value recorded.
+         */
+        private Snapshot(long[] buckets, long count, long sum, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Get the number of values recorded.
+         *
+         * @return Number of values.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Get the largest value recorded.
+         *
+         * @return Largest latency in nanoseconds, or 0 if none were
+         * recorded.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Get the mean value.
+         *
+         * @return Mean latency in nanoseconds, or 0 if none were recorded.
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Get a percentile.
+         *
+         * @param p Percentile, in [0, 100].
+         * @return Smallest value in the bucket holding the percentile, in
+         * nanoseconds, or 0 if none were recorded.
+         */
+        public long getPercentile(double p) {
+            long rank = (long) Math.ceil(count * p / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(lowest(i), max);
+                }
+            }
+            return 0;
+        }
+    }
+}
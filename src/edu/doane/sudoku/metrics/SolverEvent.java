@@ -0,0 +1,45 @@
+package edu.doane.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one run of the backtracking solver.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+@Name("edu.doane.sudoku.Solver")
+@Label("Solver Run")
+@Category({"Doane SuDoKu", "Game"})
+@Description("A puzzle was solved by backtracking")
+@Enabled(false)
+public class SolverEvent extends jdk.jfr.Event {
+
+    /**
+     * Grids visited by the search.
+     */
+    @Label("Nodes")
+    public long nodes;
+
+    /**
+     * Times a cell had more than one candidate.
+     */
+    @Label("Guesses")
+    public int guesses;
+
+    /**
+     * Solutions found.
+     */
+    @Label("Solutions")
+    public int solutions;
+
+    /**
+     * Most solutions looked for.
+     */
+    @Label("Limit")
+    public int limit;
+}
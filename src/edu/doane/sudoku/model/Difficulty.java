@@ -0,0 +1,133 @@
+package edu.doane.sudoku.model;
+
+/**
+ * Difficulty levels for SuDoKu games. Each level has a small integer code,
+ * used when difficulties are stored in databases and files.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public enum Difficulty {
+    EASY(1, "Easy"),
+    MEDIUM(2, "Medium"),
+    HARD(3, "Hard");
+
+    /**
+     * Games with at least this many givens are easy.
+     */
+    private static final int EASY_GIVENS = 36;
+
+    /**
+     * Games with at least this many givens (but not enough to be easy) are
+     * medium; games with fewer are hard.
+     */
+    private static final int MEDIUM_GIVENS = 30;
+
+    /**
+     * Integer code for this difficulty.
+     */
+    private final int code;
+
+    /**
+     * Name of this difficulty, as shown to the player.
+     */
+    private final String label;
+
+    /**
+     * Create a difficulty level.
+     *
+     * @param code  Integer code for the level.
+     * @param label Name of the level, as shown to the player.
+     */
+    Difficulty(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    /**
+     * Get the integer code for this difficulty.
+     *
+     * @return Integer code, in [1, 3].
+     */
+    public int getCode() {
+        return code;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    /**
+     * Get the difficulty with the specified integer code.
+     *
+     * @param code Integer code of the difficulty.
+     * @return Difficulty with that code, or null if no difficulty has it.
+     */
+    public static Difficulty fromCode(int code) {
+        for (Difficulty d : values()) {
+            if (d.code == code) {
+                return d;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the difficulty with the specified name, ignoring case. Both the
+     * enum constant names and the player-visible names are accepted.
+     *
+     * @param name Name of the difficulty; may be null.
+     * @return Difficulty with that name, or null if name is null or names no
+     * difficulty (meaning "any difficulty").
+     */
+    public static Difficulty parse(String name) {
+        if (name != null) {
+            for (Difficulty d : values()) {
+                if (d.name().equalsIgnoreCase(name) || d.label.equalsIgnoreCase(name)) {
+                    return d;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the player-visible names of all the difficulties, easiest first.
+     *
+     * @return Array of difficulty names.
+     */
+    public static String[] names() {
+        Difficulty[] all = values();
+        String[] names = new String[all.length];
+        for (int i = 0; i < all.length; i++) {
+            names[i] = all[i].label;
+        }
+        return names;
+    }
+
+    /**
+     * Rate the difficulty of a game from the number of givens in its initial
+     * grid.
+     *
+     * @param initial Initial grid of the game.
+     * @return Difficulty rating for the game.
+     */
+    public static Difficulty rate(GameGrid initial) {
+        int givens = 0;
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (initial.isGiven(row, col)) {
+                    givens++;
+                }
+            }
+        }
+
+        if (givens >= EASY_GIVENS) {
+            return EASY;
+        } else if (givens >= MEDIUM_GIVENS) {
+            return MEDIUM;
+        }
+        return HARD;
+    }
+}
@@ -8,6 +8,11 @@ package edu.doane.sudoku.model;
  */
 public class ElapsedTime {
 
+    /**
+     * Time added to the clock for each hint, in seconds.
+     */
+    public static final int HINT_PENALTY_SECONDS = 30;
+
     /**
      * Number of seconds, in [0, 59].
      */
@@ -55,8 +60,44 @@ public class ElapsedTime {
         }
     }
 
+    /**
+     * Add the 30 second penalty for taking a hint, rolling over the
+     * minutes and hours values if necessary.
+     */
     public void hintPunish(){
-        seconds += 30;
+        setTotalSeconds(getTotalSeconds() + HINT_PENALTY_SECONDS);
+    }
+
+    /**
+     * Get the total elapsed time in seconds.
+     *
+     * @return Total number of seconds represented by this object.
+     */
+    public long getTotalSeconds() {
+        return hours * 3600L + minutes * 60L + seconds;
+    }
+
+    /**
+     * Set the elapsed time from a total number of seconds.
+     *
+     * @param totalSeconds Total number of seconds, at least 0.
+     */
+    public void setTotalSeconds(long totalSeconds) {
+        hours = (int) (totalSeconds / 3600);
+        minutes = (int) (totalSeconds / 60 % 60);
+        seconds = (int) (totalSeconds % 60);
+    }
+
+    /**
+     * Format a time in milliseconds the same way toString() does.
+     *
+     * @param millis Time, in milliseconds, at least 0.
+     * @return Time in the format "h:mm:ss", rounded down to the second.
+     */
+    public static String format(long millis) {
+        long totalSeconds = millis / 1000;
+        return String.format("%d:%02d:%02d", totalSeconds / 3600,
+                totalSeconds / 60 % 60, totalSeconds % 60);
     }
 
     @Override
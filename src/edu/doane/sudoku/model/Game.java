@@ -25,15 +25,36 @@ public class Game {
     private GameGrid solved;
 
     /**
-     * Create a new game, with the specified initial and solved grids.
+     * Difficulty of the game.
+     */
+    private Difficulty difficulty;
+
+    /**
+     * Create a new game, with the specified initial and solved grids. The
+     * difficulty of the game is rated from its initial grid.
      *
+     * @param id      Game id.
      * @param initial Initial game grid.
      * @param solved  Solved game grid.
      */
     public Game(int id, GameGrid initial, GameGrid solved) {
+        this(id, initial, solved, Difficulty.rate(initial));
+    }
+
+    /**
+     * Create a new game, with the specified initial and solved grids and
+     * difficulty.
+     *
+     * @param id         Game id.
+     * @param initial    Initial game grid.
+     * @param solved     Solved game grid.
+     * @param difficulty Difficulty of the game.
+     */
+    public Game(int id, GameGrid initial, GameGrid solved, Difficulty difficulty) {
         this.id = id;
         this.initial = initial;
         this.solved = solved;
+        this.difficulty = difficulty;
     }
 
     /**
@@ -65,6 +86,15 @@ public class Game {
         return id;
     }
 
+    /**
+     * Get the difficulty of this game.
+     *
+     * @return Difficulty of this game.
+     */
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
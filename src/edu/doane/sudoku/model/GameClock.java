@@ -0,0 +1,101 @@
+package edu.doane.sudoku.model;
+
+/**
+ * Stopwatch measuring the time spent playing a game. Time is kept as the
+ * total of the finished start/stop segments plus the System.nanoTime()
+ * the current segment started at, so the clock does no work between
+ * reads, can't drift when the thread that shows it is busy, and is
+ * accurate to the millisecond. Nothing here depends on JavaFX; showing the
+ * time is up to whoever reads the clock.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class GameClock {
+
+    /**
+     * Time in finished segments, plus any penalties, in nanoseconds.
+     */
+    private long accumulated;
+
+    /**
+     * System.nanoTime() when the current segment started; only meaningful
+     * while running.
+     */
+    private long segmentStart;
+
+    /**
+     * Whether a segment is in progress.
+     */
+    private boolean running;
+
+    /**
+     * Start a segment. Does nothing if the clock is already running.
+     */
+    public synchronized void start() {
+        if (!running) {
+            segmentStart = System.nanoTime();
+            running = true;
+        }
+    }
+
+    /**
+     * End the current segment. Does nothing if the clock isn't running.
+     */
+    public synchronized void stop() {
+        if (running) {
+            accumulated += System.nanoTime() - segmentStart;
+            running = false;
+        }
+    }
+
+    /**
+     * Set the clock back to zero. A running clock keeps running.
+     */
+    public synchronized void reset() {
+        accumulated = 0;
+        segmentStart = System.nanoTime();
+    }
+
+    /**
+     * Determine if the clock is running.
+     *
+     * @return True if a segment is in progress.
+     */
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get the time on the clock.
+     *
+     * @return Elapsed time, in milliseconds.
+     */
+    public synchronized long getElapsedMillis() {
+        long nanos = accumulated;
+        if (running) {
+            nanos += System.nanoTime() - segmentStart;
+        }
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * Set the time on the clock, e.g., when resuming a saved game. A
+     * running clock keeps running from the new time.
+     *
+     * @param millis Elapsed time, in milliseconds.
+     */
+    public synchronized void setElapsedMillis(long millis) {
+        accumulated = millis * 1_000_000;
+        segmentStart = System.nanoTime();
+    }
+
+    /**
+     * Add time to the clock, e.g., as a penalty for taking a hint.
+     *
+     * @param millis Time to add, in milliseconds.
+     */
+    public synchronized void addMillis(long millis) {
+        accumulated += millis * 1_000_000;
+    }
+}
@@ -0,0 +1,139 @@
+package edu.doane.sudoku.model;
+
+/**
+ * Snapshot of a game in progress: the game being played, the numbers and
+ * notes the player has placed so far, and the time elapsed. Snapshots are
+ * immutable, so they can be handed to another thread to be saved.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class SavedGame {
+
+    /**
+     * Game being played.
+     */
+    private final Game game;
+
+    /**
+     * 81-character game data for the grid as the player has it now.
+     */
+    private final String current;
+
+    /**
+     * Note masks for each cell, in row-major order. Bit i of a mask is set
+     * if i is a note in that cell.
+     */
+    private final short[] notes;
+
+    /**
+     * Time elapsed in the game so far, in milliseconds.
+     */
+    private final long elapsedMillis;
+
+    /**
+     * Create a snapshot from saved values.
+     *
+     * @param game          Game being played.
+     * @param current       81-character game data for the grid as the player
+     *                      has it now.
+     * @param notes         81 note masks, in row-major order.
+     * @param elapsedMillis Time elapsed so far, in milliseconds.
+     */
+    public SavedGame(Game game, String current, short[] notes, long elapsedMillis) {
+        this.game = game;
+        this.current = current;
+        this.notes = notes.clone();
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Take a snapshot of a game in progress.
+     *
+     * @param game          Game being played.
+     * @param grid          Grid the player is working on.
+     * @param elapsedMillis Time elapsed so far, in milliseconds.
+     * @return Snapshot of the game.
+     */
+    public static SavedGame of(Game game, GameGrid grid, long elapsedMillis) {
+        short[] notes = new short[81];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                boolean[] cellNotes = grid.getNotes(row, col);
+                int mask = 0;
+                for (int n = 1; n <= 9; n++) {
+                    if (cellNotes[n]) {
+                        mask |= 1 << n;
+                    }
+                }
+                notes[row * 9 + col] = (short) mask;
+            }
+        }
+
+        return new SavedGame(game, grid.getGameData(), notes, elapsedMillis);
+    }
+
+    /**
+     * Rebuild the grid the player was working on. The givens come from the
+     * game's initial grid; the player's numbers and notes are added on top.
+     *
+     * @return New GameGrid holding the saved state.
+     */
+    public GameGrid toGrid() {
+        GameGrid grid = new GameGrid(game.getInitial().getGameData());
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int number = current.charAt(row * 9 + col) - '0';
+                if (number != 0 && !grid.isGiven(row, col)) {
+                    grid.setNumber(row, col, number);
+                }
+
+                int mask = notes[row * 9 + col];
+                for (int n = 1; n <= 9; n++) {
+                    if ((mask & (1 << n)) != 0) {
+                        grid.setNote(row, col, n);
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Get the game being played.
+     *
+     * @return Game being played.
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Get the game data for the grid as the player has it.
+     *
+     * @return 81-character game data string.
+     */
+    public String getCurrent() {
+        return current;
+    }
+
+    /**
+     * Get the note mask for one cell.
+     *
+     * @param row Row of the cell, in [0, 8].
+     * @param col Column of the cell, in [0, 8].
+     * @return Note mask for the cell; bit i is set if i is a note.
+     */
+    public int getNoteMask(int row, int col) {
+        return notes[row * 9 + col];
+    }
+
+    /**
+     * Get the time elapsed in the game.
+     *
+     * @return Time elapsed, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
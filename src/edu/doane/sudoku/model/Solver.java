@@ -0,0 +1,260 @@
+package edu.doane.sudoku.model;
+
+import edu.doane.sudoku.metrics.Counter;
+import edu.doane.sudoku.metrics.Histogram;
+import edu.doane.sudoku.metrics.Metrics;
+import edu.doane.sudoku.metrics.SolverEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Backtracking SuDoKu solver built on FactoryGrid. The grid's constraints
+ * say which numbers each empty cell can still take, so each step fills the
+ * empty cell with the fewest candidates; cells with a single candidate are
+ * filled without guessing. The number of guesses made is a rough measure
+ * of how hard the puzzle is.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class Solver {
+
+    /**
+     * Time taken by each call to solve().
+     */
+    private static final Histogram SOLVE_TIME = Metrics.histogram("solver.solve");
+
+    /**
+     * Guesses made by every call to solve().
+     */
+    private static final Counter GUESSES = Metrics.counter("solver.guesses");
+
+    /**
+     * Grid being solved.
+     */
+    private final FactoryGrid grid;
+
+    /**
+     * First solution found, as game data, or null.
+     */
+    private String solution;
+
+    /**
+     * Number of solutions found so far.
+     */
+    private int solutions;
+
+    /**
+     * Most solutions to look for before stopping.
+     */
+    private int limit;
+
+    /**
+     * Number of times a cell had more than one candidate.
+     */
+    private int guesses;
+
+    /**
+     * Number of grids search() has visited.
+     */
+    private long nodes;
+
+    /**
+     * Create a solver for a puzzle.
+     *
+     * @param gameData 81-character game data; 0 means an empty cell.
+     * @throws IllegalArgumentException If the game data is malformed.
+     */
+    public Solver(String gameData) throws IllegalArgumentException {
+        grid = new FactoryGrid(gameData);
+    }
+
+    /**
+     * Solve the puzzle, looking for up to limit solutions. A puzzle whose
+     * numbers already conflict has no solutions.
+     *
+     * @param limit Most solutions to look for; 2 is enough to tell if the
+     *              solution is unique.
+     * @return Number of solutions found, in [0, limit].
+     */
+    public int solve(int limit) {
+        this.limit = limit;
+        solution = null;
+        solutions = 0;
+        guesses = 0;
+        nodes = 0;
+
+        SolverEvent event = new SolverEvent();
+        event.begin();
+        long start = System.nanoTime();
+        if (findConflicts(grid.getGameData()).isEmpty()) {
+            search();
+        }
+        SOLVE_TIME.recordSince(start);
+        GUESSES.add(guesses);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodes = nodes;
+            event.guesses = guesses;
+            event.solutions = solutions;
+            event.limit = limit;
+            event.commit();
+        }
+        return solutions;
+    }
+
+    /**
+     * Get the first solution found by solve().
+     *
+     * @return 81-character game data of the solution, or null if there is
+     * none.
+     */
+    public String getSolution() {
+        return solution;
+    }
+
+    /**
+     * Get the number of guesses solve() made, i.e., the number of times it
+     * had to choose between several candidates for a cell.
+     *
+     * @return Number of guesses.
+     */
+    public int getGuesses() {
+        return guesses;
+    }
+
+    /**
+     * Get the number of grids solve() visited, counting the one it started
+     * with; a measure of how much work the search took.
+     *
+     * @return Number of grids visited.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Find the empty cell with the fewest candidates in the puzzle as it
+     * was given to the solver.
+     *
+     * @return Index of the cell (row * 9 + col), or -1 if there are no
+     * empty cells.
+     */
+    public int getEasiestCell() {
+        int best = -1;
+        int bestCount = 10;
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (grid.getNumber(row, col) == 0) {
+                    int count = countCandidates(row, col);
+                    if (count < bestCount) {
+                        best = row * 9 + col;
+                        bestCount = count;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Find the cells whose numbers clash with another number in the same
+     * row, column or block.
+     *
+     * @param gameData 81-character game data; 0 means an empty cell.
+     * @return Indexes (row * 9 + col) of the clashing cells, in order.
+     */
+    public static List<Integer> findConflicts(String gameData) {
+        ArrayList<Integer> conflicts = new ArrayList<>();
+        for (int i = 0; i < 81; i++) {
+            int n = gameData.charAt(i);
+            if (n == '0') {
+                continue;
+            }
+
+            int row = i / 9;
+            int col = i % 9;
+            for (int j = 0; j < 81; j++) {
+                if (j != i && gameData.charAt(j) == n
+                        && (j / 9 == row || j % 9 == col
+                        || (j / 27 == i / 27 && (j % 9) / 3 == col / 3))) {
+                    conflicts.add(i);
+                    break;
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Fill the empty cell with the fewest candidates with each of them in
+     * turn, recursing until the grid is full or the limit is reached.
+     */
+    private void search() {
+        nodes++;
+
+        // pick the most constrained empty cell
+        int bestRow = -1;
+        int bestCol = -1;
+        int bestCount = 10;
+        for (int row = 0; row < 9 && bestCount > 1; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (grid.getNumber(row, col) == 0) {
+                    int count = countCandidates(row, col);
+                    if (count == 0) {
+                        // dead end
+                        return;
+                    }
+                    if (count < bestCount) {
+                        bestRow = row;
+                        bestCol = col;
+                        bestCount = count;
+                        if (count == 1) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        // no empty cells; the grid is solved
+        if (bestRow < 0) {
+            if (solutions == 0) {
+                solution = grid.getGameData();
+            }
+            solutions++;
+            return;
+        }
+
+        if (bestCount > 1) {
+            guesses++;
+        }
+
+        for (int n = 1; n <= 9 && solutions < limit; n++) {
+            if (grid.canSetNumber(bestRow, bestCol, n)) {
+                grid.setNumber(bestRow, bestCol, n);
+                search();
+                grid.unsetNumber(bestRow, bestCol);
+            }
+        }
+    }
+
+    /**
+     * Count the numbers that could still go in a cell.
+     *
+     * @param row Row of the cell, in [0, 8].
+     * @param col Column of the cell, in [0, 8].
+     * @return Number of candidates, in [0, 9].
+     */
+    private int countCandidates(int row, int col) {
+        int count = 0;
+        for (int n = 1; n <= 9; n++) {
+            if (!grid.isConstraint(row, col, n)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.doane.sudoku.persistence;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * InputStream counting the bytes read through it, e.g., to report how
+ * much of a feed came over the network.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+class CountingInputStream extends FilterInputStream {
+
+    /**
+     * Bytes read so far.
+     */
+    private long count;
+
+    /**
+     * Create a counting stream.
+     *
+     * @param in Stream to read from.
+     */
+    CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * Get the number of bytes read so far.
+     *
+     * @return Bytes read, not counting skipped bytes.
+     */
+    long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count += n;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,78 @@
+package edu.doane.sudoku.persistence;
+
+import java.sql.*;
+import java.util.Properties;
+
+/**
+ * Helper methods shared by the classes that use the embedded Apache Derby
+ * database SuDoKuDB.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+final class DerbyDatabase {
+
+    /**
+     * Has the embedded driver been loaded yet?
+     */
+    private static boolean driverLoaded = false;
+
+    /**
+     * Private constructor; this class only has static methods.
+     */
+    private DerbyDatabase() {
+    }
+
+    /**
+     * Load the driver required to use the embedded Apache Derby local
+     * database. Only the first call does anything.
+     */
+    static synchronized void loadDriver() {
+        if (driverLoaded) {
+            return;
+        }
+
+        String driver = "org.apache.derby.jdbc.EmbeddedDriver";
+        try {
+            Class.forName(driver).getDeclaredConstructor().newInstance();
+            driverLoaded = true;
+        } catch (ReflectiveOperationException ex) {
+            System.err.println("Cannot load embedded Derby driver! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Open a connection to the local Derby database, creating the database
+     * if it doesn't exist yet.
+     *
+     * @return New connection to the SuDoKuDB database.
+     * @throws SQLException If the connection can't be made.
+     */
+    static Connection connect() throws SQLException {
+        Properties props = new Properties();
+        return DriverManager.getConnection("jdbc:derby:SuDoKuDB;create=true", props);
+    }
+
+    /**
+     * Determine if a table exists in the database.
+     *
+     * @param conn Connection to the database.
+     * @param name Name of the table.
+     * @return True if the table exists, false otherwise.
+     * @throws SQLException If the database metadata can't be read.
+     */
+    static boolean tableExists(Connection conn, String name) throws SQLException {
+        DatabaseMetaData metadata = conn.getMetaData();
+        String[] names = {"TABLE"};
+        try (ResultSet tableNames = metadata.getTables(null, null, null, names)) {
+            while (tableNames.next()) {
+                if (tableNames.getString("TABLE_NAME").equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
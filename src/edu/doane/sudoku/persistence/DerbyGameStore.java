@@ -0,0 +1,547 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.metrics.DatabaseEvent;
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+import edu.doane.sudoku.model.GameGrid;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * GameStore implementation backed by the embedded Apache Derby database
+ * SuDoKuDB. Games are kept in the GAME table, along with their difficulty
+ * and whether they have been served yet. Serving a game just sets its SERVED
+ * flag, so games can be picked by difficulty through the index on
+ * (DIFFICULTY, SERVED) without scanning the table; served games are deleted
+ * in bulk the next time games are inserted. Games are claimed with a
+ * conditional update of the SERVED flag, so connections claiming games at
+ * the same time can never be handed the same game.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class DerbyGameStore implements GameStore {
+
+    /**
+     * Number of rows sent to the database in each batch by insertGames().
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Most rounds of selecting and claiming candidates in one call to
+     * nextGames(); each round after the first only happens if other
+     * connections claimed some of our candidates first.
+     */
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    /**
+     * Create the store, loading the Derby driver and creating the database
+     * tables if they do not already exist.
+     */
+    public DerbyGameStore() {
+        DerbyDatabase.loadDriver();
+        if (!databaseExists()) {
+            createDatabaseTables();
+        } else {
+            upgradeDatabaseTables();
+        }
+    }
+
+    /**
+     * Open a connection to the local Derby database.
+     *
+     * @return New connection to the SuDoKuDB database.
+     * @throws SQLException If the connection can't be made.
+     */
+    private Connection connect() throws SQLException {
+        return DerbyDatabase.connect();
+    }
+
+    /**
+     * Determine if the local Derby database already exists.
+     *
+     * @return True if the database exists, false if it does not.
+     */
+    private boolean databaseExists() {
+        boolean databaseExists = false;
+
+        try {
+            // connect to database, creating it if need be
+            Connection conn = connect();
+
+            // see if the GAME table already exists; if it does, the database
+            // was already in existence
+            databaseExists = DerbyDatabase.tableExists(conn, "GAME");
+
+            // close database connection
+            conn.close();
+
+        } catch (SQLException ex) {
+            System.err.println("Can't verify existence of Derby database! "
+                    + "Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+
+        return databaseExists;
+    }
+
+    /**
+     * Create tables in a newly created, empty local Derby database.
+     */
+    private void createDatabaseTables() {
+        try {
+            // connect to the database
+            Connection conn = connect();
+
+            // make the game table
+            Statement s = conn.createStatement();
+            s.execute("CREATE TABLE GAME(GAME_ID INTEGER, "
+                    + "GAME_DATA CHAR(81) NOT NULL UNIQUE, "
+                    + "SOLVED_GAME_DATA CHAR(81) NOT NULL UNIQUE, "
+                    + "DIFFICULTY SMALLINT NOT NULL DEFAULT 0, "
+                    + "SERVED SMALLINT NOT NULL DEFAULT 0, "
+                    + "PRIMARY KEY(GAME_ID))");
+            s.execute("CREATE INDEX GAME_DIFFICULTY_SERVED ON GAME(DIFFICULTY, SERVED)");
+
+            // close database connection
+            conn.close();
+
+        } catch (SQLException ex) {
+            System.err.println("Can't create database tables! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Bring the tables of a database created by an older version of the
+     * application up to date, adding the DIFFICULTY and SERVED columns and
+     * rating the difficulty of every game already in the table.
+     */
+    private void upgradeDatabaseTables() {
+        try {
+            // connect to the database
+            Connection conn = connect();
+
+            // nothing to do if the DIFFICULTY column is already there
+            ResultSet cols = conn.getMetaData().getColumns(null, null, "GAME", "DIFFICULTY");
+            boolean upToDate = cols.next();
+            cols.close();
+
+            if (!upToDate) {
+                conn.setAutoCommit(false);
+
+                Statement s = conn.createStatement();
+                s.execute("ALTER TABLE GAME ADD COLUMN DIFFICULTY SMALLINT NOT NULL DEFAULT 0");
+                s.execute("ALTER TABLE GAME ADD COLUMN SERVED SMALLINT NOT NULL DEFAULT 0");
+                s.execute("CREATE INDEX GAME_DIFFICULTY_SERVED ON GAME(DIFFICULTY, SERVED)");
+
+                // rate the games we already have
+                PreparedStatement ps = conn.prepareStatement("UPDATE GAME "
+                        + "SET DIFFICULTY = ? WHERE GAME_ID = ?");
+                ResultSet rs = s.executeQuery("SELECT GAME_ID, GAME_DATA FROM GAME");
+                while (rs.next()) {
+                    ps.setInt(1, Difficulty.rate(new GameGrid(rs.getString(2))).getCode());
+                    ps.setInt(2, rs.getInt(1));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            }
+
+            // close database connection
+            conn.close();
+
+        } catch (SQLException ex) {
+            System.err.println("Can't upgrade database tables! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Convert the current row of a GAME table query into a Game. The query
+     * must select GAME_ID, GAME_DATA, SOLVED_GAME_DATA and DIFFICULTY, in
+     * that order.
+     *
+     * @param rs Result set positioned on a row.
+     * @return Game held in the row.
+     * @throws SQLException If the row can't be read.
+     */
+    private static Game toGame(ResultSet rs) throws SQLException {
+        GameGrid initial = new GameGrid(rs.getString(2));
+        Difficulty difficulty = Difficulty.fromCode(rs.getInt(4));
+        if (difficulty == null) {
+            difficulty = Difficulty.rate(initial);
+        }
+        return new Game(rs.getInt(1), initial, new GameGrid(rs.getString(3)), difficulty);
+    }
+
+    @Override
+    public Game nextGame() {
+        List<Game> games = nextGames(null, 1);
+        return games.isEmpty() ? null : games.get(0);
+    }
+
+    @Override
+    public List<Game> nextGames(Difficulty difficulty, int max) {
+        ArrayList<Game> games = new ArrayList<>(max);
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+
+        // connect to the database; candidates come through the
+        // (DIFFICULTY, SERVED) index if a difficulty was given. A game is
+        // only ours if our update is the one that flips its SERVED flag;
+        // another connection may have selected the same candidates and
+        // claimed them first.
+        try (Connection conn = connect();
+             PreparedStatement select = conn.prepareStatement(difficulty == null
+                     ? "SELECT GAME_ID, GAME_DATA, SOLVED_GAME_DATA, DIFFICULTY FROM GAME "
+                             + "WHERE SERVED = 0 FETCH FIRST ? ROWS ONLY"
+                     : "SELECT GAME_ID, GAME_DATA, SOLVED_GAME_DATA, DIFFICULTY FROM GAME "
+                             + "WHERE DIFFICULTY = ? AND SERVED = 0 FETCH FIRST ? ROWS ONLY");
+             PreparedStatement claim = conn.prepareStatement("UPDATE GAME "
+                     + "SET SERVED = 1 WHERE GAME_ID = ? AND SERVED = 0")) {
+            conn.setAutoCommit(false);
+            if (difficulty != null) {
+                select.setInt(1, difficulty.getCode());
+            }
+
+            for (int attempt = 0; games.size() < max && attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+                select.setInt(difficulty == null ? 1 : 2, max - games.size());
+                try {
+                    if (!claimBatch(conn, select, claim, games)) {
+                        // no candidates left
+                        break;
+                    }
+                } catch (SQLException ex) {
+                    // a deadlock or lock timeout with another claimer only
+                    // costs this attempt; anything else ends the claim, but
+                    // rolled back, so the connection can be closed and its
+                    // locks released
+                    conn.rollback();
+                    if (!isLockConflict(ex)) {
+                        throw ex;
+                    }
+                    claim.clearBatch();
+                }
+            }
+
+        } catch (SQLException ex) {
+            System.err.println("Cannot connect to local Derby database in nextGames()!");
+            System.err.println(ex.toString());
+        }
+
+        event.finish("GAME", "claim", games.size());
+        return games;
+    }
+
+    /**
+     * Select a batch of candidate games and claim them in one transaction,
+     * keeping the ones whose claim succeeded.
+     *
+     * @param conn   Connection to the database, with auto-commit off.
+     * @param select Prepared query for the candidates.
+     * @param claim  Prepared conditional update of a game's SERVED flag.
+     * @param games  List to add the claimed games to.
+     * @return False if there were no candidates.
+     * @throws SQLException If the batch can't be claimed; the transaction
+     *                      is then left for the caller to roll back.
+     */
+    private static boolean claimBatch(Connection conn, PreparedStatement select,
+            PreparedStatement claim, List<Game> games) throws SQLException {
+        ArrayList<Game> candidates = new ArrayList<>();
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                Game g = toGame(rs);
+                candidates.add(g);
+                claim.setInt(1, g.getID());
+                claim.addBatch();
+            }
+        }
+        if (candidates.isEmpty()) {
+            conn.commit();
+            return false;
+        }
+
+        int[] counts = claim.executeBatch();
+        conn.commit();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 1) {
+                games.add(candidates.get(i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determine if an SQL exception was caused by another transaction
+     * holding the locks we needed.
+     *
+     * @param ex Exception thrown by Derby.
+     * @return True for a deadlock or lock timeout.
+     */
+    private static boolean isLockConflict(SQLException ex) {
+        return "40001".equals(ex.getSQLState()) || "40XL1".equals(ex.getSQLState());
+    }
+
+    @Override
+    public int insertGames(Iterable<Game> games) {
+        try {
+            return insert(games, false);
+        } catch (IOException ex) {
+            // not thrown when rethrow is false
+            return 0;
+        }
+    }
+
+    /**
+     * Add a collection of games to the store, failing if any of them can't
+     * be added. Games already in the store are skipped, as with
+     * insertGames().
+     *
+     * @param games Games to add to the store.
+     * @return Number of games actually added.
+     * @throws IOException If a game can't be added; the batches committed
+     *                     before the failure stay in the store.
+     */
+    public int insertAll(Iterable<Game> games) throws IOException {
+        return insert(games, true);
+    }
+
+    /**
+     * Add a collection of games to the store.
+     *
+     * @param games   Games to add to the store.
+     * @param rethrow True to throw if a game can't be added; false to
+     *                report the failure and return the number added before
+     *                it.
+     * @return Number of games actually added.
+     * @throws IOException If a game can't be added and rethrow is true.
+     */
+    private int insert(Iterable<Game> games, boolean rethrow) throws IOException {
+        int inserted = 0;
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+
+        // connect to the database; commit once per batch rather than once
+        // per row
+        try (Connection conn = connect()) {
+            conn.setAutoCommit(false);
+            try (Statement s = conn.createStatement();
+                 PreparedStatement ps = conn.prepareStatement("INSERT INTO GAME "
+                         + "(GAME_ID, GAME_DATA, SOLVED_GAME_DATA, DIFFICULTY) "
+                         + "VALUES(?, ?, ?, ?)")) {
+                // clear out the games that have already been served
+                s.executeUpdate("DELETE FROM GAME WHERE SERVED = 1");
+                conn.commit();
+
+                ArrayList<Game> batch = new ArrayList<>(BATCH_SIZE);
+                for (Game g : games) {
+                    batch.add(g);
+
+                    // send a full batch
+                    if (batch.size() == BATCH_SIZE) {
+                        inserted += insertBatch(conn, ps, batch);
+                        batch.clear();
+                    }
+                }
+
+                // send the partial batch at the end
+                if (!batch.isEmpty()) {
+                    inserted += insertBatch(conn, ps, batch);
+                }
+            } catch (SQLException ex) {
+                // a connection can't be closed mid-transaction; without
+                // this it would leak, holding its locks on GAME
+                conn.rollback();
+                throw ex;
+            }
+
+        } catch (SQLException ex) {
+            if (rethrow) {
+                event.finish("GAME", "insert", inserted);
+                throw new IOException("Cannot insert games into local Derby database after "
+                        + inserted + " were added", ex);
+            }
+            System.err.println("Cannot insert games into local Derby database!");
+            System.err.println(ex.toString());
+        }
+
+        event.finish("GAME", "insert", inserted);
+        return inserted;
+    }
+
+    /**
+     * Insert one batch of games and commit it. If the batch is rejected
+     * because some of its games are already in the table, it is rolled back
+     * and the games are inserted one at a time, skipping the duplicates.
+     *
+     * @param conn  Connection to the database, with auto-commit off.
+     * @param ps    Prepared INSERT statement.
+     * @param batch Games to insert.
+     * @return Number of games actually inserted.
+     * @throws SQLException If a game can't be inserted for any reason other
+     *                      than being a duplicate.
+     */
+    private int insertBatch(Connection conn, PreparedStatement ps, List<Game> batch)
+            throws SQLException {
+        try {
+            for (Game g : batch) {
+                setInsertParameters(ps, g);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+            return batch.size();
+
+        } catch (BatchUpdateException ex) {
+            if (!isDuplicate(ex)) {
+                throw ex;
+            }
+            conn.rollback();
+            ps.clearBatch();
+        }
+
+        int inserted = 0;
+        for (Game g : batch) {
+            setInsertParameters(ps, g);
+            try {
+                ps.executeUpdate();
+                inserted++;
+            } catch (SQLException ex) {
+                if (!isDuplicate(ex)) {
+                    throw ex;
+                }
+            }
+        }
+        conn.commit();
+        return inserted;
+    }
+
+    /**
+     * Set the parameters of the INSERT statement for one game.
+     *
+     * @param ps Prepared INSERT statement.
+     * @param g  Game to insert.
+     * @throws SQLException If a parameter can't be set.
+     */
+    private static void setInsertParameters(PreparedStatement ps, Game g) throws SQLException {
+        ps.setInt(1, g.getID());
+        ps.setString(2, g.getInitial().getGameData());
+        ps.setString(3, g.getSolved().getGameData());
+        ps.setInt(4, g.getDifficulty().getCode());
+    }
+
+    /**
+     * Determine if an exception was caused by a duplicate key.
+     *
+     * @param ex Exception thrown by an INSERT.
+     * @return True if the SQL state is a unique or primary key violation.
+     */
+    private static boolean isDuplicate(SQLException ex) {
+        return "23505".equals(ex.getSQLState());
+    }
+
+    /**
+     * Stream every game in the GAME table, played or not, to a consumer in
+     * GAME_ID order. Rows are read through a forward-only cursor, so the
+     * table is never held in memory all at once. Whether a game has been
+     * served isn't passed on; Games don't carry it.
+     *
+     * @param consumer Receives each game in turn.
+     * @return Number of games read.
+     * @throws IOException If the table can't be read to the end.
+     */
+    public long forEachGame(Consumer<Game> consumer) throws IOException {
+        long n = 0;
+
+        try (Connection conn = connect();
+             Statement s = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+            s.setFetchSize(BATCH_SIZE);
+            try (ResultSet rs = s.executeQuery("SELECT GAME_ID, GAME_DATA, "
+                    + "SOLVED_GAME_DATA, DIFFICULTY FROM GAME ORDER BY GAME_ID")) {
+                while (rs.next()) {
+                    consumer.accept(toGame(rs));
+                    n++;
+                }
+            }
+
+        } catch (SQLException ex) {
+            throw new IOException("Cannot read games from local Derby database after "
+                    + n + " games", ex);
+        }
+
+        return n;
+    }
+
+    @Override
+    public int count() {
+        int count = 0;
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+
+        try {
+            // connect to the database
+            Connection conn = connect();
+
+            // query to determine number of database elements
+            Statement s = conn.createStatement();
+            ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM GAME WHERE SERVED = 0");
+            rs.next();
+            count = rs.getInt(1);
+
+            // close database connection
+            conn.close();
+
+        } catch (SQLException ex) {
+            System.err.println("Cannot count rows in GAME table!");
+        }
+
+        event.finish("GAME", "count", count);
+        return count;
+    }
+
+    @Override
+    public Game getGame(int id) {
+        Game g = null;
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+
+        try {
+            // connect to the database
+            Connection conn = connect();
+
+            // look up the game by its primary key
+            PreparedStatement ps = conn.prepareStatement("SELECT GAME_ID, "
+                    + "GAME_DATA, SOLVED_GAME_DATA, DIFFICULTY FROM GAME "
+                    + "WHERE GAME_ID = ? AND SERVED = 0");
+            ps.setInt(1, id);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                g = toGame(rs);
+            }
+
+            // close database connection
+            conn.close();
+
+        } catch (SQLException ex) {
+            System.err.println("Cannot look up game " + id + " in local Derby database!");
+        }
+
+        event.finish("GAME", "lookup", g == null ? 0 : 1);
+        return g;
+    }
+
+    @Override
+    public void close() {
+        // every operation opens and closes its own connection, so there is
+        // nothing to release here
+    }
+}
@@ -0,0 +1,246 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.metrics.FeedFetchEvent;
+import edu.doane.sudoku.model.Game;
+import org.json.JSONException;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Incremental synchronization of a GameStore with the cloud game feed. The
+ * highest GAME_ID received so far, along with the ETag and Last-Modified
+ * values from the last download, are remembered in a small state file.
+ * Each sync asks the server only for games newer than that ID, makes the
+ * request conditional so an unchanged feed costs one round-trip with no
+ * body, and accepts a gzipped response. Games that aren't newer than the
+ * highest ID are dropped, so servers that ignore the "since" parameter
+ * still never cause duplicate inserts.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class FeedSync {
+
+    /**
+     * Number of games inserted into the store at a time.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * URL of the game feed.
+     */
+    private final String url;
+
+    /**
+     * File holding the synchronization state between runs.
+     */
+    private final File stateFile;
+
+    /**
+     * HTTP client used for every request.
+     */
+    private final HttpClient client;
+
+    /**
+     * Highest GAME_ID received from the feed.
+     */
+    private int highestId;
+
+    /**
+     * ETag header from the last successful download, or null.
+     */
+    private String etag;
+
+    /**
+     * Last-Modified header from the last successful download, or null.
+     */
+    private String lastModified;
+
+    /**
+     * Create a new synchronizer, loading any saved state.
+     *
+     * @param url           URL of the game feed.
+     * @param stateFileName Name of the file holding the synchronization
+     *                      state.
+     */
+    public FeedSync(String url, String stateFileName) {
+        this.url = url;
+        this.stateFile = new File(stateFileName);
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        loadState();
+    }
+
+    /**
+     * Get the highest GAME_ID received from the feed so far.
+     *
+     * @return Highest GAME_ID received, or 0 if nothing has been received.
+     */
+    public int getHighestId() {
+        return highestId;
+    }
+
+    /**
+     * Forget all synchronization state, so the next sync downloads the
+     * entire feed.
+     */
+    public void reset() {
+        highestId = 0;
+        etag = null;
+        lastModified = null;
+        saveState();
+    }
+
+    /**
+     * Download any games newer than the highest GAME_ID seen so far and add
+     * them to a store.
+     *
+     * @param store Store to add the new games to.
+     * @return Number of new games added to the store; 0 if the feed hasn't
+     * changed.
+     * @throws IOException If the feed can't be downloaded or parsed.
+     */
+    public int sync(GameStore store) throws IOException {
+        FeedFetchEvent event = new FeedFetchEvent();
+        event.begin();
+
+        String target = url;
+        if (highestId > 0) {
+            target += (url.contains("?") ? "&" : "?") + "since=" + highestId;
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(target))
+                .timeout(Duration.ofMinutes(2))
+                .header("Accept-Encoding", "gzip");
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Feed request interrupted", ex);
+        }
+
+        // nothing new since last time
+        if (response.statusCode() == 304) {
+            response.body().close();
+            return 0;
+        }
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Feed request failed: HTTP " + response.statusCode());
+        }
+
+        CountingInputStream wire = new CountingInputStream(response.body());
+        InputStream body = wire;
+        if (response.headers().firstValue("Content-Encoding")
+                .map(e -> e.equalsIgnoreCase("gzip")).orElse(false)) {
+            body = new GZIPInputStream(body, 1 << 16);
+        }
+
+        // stream the games into the store a batch at a time, skipping the
+        // ones we already have
+        int floor = highestId;
+        int[] newest = {highestId};
+        int[] added = {0};
+        int rows;
+        ArrayList<Game> batch = new ArrayList<>(BATCH_SIZE);
+        try (Reader rd = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16)) {
+            rows = JsonReader.streamJsonArr(rd, j -> {
+                int id = j.getInt("GAME_ID");
+                if (id > floor) {
+                    batch.add(Persistence.gameFromJson(j));
+                    newest[0] = Math.max(newest[0], id);
+                    if (batch.size() == BATCH_SIZE) {
+                        added[0] += store.insertGames(batch);
+                        batch.clear();
+                    }
+                }
+            });
+        } catch (JSONException ex) {
+            throw new IOException("Cannot parse game feed", ex);
+        }
+        if (!batch.isEmpty()) {
+            added[0] += store.insertGames(batch);
+        }
+
+        // remember where we got to
+        highestId = newest[0];
+        etag = response.headers().firstValue("ETag").orElse(null);
+        lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        saveState();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.url = target;
+            event.mode = "delta";
+            event.bytes = wire.getCount();
+            event.rows = rows;
+            event.added = added[0];
+            event.commit();
+        }
+
+        return added[0];
+    }
+
+    /**
+     * Load synchronization state from the state file, if there is one.
+     */
+    private void loadState() {
+        if (!stateFile.exists()) {
+            return;
+        }
+
+        Properties props = new Properties();
+        try (Reader in = new FileReader(stateFile, StandardCharsets.UTF_8)) {
+            props.load(in);
+            highestId = Integer.parseInt(props.getProperty("highestId", "0"));
+            etag = props.getProperty("etag");
+            lastModified = props.getProperty("lastModified");
+        } catch (IOException | NumberFormatException ex) {
+            System.err.println("Can't read feed state from " + stateFile
+                    + "; the whole feed will be downloaded.");
+            highestId = 0;
+            etag = null;
+            lastModified = null;
+        }
+    }
+
+    /**
+     * Save synchronization state to the state file.
+     */
+    private void saveState() {
+        Properties props = new Properties();
+        props.setProperty("highestId", Integer.toString(highestId));
+        if (etag != null) {
+            props.setProperty("etag", etag);
+        }
+        if (lastModified != null) {
+            props.setProperty("lastModified", lastModified);
+        }
+
+        try (Writer out = new FileWriter(stateFile, StandardCharsets.UTF_8)) {
+            props.store(out, "Doane SuDoKu feed synchronization state");
+        } catch (IOException ex) {
+            System.err.println("Can't save feed state to " + stateFile + "!");
+            System.err.println(ex.toString());
+        }
+    }
+}
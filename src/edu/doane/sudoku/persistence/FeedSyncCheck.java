@@ -0,0 +1,208 @@
+package edu.doane.sudoku.persistence;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.doane.sudoku.model.Game;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command-line check of FeedSync against a stand-in feed served by the
+ * JDK's HTTP server on localhost. The stand-in honors "since", answers a
+ * matching If-None-Match with 304, and gzips its answers when asked; the
+ * check fails if an unchanged feed is downloaded again, if only the new
+ * games aren't asked for and added, if games a server sends despite
+ * "since" are added twice, if the feed isn't gzipped on the wire, or if a
+ * reset doesn't download the whole feed again, as Persistence does when
+ * its store runs dry.
+ * <p>
+ * Usage: java edu.doane.sudoku.persistence.FeedSyncCheck
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class FeedSyncCheck {
+
+    /**
+     * Number of checks that failed.
+     */
+    private static int failures = 0;
+
+    /**
+     * Games in the stand-in feed.
+     */
+    private static volatile List<Game> feed;
+
+    /**
+     * True if the stand-in ignores "since" and sends the whole feed.
+     */
+    private static volatile boolean ignoreSince = false;
+
+    /**
+     * Query string of the last request, or null if it had none.
+     */
+    private static volatile String lastQuery;
+
+    /**
+     * If-None-Match header of the last request, or null.
+     */
+    private static volatile String lastIfNoneMatch;
+
+    /**
+     * Status of the last answer.
+     */
+    private static volatile int lastStatus;
+
+    /**
+     * True if the last answer was gzipped.
+     */
+    private static volatile boolean lastGzipped;
+
+    /**
+     * Run the check.
+     *
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        List<Game> games = GameStoreBenchmark.makeGames(1500);
+        File state = null;
+        HttpServer server = null;
+
+        try {
+            state = File.createTempFile("feedsync", ".state");
+            state.delete();
+
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/GAME.json", FeedSyncCheck::serve);
+            server.start();
+            String url = "http://localhost:" + server.getAddress().getPort() + "/GAME.json";
+
+            FeedSync sync = new FeedSync(url, state.getPath());
+            MemoryGameStore store = new MemoryGameStore();
+
+            feed = games.subList(0, 1000);
+            int added = sync.sync(store);
+            check(added == 1000 && lastQuery == null && lastStatus == 200 && lastGzipped,
+                    "first sync added " + added + " games, gzipped " + lastGzipped);
+
+            added = sync.sync(store);
+            check(added == 0 && lastStatus == 304 && lastIfNoneMatch != null,
+                    "unchanged feed answered " + lastStatus + " with If-None-Match "
+                            + lastIfNoneMatch);
+
+            feed = games.subList(0, 1200);
+            added = sync.sync(store);
+            check(added == 200 && "since=1000".equals(lastQuery),
+                    "sync asked for " + lastQuery + " and added " + added + " games");
+
+            ignoreSince = true;
+            feed = games.subList(0, 1300);
+            added = sync.sync(store);
+            check(added == 100 && store.count() == 1300,
+                    "server ignoring since: added " + added + ", store holds " + store.count());
+            ignoreSince = false;
+
+            // the store runs dry with nothing new on the feed
+            while (store.nextGame() != null) {
+                // drain it
+            }
+            added = sync.sync(store);
+            sync.reset();
+            int again = sync.sync(store);
+            check(added == 0 && again == 1300 && lastQuery == null && lastIfNoneMatch == null,
+                    "dry store: sync added " + added + ", after reset " + again);
+
+        } catch (IOException ex) {
+            System.err.println("Feed sync check could not run!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+            if (state != null) {
+                state.delete();
+            }
+        }
+
+        System.out.println(failures == 0 ? "all checks passed" : failures + " checks FAILED");
+        System.exit(failures == 0 ? 0 : -1);
+    }
+
+    /**
+     * Answer one request for the stand-in feed.
+     *
+     * @param exchange Request and response.
+     * @throws IOException If the answer can't be sent.
+     */
+    private static void serve(HttpExchange exchange) throws IOException {
+        List<Game> games = feed;
+        String etag = "\"" + games.size() + "\"";
+        lastQuery = exchange.getRequestURI().getQuery();
+        lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        lastGzipped = false;
+
+        if (etag.equals(lastIfNoneMatch)) {
+            lastStatus = 304;
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        int since = 0;
+        if (lastQuery != null && lastQuery.startsWith("since=") && !ignoreSince) {
+            since = Integer.parseInt(lastQuery.substring("since=".length()));
+        }
+        JSONArray arr = new JSONArray();
+        for (Game g : games) {
+            if (g.getID() > since) {
+                JSONObject j = new JSONObject();
+                j.put("GAME_ID", g.getID());
+                j.put("GAME_DATA", g.getInitial().getGameData());
+                j.put("SOLVED_GAME_DATA", g.getSolved().getGameData());
+                j.put("DIFFICULTY", g.getDifficulty().getCode());
+                arr.put(j);
+            }
+        }
+        byte[] body = arr.toString().getBytes(StandardCharsets.UTF_8);
+
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept != null && accept.contains("gzip")) {
+            ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(zipped)) {
+                out.write(body);
+            }
+            body = zipped.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            lastGzipped = true;
+        }
+
+        lastStatus = 200;
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Report the result of one check.
+     *
+     * @param ok   True if the check passed.
+     * @param what Description of the check.
+     */
+    private static void check(boolean ok, String what) {
+        System.out.println((ok ? "ok      " : "FAILED  ") + what);
+        if (!ok) {
+            failures++;
+        }
+    }
+}
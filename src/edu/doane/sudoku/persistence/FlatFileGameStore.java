@@ -0,0 +1,250 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+import edu.doane.sudoku.model.GameGrid;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * GameStore implementation backed by a plain text file. Each line of the file
+ * holds one game, in the same "id initial solved" format produced by
+ * Game.toString(). Games are never removed from the middle of the file;
+ * instead, the byte offset of the next un-played game is kept in a small
+ * companion cursor file. Once every game in the file has been played, the
+ * file is emptied before any new games are appended. The file is read in
+ * order, so games are served without regard to difficulty.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class FlatFileGameStore implements GameStore {
+
+    /**
+     * File holding the games.
+     */
+    private final File gameFile;
+
+    /**
+     * File holding the offset of the next un-played game.
+     */
+    private final File cursorFile;
+
+    /**
+     * Byte offset of the next un-played game in the game file.
+     */
+    private long cursor;
+
+    /**
+     * Number of un-played games in the file.
+     */
+    private int count;
+
+    /**
+     * ID numbers of all the un-played games in the file.
+     */
+    private final HashSet<Integer> ids;
+
+    /**
+     * Open (or create) a flat file store.
+     *
+     * @param fileName Name of the text file holding the games. The cursor
+     *                 is kept in a file of the same name with ".pos" appended.
+     */
+    public FlatFileGameStore(String fileName) {
+        gameFile = new File(fileName);
+        cursorFile = new File(fileName + ".pos");
+        ids = new HashSet<>();
+
+        try {
+            // make sure both files exist
+            gameFile.createNewFile();
+            cursor = readCursor();
+
+            // one pass over the un-played part of the file, to learn how
+            // many games we have and what their IDs are
+            if (cursor > gameFile.length()) {
+                cursor = gameFile.length();
+            }
+            try (FileInputStream in = new FileInputStream(gameFile)) {
+                in.getChannel().position(cursor);
+                BufferedReader rd = new BufferedReader(new InputStreamReader(in,
+                        StandardCharsets.US_ASCII));
+                String line;
+                while ((line = rd.readLine()) != null) {
+                    if (!line.isEmpty()) {
+                        ids.add(parseId(line));
+                    }
+                }
+            }
+            count = ids.size();
+
+        } catch (IOException | NumberFormatException ex) {
+            System.err.println("Can't open game file " + fileName + "! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+
+    @Override
+    public synchronized Game nextGame() {
+        Game g = null;
+
+        try (RandomAccessFile raf = new RandomAccessFile(gameFile, "r")) {
+            // skip any blank lines at the cursor
+            raf.seek(cursor);
+            String line = raf.readLine();
+            while (line != null && line.isEmpty()) {
+                line = raf.readLine();
+            }
+
+            if (line != null) {
+                g = parseGame(line);
+                cursor = raf.getFilePointer();
+                writeCursor();
+                ids.remove(g.getID());
+                count--;
+            }
+
+        } catch (IOException ex) {
+            System.err.println("Cannot read next game from " + gameFile + "!");
+            System.err.println(ex.toString());
+        }
+
+        return g;
+    }
+
+    @Override
+    public synchronized List<Game> nextGames(Difficulty difficulty, int max) {
+        // the file isn't indexed by difficulty, so just take the next games
+        ArrayList<Game> games = new ArrayList<>(max);
+        Game g;
+        while (games.size() < max && (g = nextGame()) != null) {
+            games.add(g);
+        }
+        return games;
+    }
+
+    @Override
+    public synchronized int insertGames(Iterable<Game> games) {
+        int inserted = 0;
+
+        try {
+            // if every game has been played, start the file over rather
+            // than letting it grow forever
+            if (count == 0 && cursor > 0) {
+                new FileOutputStream(gameFile).close();
+                cursor = 0;
+                writeCursor();
+            }
+
+            try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(gameFile, true), StandardCharsets.US_ASCII))) {
+                for (Game g : games) {
+                    if (ids.add(g.getID())) {
+                        out.write(g.toString());
+                        out.newLine();
+                        inserted++;
+                    }
+                }
+            }
+            count += inserted;
+
+        } catch (IOException ex) {
+            System.err.println("Cannot append games to " + gameFile + "!");
+            System.err.println(ex.toString());
+        }
+
+        return inserted;
+    }
+
+    @Override
+    public synchronized int count() {
+        return count;
+    }
+
+    @Override
+    public synchronized Game getGame(int id) {
+        if (!ids.contains(id)) {
+            return null;
+        }
+
+        // the file isn't indexed, so scan the un-played part of it
+        try (FileInputStream in = new FileInputStream(gameFile)) {
+            in.getChannel().position(cursor);
+            BufferedReader rd = new BufferedReader(new InputStreamReader(in,
+                    StandardCharsets.US_ASCII));
+            String line;
+            while ((line = rd.readLine()) != null) {
+                if (!line.isEmpty() && parseId(line) == id) {
+                    return parseGame(line);
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Cannot look up game " + id + " in " + gameFile + "!");
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() {
+        // files are opened and closed by each operation
+    }
+
+    /**
+     * Get the ID number from one line of the game file.
+     *
+     * @param line Line from the game file.
+     * @return ID number of the game on that line.
+     */
+    private static int parseId(String line) {
+        return Integer.parseInt(line.substring(0, line.indexOf(' ')));
+    }
+
+    /**
+     * Convert one line of the game file into a Game object.
+     *
+     * @param line Line from the game file, in "id initial solved" format.
+     * @return Game represented by the line.
+     */
+    static Game parseGame(String line) {
+        String[] parts = line.split(" ");
+        return new Game(Integer.parseInt(parts[0]),
+                new GameGrid(parts[1]),
+                new GameGrid(parts[2]));
+    }
+
+    /**
+     * Read the cursor from the cursor file.
+     *
+     * @return Offset stored in the cursor file, or 0 if there is no cursor
+     * file yet.
+     * @throws IOException If the cursor file exists but can't be read.
+     */
+    private long readCursor() throws IOException {
+        if (!cursorFile.exists()) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(cursorFile))) {
+            return in.readLong();
+        } catch (EOFException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Save the cursor to the cursor file.
+     *
+     * @throws IOException If the cursor file can't be written.
+     */
+    private void writeCursor() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(cursorFile))) {
+            out.writeLong(cursor);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+import edu.doane.sudoku.model.GameGrid;
+import edu.doane.sudoku.model.SavedGame;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Write-behind journal of the game in progress. Callers hand snapshots to
+ * record(), which only swaps a reference and returns; a background thread
+ * periodically appends the newest snapshot to the journal file, so any
+ * number of moves between flushes costs a single write. Each journal record
+ * carries a CRC, so a record torn by a crash is ignored and the one before
+ * it is restored instead. The file is compacted down to its last record
+ * every so often to keep restores fast.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class GameJournal {
+
+    /**
+     * How often pending snapshots are written, in milliseconds.
+     */
+    private static final long FLUSH_INTERVAL_MS = 2000;
+
+    /**
+     * Number of records appended before the file is compacted.
+     */
+    private static final int COMPACT_AFTER = 256;
+
+    /**
+     * Record type for a saved game.
+     */
+    private static final byte TYPE_GAME = 1;
+
+    /**
+     * Record type meaning there is no game to resume.
+     */
+    private static final byte TYPE_CLEARED = 0;
+
+    /**
+     * Marker placed in pending when the journal has been cleared.
+     */
+    private static final Object CLEARED = new Object();
+
+    /**
+     * Journal file.
+     */
+    private final File file;
+
+    /**
+     * Newest snapshot not yet written (a SavedGame or CLEARED), or null.
+     */
+    private final AtomicReference<Object> pending;
+
+    /**
+     * Background thread writing the journal.
+     */
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Stream appending to the journal file; only used by flush().
+     */
+    private FileOutputStream out;
+
+    /**
+     * Number of records in the journal file. Kept at COMPACT_AFTER if the
+     * file might end in a torn record, so the next flush rewrites it.
+     */
+    private int records;
+
+    /**
+     * Open a journal, creating the file if need be.
+     *
+     * @param fileName Name of the journal file.
+     */
+    public GameJournal(String fileName) {
+        file = new File(fileName);
+        pending = new AtomicReference<>();
+
+        // until restore() has checked the file, rewrite it on the first flush
+        records = COMPACT_AFTER;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-journal");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS,
+                FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        // don't lose the last few moves if the app exits without close()
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "game-journal-exit"));
+    }
+
+    /**
+     * Record the current state of the game in progress. Never blocks on
+     * disk; only the newest snapshot since the last flush is written.
+     *
+     * @param snapshot Snapshot of the game in progress.
+     */
+    public void record(SavedGame snapshot) {
+        pending.set(snapshot);
+    }
+
+    /**
+     * Record that there is no game to resume, e.g., because the game was
+     * won. Never blocks on disk.
+     */
+    public void clear() {
+        pending.set(CLEARED);
+    }
+
+    /**
+     * Write the pending snapshot, if there is one, to the journal file.
+     * Called periodically by the background thread; may also be called
+     * directly, e.g., just before the application exits.
+     */
+    public synchronized void flush() {
+        Object snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+
+        try {
+            byte[] record = encode(snapshot == CLEARED ? null : (SavedGame) snapshot);
+
+            // start the file over with just this record once it gets long
+            if (records >= COMPACT_AFTER) {
+                compact(record);
+            } else {
+                if (out == null) {
+                    out = new FileOutputStream(file, true);
+                }
+                out.write(record);
+                out.getChannel().force(false);
+                records++;
+            }
+
+        } catch (IOException ex) {
+            System.err.println("Cannot write game journal " + file + "!");
+            System.err.println(ex.toString());
+        }
+    }
+
+    /**
+     * Flush any pending snapshot and stop the background thread.
+     */
+    public void close() {
+        flusher.shutdown();
+        flush();
+        synchronized (this) {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ex) {
+                    // nothing more we can do
+                }
+                out = null;
+            }
+        }
+    }
+
+    /**
+     * Read the most recent intact snapshot from the journal file.
+     *
+     * @return Most recently saved game in progress, or null if there is no
+     * game to resume.
+     */
+    public synchronized SavedGame restore() {
+        if (!file.exists()) {
+            return null;
+        }
+
+        SavedGame last = null;
+        int intact = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file)))) {
+            while (true) {
+                // read one record; stop at the end, or at a torn record
+                int length = in.readInt();
+                if (length <= 0 || length > 4096) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                long crc = in.readLong();
+
+                CRC32 check = new CRC32();
+                check.update(payload);
+                if (check.getValue() != crc) {
+                    break;
+                }
+
+                last = decode(payload);
+                intact++;
+            }
+        } catch (EOFException ex) {
+            // normal end of the journal; new records can be appended
+            records = intact;
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println("Cannot read game journal " + file + "!");
+            System.err.println(ex.toString());
+        }
+
+        return last;
+    }
+
+    /**
+     * Replace the journal file with one holding a single record.
+     *
+     * @param record Encoded record to keep.
+     * @throws IOException If the file can't be rewritten.
+     */
+    private void compact(byte[] record) throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream tmpOut = new FileOutputStream(tmp)) {
+            tmpOut.write(record);
+            tmpOut.getChannel().force(false);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        records = 1;
+    }
+
+    /**
+     * Encode a journal record: payload length, payload, and CRC.
+     *
+     * @param snapshot Snapshot to encode, or null for a cleared record.
+     * @return Bytes of the record.
+     * @throws IOException Never, in practice; byte arrays don't fail.
+     */
+    private static byte[] encode(SavedGame snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        DataOutputStream data = new DataOutputStream(bytes);
+
+        if (snapshot == null) {
+            data.writeByte(TYPE_CLEARED);
+        } else {
+            Game game = snapshot.getGame();
+            data.writeByte(TYPE_GAME);
+            data.writeInt(game.getID());
+            data.writeByte(game.getDifficulty().getCode());
+            data.write(game.getInitial().getGameData().getBytes(StandardCharsets.US_ASCII));
+            data.write(game.getSolved().getGameData().getBytes(StandardCharsets.US_ASCII));
+            data.write(snapshot.getCurrent().getBytes(StandardCharsets.US_ASCII));
+            for (int row = 0; row < 9; row++) {
+                for (int col = 0; col < 9; col++) {
+                    data.writeShort(snapshot.getNoteMask(row, col));
+                }
+            }
+            data.writeLong(snapshot.getElapsedMillis());
+        }
+        data.flush();
+
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream(payload.length + 12);
+        DataOutputStream rec = new DataOutputStream(record);
+        rec.writeInt(payload.length);
+        rec.write(payload);
+        rec.writeLong(crc.getValue());
+        rec.flush();
+
+        return record.toByteArray();
+    }
+
+    /**
+     * Decode the payload of a journal record.
+     *
+     * @param payload Payload bytes.
+     * @return Saved game held in the record, or null for a cleared record.
+     * @throws IOException If the payload is malformed.
+     */
+    private static SavedGame decode(byte[] payload) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+        if (data.readByte() == TYPE_CLEARED) {
+            return null;
+        }
+
+        int id = data.readInt();
+        Difficulty difficulty = Difficulty.fromCode(data.readByte());
+        String initial = readGameData(data);
+        String solved = readGameData(data);
+        String current = readGameData(data);
+        short[] notes = new short[81];
+        for (int i = 0; i < 81; i++) {
+            notes[i] = data.readShort();
+        }
+        long elapsed = data.readLong();
+
+        GameGrid initialGrid = new GameGrid(initial);
+        if (difficulty == null) {
+            difficulty = Difficulty.rate(initialGrid);
+        }
+        Game game = new Game(id, initialGrid, new GameGrid(solved), difficulty);
+
+        return new SavedGame(game, current, notes, elapsed);
+    }
+
+    /**
+     * Read an 81-character game data string.
+     *
+     * @param data Stream to read from.
+     * @return Game data string.
+     * @throws IOException If the stream ends early.
+     */
+    private static String readGameData(DataInputStream data) throws IOException {
+        byte[] buf = new byte[81];
+        data.readFully(buf);
+        return new String(buf, StandardCharsets.US_ASCII);
+    }
+}
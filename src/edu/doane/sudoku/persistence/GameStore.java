@@ -0,0 +1,66 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+
+import java.util.List;
+
+/**
+ * Interface for the local stores of un-played games used by the Persistence
+ * class. Which implementation is used is selected by the "store" setting in
+ * the DoaneSuDoKu.ini file.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public interface GameStore {
+
+    /**
+     * Remove the next un-played game from the store and return it.
+     *
+     * @return Next un-played game, or null if the store is empty.
+     */
+    Game nextGame();
+
+    /**
+     * Remove up to max un-played games of a particular difficulty from the
+     * store and return them. Stores that don't index their games by
+     * difficulty return games of any difficulty, in their usual order.
+     *
+     * @param difficulty Difficulty of the games to return, or null for any
+     *                   difficulty.
+     * @param max        Maximum number of games to return.
+     * @return List of at most max games; empty if the store has no games of
+     * the requested difficulty.
+     */
+    List<Game> nextGames(Difficulty difficulty, int max);
+
+    /**
+     * Add a collection of games to the store.
+     *
+     * @param games Games to add to the store.
+     * @return Number of games actually added.
+     */
+    int insertGames(Iterable<Game> games);
+
+    /**
+     * Get the number of un-played games held in the store.
+     *
+     * @return Number of un-played games in the store.
+     */
+    int count();
+
+    /**
+     * Look up an un-played game by its ID number.
+     *
+     * @param id ID number of the game to find.
+     * @return The game with the specified ID, or null if the store doesn't
+     * hold that game.
+     */
+    Game getGame(int id);
+
+    /**
+     * Release any resources held by the store.
+     */
+    void close();
+}
@@ -0,0 +1,140 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Game;
+import edu.doane.sudoku.model.GameGrid;
+
+import java.util.ArrayList;
+
+/**
+ * Command-line tool comparing the performance of the GameStore
+ * implementations. Each store is filled with the same synthetic games, then
+ * timed for counting, looking up and serving them.
+ * <p>
+ * Usage: java edu.doane.sudoku.persistence.GameStoreBenchmark [games] [stores]
+ * where games is the number of games to use (default 10000) and stores is a
+ * comma-separated list of store types (default "memory,file,derby"). Run it
+ * in a scratch directory: the file and derby stores create their files in the
+ * working directory, and the games are served (removed) as part of the run.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class GameStoreBenchmark {
+
+    /**
+     * Solved grid the synthetic games are derived from.
+     */
+    private static final String BASE_SOLUTION =
+            "534678912672195348198342567859761423426853791"
+            + "713924856961537284287419635345286179";
+
+    /**
+     * Mask of the cells that are givens in the synthetic games; 1 means given.
+     */
+    private static final String GIVEN_MASK =
+            "110010000100111000011000010100010001100101001100010001010000110000111001000010011";
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args Command-line arguments, as described in the class comment.
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        String[] types = (args.length > 1 ? args[1] : "memory,file,derby").split(",");
+
+        ArrayList<Game> games = makeGames(n);
+
+        System.out.printf("%-8s %12s %12s %12s %12s%n", "store",
+                "insert ms", "count us", "lookup us", "next us");
+        for (String type : types) {
+            GameStore store = Persistence.createStore(type);
+
+            long start = System.nanoTime();
+            int inserted = store.insertGames(games);
+            double insertMs = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            int reps = 100;
+            for (int i = 0; i < reps; i++) {
+                store.count();
+            }
+            double countUs = (System.nanoTime() - start) / 1e3 / reps;
+
+            start = System.nanoTime();
+            int lookups = Math.min(100, n);
+            for (int i = 0; i < lookups; i++) {
+                store.getGame(games.get((int) ((long) i * n / lookups)).getID());
+            }
+            double lookupUs = (System.nanoTime() - start) / 1e3 / lookups;
+
+            start = System.nanoTime();
+            int served = 0;
+            while (store.nextGame() != null) {
+                served++;
+            }
+            double nextUs = (System.nanoTime() - start) / 1e3 / Math.max(1, served);
+
+            store.close();
+
+            System.out.printf("%-8s %12.1f %12.2f %12.2f %12.2f%n", type,
+                    insertMs, countUs, lookupUs, nextUs);
+            if (inserted != n || served != n) {
+                System.out.println("  warning: inserted " + inserted
+                        + ", served " + served + " of " + n + " games");
+            }
+        }
+    }
+
+    /**
+     * Make a list of distinct, valid games. Each game relabels the digits of
+     * BASE_SOLUTION with a different permutation of 1 - 9, so both the
+     * initial and solved grids are unique, as the Derby GAME table requires.
+     *
+     * @param n Number of games to make, at most 9! = 362880.
+     * @return List of n games, with IDs 1 through n.
+     */
+    static ArrayList<Game> makeGames(int n) {
+        ArrayList<Game> games = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            int[] perm = permutation(k);
+
+            StringBuilder initial = new StringBuilder(81);
+            StringBuilder solved = new StringBuilder(81);
+            for (int i = 0; i < 81; i++) {
+                char c = (char) ('0' + perm[BASE_SOLUTION.charAt(i) - '1']);
+                solved.append(c);
+                initial.append(GIVEN_MASK.charAt(i) == '1' ? c : '0');
+            }
+
+            games.add(new Game(k + 1, new GameGrid(initial.toString()),
+                    new GameGrid(solved.toString())));
+        }
+        return games;
+    }
+
+    /**
+     * Get the k-th permutation of the digits 1 - 9, in lexicographic order.
+     *
+     * @param k Index of the permutation, in [0, 9!).
+     * @return Array holding the permutation.
+     */
+    private static int[] permutation(int k) {
+        ArrayList<Integer> digits = new ArrayList<>();
+        for (int d = 1; d <= 9; d++) {
+            digits.add(d);
+        }
+
+        int[] perm = new int[9];
+        int f = 40320;  // 8!
+        for (int i = 0; i < 9; i++) {
+            int idx = k / f;
+            k %= f;
+            perm[i] = digits.remove(idx);
+            if (i < 8) {
+                f /= (8 - i);
+            }
+        }
+        return perm;
+    }
+}
@@ -0,0 +1,99 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Game;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Command-line stress test of the GameStores' claims: several threads
+ * claim batches from one store at once until it is empty, and the test
+ * fails if any game is handed out twice, or any game is never handed out.
+ * <p>
+ * Usage: java edu.doane.sudoku.persistence.GameStoreStressTest [games]
+ * [threads] [stores] where games is the number of games to use (default
+ * 5000), threads the number of claiming threads (default 8), and stores a
+ * comma-separated list of store types (default "derby,memory,file"). As
+ * with GameStoreBenchmark, run it in a scratch directory: the file and
+ * derby stores create their files in the working directory.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class GameStoreStressTest {
+
+    /**
+     * Games asked for by each claim.
+     */
+    private static final int BATCH = 8;
+
+    /**
+     * Run the test.
+     *
+     * @param args Command-line arguments, as described in the class comment.
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        String[] types = (args.length > 2 ? args[2] : "derby,memory,file").split(",");
+
+        List<Game> games = GameStoreBenchmark.makeGames(n);
+
+        boolean ok = true;
+        System.out.printf("%-8s %10s %10s %10s %10s%n", "store", "served", "twice",
+                "never", "ms");
+        for (String type : types) {
+            GameStore store = Persistence.createStore(type);
+            store.insertGames(games);
+
+            // times each game, by GAME_ID, was handed out
+            AtomicIntegerArray served = new AtomicIntegerArray(n + 1);
+            AtomicInteger total = new AtomicInteger();
+
+            long start = System.nanoTime();
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    List<Game> batch;
+                    while (!(batch = store.nextGames(null, BATCH)).isEmpty()) {
+                        for (Game g : batch) {
+                            served.incrementAndGet(g.getID());
+                            total.incrementAndGet();
+                        }
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread t : workers) {
+                try {
+                    t.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            store.close();
+
+            int twice = 0;
+            int never = 0;
+            for (int id = 1; id <= n; id++) {
+                if (served.get(id) > 1) {
+                    twice++;
+                } else if (served.get(id) == 0) {
+                    never++;
+                }
+            }
+
+            System.out.printf("%-8s %10d %10d %10d %10d%n", type, total.get(), twice,
+                    never, ms);
+            ok &= twice == 0 && never == 0;
+        }
+
+        if (!ok) {
+            System.out.println("FAILED: games were served twice or not at all");
+            System.exit(-1);
+        }
+    }
+}
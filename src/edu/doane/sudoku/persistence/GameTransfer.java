@@ -0,0 +1,327 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Game;
+import org.json.CDL;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Command line tool moving the GAME table of the local Derby database to
+ * and from files, for copying puzzle banks between machines. Three formats
+ * are supported:
+ * <ul>
+ * <li>jsonl: one JSON object per line, with the same fields as the cloud
+ * feed (GAME_ID, GAME_DATA, SOLVED_GAME_DATA, DIFFICULTY);</li>
+ * <li>csv: a header row, then one comma-separated row per game;</li>
+ * <li>bin: a puzzle bank file, as written by PuzzleBankBuilder, which can
+ * also be used directly with the "bank" store.</li>
+ * </ul>
+ * Both directions stream: exports read the table through a forward-only
+ * cursor, and imports hand a lazy iterator over the file to the store's
+ * batched insert, so only one game and one batch are in memory at a time,
+ * however big the bank is. A database error fails the transfer, rather
+ * than leaving a short file or a partial import that looks complete.
+ * <p>
+ * The SERVED flag is deliberately not exported: a bank is copied to give
+ * another machine puzzles to serve, and games served on this machine
+ * haven't been played there. Every game exported, served or not, is
+ * imported as un-played.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class GameTransfer {
+
+    /**
+     * Size of the file buffers, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Column names, in file order, for the jsonl and csv formats.
+     */
+    private static final String[] COLUMNS = {"GAME_ID", "GAME_DATA",
+        "SOLVED_GAME_DATA", "DIFFICULTY"};
+
+    /**
+     * Write every game in the GAME table to a file.
+     *
+     * @param store  Store to read the games from.
+     * @param format File format: "jsonl", "csv", or "bin".
+     * @param file   File to write.
+     * @return Number of games written.
+     * @throws IOException If the table can't be read or the file can't be
+     *                     written.
+     */
+    public static long exportGames(DerbyGameStore store, String format, File file)
+            throws IOException {
+        long n;
+
+        try {
+            if (format.equals("bin")) {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(file), BUFFER_SIZE))) {
+                    // placeholder header; rewritten once we know the count
+                    out.write(new byte[PuzzleBank.HEADER_SIZE]);
+
+                    ByteBuffer record = ByteBuffer.allocate(PuzzleBank.RECORD_SIZE);
+                    n = store.forEachGame(g -> {
+                        try {
+                            PuzzleBankBuilder.writeRecord(out, record, g);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                }
+
+                // forEachGame() reads in GAME_ID order
+                PuzzleBankBuilder.writeHeader(file, n, true);
+
+            } else {
+                boolean csv = checkTextFormat(format);
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                    if (csv) {
+                        out.write(CDL.rowToString(new JSONArray(COLUMNS)));
+                    }
+
+                    n = store.forEachGame(g -> {
+                        try {
+                            out.write(csv ? toCsv(g) : toJsonLine(g));
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                }
+            }
+
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        return n;
+    }
+
+    /**
+     * Add every game in a file to the GAME table. Games already in the
+     * table are skipped.
+     *
+     * @param store  Store to add the games to.
+     * @param format File format: "jsonl", "csv", or "bin".
+     * @param file   File to read.
+     * @return Number of games added.
+     * @throws IOException If the file can't be read, or the games can't be
+     *                     added.
+     */
+    public static int importGames(DerbyGameStore store, String format, File file)
+            throws IOException {
+        if (format.equals("bin")) {
+            // the bank is memory-mapped, so reading it by record number
+            // doesn't load it into the heap
+            PuzzleBank bank = new PuzzleBank(file.getPath());
+            return store.insertAll(() -> new Iterator<Game>() {
+                private long n = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return n < bank.size();
+                }
+
+                @Override
+                public Game next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return bank.getRecord(n++);
+                }
+            });
+        }
+
+        boolean csv = checkTextFormat(format);
+        try (BufferedReader rd = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            Iterator<Game> games = csv ? csvGames(rd) : jsonLineGames(rd);
+            return store.insertAll(() -> games);
+
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } catch (JSONException ex) {
+            throw new IOException("Malformed " + format + " file " + file, ex);
+        }
+    }
+
+    /**
+     * Check that a format is one of the text formats.
+     *
+     * @param format Format name.
+     * @return True for "csv", false for "jsonl".
+     * @throws IllegalArgumentException For any other format.
+     */
+    private static boolean checkTextFormat(String format) {
+        if (format.equals("csv")) {
+            return true;
+        } else if (format.equals("jsonl")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unknown format \"" + format
+                + "\"; use jsonl, csv or bin");
+    }
+
+    /**
+     * Convert a game to one line of JSON.
+     *
+     * @param g Game to convert.
+     * @return JSON object, ending in a newline.
+     */
+    private static String toJsonLine(Game g) {
+        JSONObject j = new JSONObject();
+        j.put("GAME_ID", g.getID());
+        j.put("GAME_DATA", g.getInitial().getGameData());
+        j.put("SOLVED_GAME_DATA", g.getSolved().getGameData());
+        j.put("DIFFICULTY", g.getDifficulty().getCode());
+        return j.toString() + "\n";
+    }
+
+    /**
+     * Convert a game to one CSV row. The difficulty is written by name,
+     * since CSV values are read back as strings.
+     *
+     * @param g Game to convert.
+     * @return CSV row, ending in a newline.
+     */
+    private static String toCsv(Game g) {
+        JSONArray row = new JSONArray();
+        row.put(Integer.toString(g.getID()));
+        row.put(g.getInitial().getGameData());
+        row.put(g.getSolved().getGameData());
+        row.put(g.getDifficulty().name());
+        return CDL.rowToString(row);
+    }
+
+    /**
+     * Make a lazy iterator over the games in a JSON Lines file.
+     *
+     * @param rd Reader for the file.
+     * @return Iterator reading one line per game.
+     */
+    private static Iterator<Game> jsonLineGames(BufferedReader rd) {
+        return new LineIterator() {
+            @Override
+            Game parse() throws IOException {
+                String line;
+                do {
+                    line = rd.readLine();
+                } while (line != null && line.trim().isEmpty());
+                return line == null ? null : Persistence.gameFromJson(new JSONObject(line));
+            }
+        };
+    }
+
+    /**
+     * Make a lazy iterator over the games in a CSV file. The first row
+     * names the columns.
+     *
+     * @param rd Reader for the file.
+     * @return Iterator reading one row per game.
+     */
+    private static Iterator<Game> csvGames(BufferedReader rd) {
+        JSONTokener x = new JSONTokener(rd);
+        JSONArray names = CDL.rowToJSONArray(x);
+        return new LineIterator() {
+            @Override
+            Game parse() {
+                JSONObject j = names == null ? null : CDL.rowToJSONObject(names, x);
+                return j == null ? null : Persistence.gameFromJson(j);
+            }
+        };
+    }
+
+    /**
+     * Iterator reading games one at a time, looking one game ahead.
+     */
+    private abstract static class LineIterator implements Iterator<Game> {
+
+        /**
+         * Next game, read ahead by hasNext(); null if not read yet.
+         */
+        private Game next;
+
+        /**
+         * Set once the end of the input has been reached.
+         */
+        private boolean done;
+
+        /**
+         * Read the next game from the input.
+         *
+         * @return Next game, or null at the end of the input.
+         * @throws IOException If the input can't be read.
+         */
+        abstract Game parse() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = parse();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Game next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Game g = next;
+            next = null;
+            return g;
+        }
+    }
+
+    /**
+     * Run the tool.
+     *
+     * @param args "export" or "import", the format (jsonl, csv or bin), and
+     *             the file name.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("export") || args[0].equals("import"))) {
+            System.err.println("Usage: java edu.doane.sudoku.persistence.GameTransfer "
+                    + "export|import jsonl|csv|bin <file>");
+            System.exit(-1);
+        }
+
+        DerbyGameStore store = new DerbyGameStore();
+        File file = new File(args[2]);
+        try {
+            long start = System.nanoTime();
+            long n = args[0].equals("export")
+                    ? exportGames(store, args[1], file)
+                    : importGames(store, args[1], file);
+            System.out.printf("%s %d games %s %s in %.1f s%n",
+                    args[0].equals("export") ? "Exported" : "Imported", n,
+                    args[0].equals("export") ? "to" : "from", file,
+                    (System.nanoTime() - start) / 1e9);
+
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Cannot " + args[0] + " games!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        } finally {
+            store.close();
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package edu.doane.sudoku.persistence;
 
+import edu.doane.sudoku.metrics.Histogram;
+import edu.doane.sudoku.metrics.Metrics;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 import java.io.*;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 /**
  * @see <a href="https://stackoverflow.com/questions/4308554/simplest-way-to-read-json-from-a-url-in-java">https://stackoverflow.com/questions/4308554/simplest-way-to-read-json-from-a-url-in-java</a>
  */
 public class JsonReader {
 
+    /**
+     * Time taken to parse a whole JSON document once it has been read.
+     */
+    private static final Histogram PARSE_TIME = Metrics.histogram("json.parseDocument");
+
+    /**
+     * Time taken to read and parse each object of a streamed JSON array.
+     */
+    private static final Histogram STREAM_PARSE_TIME = Metrics.histogram("json.parseStreamedObject");
+
     private static String readAll(Reader rd) throws IOException {
         StringBuilder sb = new StringBuilder();
         int cp;
@@ -24,11 +38,24 @@ public class JsonReader {
     }
 
     public static JSONArray readJsonArrFromUrl(String url) throws IOException, JSONException {
-        InputStream is = new URL(url).openStream();
+        return readJsonArr(new URL(url).openStream());
+    }
+
+    /**
+     * Read a whole JSON array from a stream, then close the stream.
+     *
+     * @param is Stream holding the UTF-8 text of a JSON array.
+     * @return The array.
+     * @throws IOException   If the stream can't be read.
+     * @throws JSONException If the text is not a JSON array.
+     */
+    public static JSONArray readJsonArr(InputStream is) throws IOException, JSONException {
         try {
             BufferedReader rd = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
             String jsonText = readAll(rd);
+            long start = System.nanoTime();
             JSONArray json = new JSONArray(jsonText);
+            PARSE_TIME.recordSince(start);
             return json;
         } finally {
             is.close();
@@ -40,10 +67,52 @@ public class JsonReader {
         try {
             BufferedReader rd = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
             String jsonText = readAll(rd);
+            long start = System.nanoTime();
             JSONObject json = new JSONObject(jsonText);
+            PARSE_TIME.recordSince(start);
             return json;
         } finally {
             is.close();
         }
     }
+
+    /**
+     * Read a JSON array of objects one element at a time, handing each object
+     * to a consumer as soon as it has been parsed. Unlike
+     * readJsonArrFromUrl(), the whole array is never held in memory, so this
+     * works for feeds of any size.
+     *
+     * @param rd       Reader positioned at the start of the JSON array.
+     * @param consumer Consumer receiving each object in the array, in order.
+     * @return Number of objects read.
+     * @throws JSONException If the text is not a JSON array of objects.
+     */
+    public static int streamJsonArr(Reader rd, Consumer<JSONObject> consumer) throws JSONException {
+        JSONTokener x = new JSONTokener(rd);
+        if (x.nextClean() != '[') {
+            throw x.syntaxError("A JSONArray text must start with '['");
+        }
+
+        int n = 0;
+        char c = x.nextClean();
+        if (c == ']') {
+            return n;
+        }
+        x.back();
+
+        while (true) {
+            long start = System.nanoTime();
+            JSONObject j = new JSONObject(x);
+            STREAM_PARSE_TIME.recordSince(start);
+            consumer.accept(j);
+            n++;
+
+            c = x.nextClean();
+            if (c == ']') {
+                return n;
+            } else if (c != ',') {
+                throw x.syntaxError("Expected a ',' or ']'");
+            }
+        }
+    }
 }
\ No newline at end of file
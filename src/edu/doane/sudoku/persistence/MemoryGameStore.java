@@ -0,0 +1,112 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * GameStore implementation that keeps its games on the heap. Nothing is
+ * written to disk, so the games are gone when the application exits. Useful
+ * for testing, and for servers that reload their games from the cloud on
+ * start up.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class MemoryGameStore implements GameStore {
+
+    /**
+     * Un-played games, one queue per difficulty, each in the order the games
+     * were added.
+     */
+    private final EnumMap<Difficulty, ArrayDeque<Game>> queues;
+
+    /**
+     * Un-played games, keyed by their ID numbers.
+     */
+    private final HashMap<Integer, Game> byId;
+
+    /**
+     * Create a new, empty store.
+     */
+    public MemoryGameStore() {
+        queues = new EnumMap<>(Difficulty.class);
+        for (Difficulty d : Difficulty.values()) {
+            queues.put(d, new ArrayDeque<>());
+        }
+        byId = new HashMap<>();
+    }
+
+    @Override
+    public synchronized Game nextGame() {
+        List<Game> games = nextGames(null, 1);
+        return games.isEmpty() ? null : games.get(0);
+    }
+
+    @Override
+    public synchronized List<Game> nextGames(Difficulty difficulty, int max) {
+        ArrayList<Game> games = new ArrayList<>(max);
+        while (games.size() < max) {
+            ArrayDeque<Game> queue = (difficulty == null) ? fullestQueue()
+                    : queues.get(difficulty);
+            Game g = queue.poll();
+            if (g == null) {
+                break;
+            }
+            byId.remove(g.getID());
+            games.add(g);
+        }
+        return games;
+    }
+
+    /**
+     * Get the queue holding the most games, so games of any difficulty are
+     * handed out without draining one difficulty first.
+     *
+     * @return Queue holding the most un-played games.
+     */
+    private ArrayDeque<Game> fullestQueue() {
+        ArrayDeque<Game> fullest = null;
+        for (ArrayDeque<Game> queue : queues.values()) {
+            if (fullest == null || queue.size() > fullest.size()) {
+                fullest = queue;
+            }
+        }
+        return fullest;
+    }
+
+    @Override
+    public synchronized int insertGames(Iterable<Game> games) {
+        int inserted = 0;
+        for (Game g : games) {
+            // skip games we already have; DerbyGameStore skips them too,
+            // by inserting a rejected batch again one row at a time
+            if (!byId.containsKey(g.getID())) {
+                byId.put(g.getID(), g);
+                queues.get(g.getDifficulty()).add(g);
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public synchronized int count() {
+        return byId.size();
+    }
+
+    @Override
+    public synchronized Game getGame(int id) {
+        return byId.get(id);
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+}
@@ -1,51 +1,183 @@
 package edu.doane.sudoku.persistence;
 
+import edu.doane.sudoku.metrics.Counter;
+import edu.doane.sudoku.metrics.FeedFetchEvent;
+import edu.doane.sudoku.metrics.Histogram;
+import edu.doane.sudoku.metrics.Metrics;
+import edu.doane.sudoku.model.Difficulty;
 import edu.doane.sudoku.model.Game;
 import edu.doane.sudoku.model.GameGrid;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.sql.*;
-import java.util.Properties;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Singleton class implementing the persistence functionality used by SuDoKu
  * applications. The instance of this class serves as a connection to the cloud,
  * where the large repository of games is stored, and a manager for a local
- * Apache Derby database holding games, high scores, etc.
+ * GameStore holding games that haven't been played yet. The kind of store
+ * is chosen by the "store" setting in DoaneSuDoKu.ini.
  *
  * @author Mark M. Meysenburg
  * @version 01/11/2018
  */
-public class Persistence {
+public class Persistence implements SuDoKuPersistence {
 
     /**
      * Reference to the single instance of the class that's allowed to exist.
      */
     private static Persistence instance = null;
 
+    /**
+     * Number of games claimed from the store at a time for each difficulty.
+     */
+    private static final int PREFETCH_SIZE = 8;
+
+    /**
+     * Time taken by getNextGame(), including any refill and restock.
+     */
+    private static final Histogram NEXT_GAME_TIME = Metrics.histogram("persistence.getNextGame");
+
+    /**
+     * Time taken by each restock from the cloud.
+     */
+    private static final Histogram FETCH_TIME = Metrics.histogram("persistence.fetchFromCloud");
+
+    /**
+     * Games added to the store from the cloud.
+     */
+    private static final Counter GAMES_FETCHED = Metrics.counter("persistence.gamesFetched");
+
     /**
      * URL of JSON array holding games. Value is read from the .ini file
      * when the class is instantiated.
      */
     private String sJSON_URL;
 
+    /**
+     * Name of the local game store to use: "derby", "memory", "file", or
+     * "bank".
+     * Value is read from the .ini file when the class is instantiated, and
+     * defaults to "derby".
+     */
+    private String sStoreType = "derby";
+
+    /**
+     * How games are fetched from the cloud: "full" downloads the entire feed
+     * every time, "delta" downloads only games newer than the ones we've
+     * already received. Value is read from the .ini file when the class is
+     * instantiated, and defaults to "full".
+     */
+    private String sSyncMode = "full";
+
+    /**
+     * Address of the puzzle server, as "host:port", used when the store is
+     * "remote". Read from the "server" setting in the .ini file.
+     */
+    private String sServer = "localhost";
+
+    /**
+     * Restock from the cloud once the store holds this many un-played games
+     * or fewer. Read from the "lowwater" setting in the .ini file.
+     */
+    private int lowWatermark = 0;
+
+    /**
+     * Local store holding the games that haven't been played yet.
+     */
+    private GameStore store;
+
+    /**
+     * Number of un-played games in the store. Counted once when the store
+     * is opened, then kept up to date as games are inserted and claimed, so
+     * the store never has to be asked again.
+     */
+    private final AtomicInteger remaining = new AtomicInteger();
+
+    /**
+     * Set when restocking from the cloud found nothing new, so we don't try
+     * again every time a game is claimed; cleared when the store runs out.
+     */
+    private boolean cloudDry = false;
+
+    /**
+     * Incremental feed synchronizer, used when the sync mode is "delta".
+     */
+    private FeedSync feedSync;
+
+    /**
+     * Store for the results of completed games; created when first needed.
+     */
+    private ResultStore results;
+
+    /**
+     * Games already claimed from the store, one queue per difficulty,
+     * created when that difficulty is first asked for. The queue for games
+     * of any difficulty is stored under the null key.
+     */
+    private final HashMap<Difficulty, ArrayDeque<Game>> prefetch = new HashMap<>();
+
+    /**
+     * How long each part of the constructor took, in milliseconds, in the
+     * order the parts ran.
+     */
+    private final LinkedHashMap<String, Long> startupMillis = new LinkedHashMap<>();
+
     /**
      * Private default constructor. Prevents the class from being instantiated
      * from the outside.
      */
     private Persistence() {
+        long t = System.nanoTime();
         loadSettings();
-        loadDatabaseDriver();
-        if (!databaseExists()) {
-            createDatabaseTables();
+        t = timed("settings", t);
+
+        store = createStore(sStoreType, sServer);
+        if (sSyncMode.equals("delta")) {
+            feedSync = new FeedSync(sJSON_URL, "DoaneSuDoKu.sync");
+        }
+        remaining.set(store.count());
+        Metrics.gauge("persistence.remainingGames", remaining::get);
+        t = timed("store", t);
+
+        if (restocks() && remaining.get() <= lowWatermark) {
             fetchFromCloud();
+            timed("feed", t);
         }
+
+        // the queues are filled when a difficulty is first asked for;
+        // claimed games that are never played are lost when we exit, so
+        // don't claim games for difficulties nobody plays
+    }
+
+    /**
+     * Note how long one part of the constructor took.
+     *
+     * @param part  Name of the part.
+     * @param start System.nanoTime() when the part started.
+     * @return System.nanoTime() now, i.e., when the next part starts.
+     */
+    private long timed(String part, long start) {
+        long now = System.nanoTime();
+        startupMillis.put(part, (now - start) / 1_000_000);
+        return now;
     }
 
     /**
@@ -54,7 +186,7 @@ public class Persistence {
      * @return Reference to the single instance of the Persistence object that's
      * allowed to exist.
      */
-    public static Persistence getInstance() {
+    public static synchronized Persistence getInstance() {
         if (instance == null) {
             instance = new Persistence();
         }
@@ -63,119 +195,153 @@ public class Persistence {
     }
 
     /**
-     * Load the driver required to use the embedded Apache Derby local
-     * database. This method only needs to be called one time, before any
-     * connections to the database are attempted.
+     * Get how long each part of creating the instance took: reading the
+     * settings, opening the store, and downloading games from the cloud
+     * (if the store was empty).
+     *
+     * @return Milliseconds taken by each part, in the order they ran.
      */
-    private void loadDatabaseDriver() {
-        String driver = "org.apache.derby.jdbc.EmbeddedDriver";
-        try {
-            Class.forName(driver).newInstance();
-        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException ex) {
-            System.err.println("Cannot load embedded Derby driver! Exiting!");
-            System.err.println(ex.toString());
-            System.exit(-1);
-        }
+    public Map<String, Long> getStartupMillis() {
+        return new LinkedHashMap<>(startupMillis);
     }
 
     /**
-     * Determine if the local Derby database already exists.
+     * Get the game bundled with the application, which can be played while
+     * the local store and the cloud are still being set up.
      *
-     * @return True if the database exists, false if it does not.
+     * @return Bundled game, or null if it can't be read.
      */
-    private boolean databaseExists() {
-        boolean databaseExists = false;
-
-        try {
-            // connect to database, creating it if need be
-            Properties props = new Properties();
-            Connection conn = DriverManager.getConnection("jdbc:derby:"
-                    + "SuDoKuDB;create=true", props);
-
-            // see if the GAME table already exists; if it does, the database
-            // was already in existence
-            DatabaseMetaData metadata = conn.getMetaData();
-            String[] names = {"TABLE"};
-            ResultSet tableNames = metadata.getTables(null, null, null, names);
-            while (tableNames.next()) {
-                String tab = tableNames.getString("TABLE_NAME");
-                if (tab.equalsIgnoreCase("GAME")) {
-                    databaseExists = true;
-                }
-            }
-
-            // close database connection
-            conn.close();
+    public static Game getBundledGame() {
+        InputStream in = ClassLoader.getSystemResourceAsStream("resources/games/first-game.txt");
+        if (in == null) {
+            return null;
+        }
 
-        } catch (SQLException ex) {
-            System.err.println("Can't verify existence of Derby database! "
-                    + "Exiting!");
+        try (BufferedReader rd = new BufferedReader(new InputStreamReader(in,
+                StandardCharsets.US_ASCII))) {
+            return FlatFileGameStore.parseGame(rd.readLine().trim());
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Cannot read bundled game!");
             System.err.println(ex.toString());
-            System.exit(-1);
+            return null;
         }
+    }
 
-        return databaseExists;
+    /**
+     * Create the local game store named in the .ini file. A "remote" store
+     * connects to a puzzle server on this machine.
+     *
+     * @param type Type of store: "derby", "memory", "file", "bank", or
+     *             "remote".
+     * @return New GameStore of the requested type.
+     */
+    public static GameStore createStore(String type) {
+        return createStore(type, "localhost");
     }
 
     /**
-     * Create tables in a newly created, empty local Derby database.
+     * Create the game store named in the .ini file.
+     *
+     * @param type   Type of store: "derby", "memory", "file", "bank", or
+     *               "remote".
+     * @param server Address of the puzzle server, as "host:port"; only used
+     *               by "remote" stores.
+     * @return New GameStore of the requested type.
      */
-    private void createDatabaseTables() {
-        try {
-            // connect to the database
-            Properties props = new Properties();
-            Connection conn = DriverManager.getConnection("jdbc:derby:"
-                    + "SuDoKuDB", props);
-
-            // make the game table
-            Statement s = conn.createStatement();
-            s.execute("CREATE TABLE GAME(GAME_ID INTEGER, "
-                    + "GAME_DATA CHAR(81) NOT NULL UNIQUE, "
-                    + "SOLVED_GAME_DATA CHAR(81) NOT NULL UNIQUE, "
-                    + "PRIMARY KEY(GAME_ID))");
-
-            // close database connection
-            conn.close();
-
-        } catch (SQLException ex) {
-            System.err.println("Can't create database tables! Exiting!");
-            System.err.println(ex.toString());
-            System.exit(-1);
+    public static GameStore createStore(String type, String server) {
+        switch (type) {
+            case "remote":
+                return new RemoteGameStore(server);
+            case "memory":
+                return new MemoryGameStore();
+            case "file":
+                return new FlatFileGameStore("SuDoKuGames.txt");
+            case "bank":
+                return new PuzzleBank("SuDoKuBank.dat");
+            case "derby":
+                return new DerbyGameStore();
+            default:
+                System.err.println("Unknown game store \"" + type
+                        + "\" in DoaneSuDoKu.ini! Exiting!");
+                System.exit(-1);
+                return null;
         }
+    }
 
+    /**
+     * Get the store holding the results of completed games.
+     *
+     * @return ResultStore for completed games.
+     */
+    public synchronized ResultStore getResults() {
+        if (results == null) {
+            results = new ResultStore();
+        }
+
+        return results;
+    }
+
+    @Override
+    public void recordResult(int gameId, Difficulty difficulty, long millis, int hints,
+            int mistakes) {
+        getResults().record(gameId, difficulty, millis, hints, mistakes);
     }
 
     /**
-     * Determine if the GAME table of the local Derby database is empty
-     * or not.
+     * Determine if the local game store is empty or not.
      *
-     * @return True if the GAME table is empty, false otherwise.
+     * @return True if the local game store is empty, false otherwise.
      */
     public boolean gameTableEmpty() {
-        boolean isEmpty = false;
+        return remaining.get() == 0;
+    }
 
-        try {
-            // connect to the database
-            Properties props = new Properties();
-            Connection conn = DriverManager.getConnection("jdbc:derby:SuDoKuDB", props);
-
-            // query to determine number of database elements
-            Statement s = conn.createStatement();
-            ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM GAME");
-            rs.next();
-            if (rs.getInt(1) == 0) {
-                isEmpty = true;
-            }
+    /**
+     * Get the number of un-played games in the local store, not counting
+     * games already claimed for the prefetch queues.
+     *
+     * @return Number of un-played games in the store.
+     */
+    public int getRemainingGames() {
+        return remaining.get();
+    }
 
-            // close database connection
-            conn.close();
+    /**
+     * Determine if this instance restocks its store from the cloud. A
+     * remote store is restocked by the puzzle server instead.
+     *
+     * @return True if the store is restocked from the cloud.
+     */
+    private boolean restocks() {
+        return !sStoreType.equals("remote");
+    }
 
-        } catch (SQLException ex) {
-            System.err.println("Cannot determine if GAME table is empty!");
-        }
+    /**
+     * Get a game that hasn't been played yet by its ID.
+     *
+     * @param id GAME_ID of the game.
+     * @return The game, or null if there is no un-played game with that ID.
+     */
+    public Game getGame(int id) {
+        return store.getGame(id);
+    }
 
-        // send back the result
-        return isEmpty;
+    /**
+     * Get several games that haven't been played yet, as one atomic claim;
+     * no other caller can be handed any of them.
+     *
+     * @param difficulty Difficulty of the games to get, or null for any
+     *                   difficulty.
+     * @param max        Most games to get.
+     * @return Up to max games; fewer only if the games have run out.
+     */
+    public synchronized List<Game> getNextGames(Difficulty difficulty, int max) {
+        ArrayList<Game> games = new ArrayList<>(max);
+        Game g;
+        while (games.size() < max && (g = getNextGame(difficulty)) != null) {
+            games.add(g);
+        }
+        return games;
     }
 
     /**
@@ -184,80 +350,236 @@ public class Persistence {
      * @return Game object representing the next un-played game
      */
     public Game getNextGame() {
-        Game g = null;
+        return getNextGame(null);
+    }
 
-        try {
-            // connect to the database
-            Properties props = new Properties();
-            Connection conn = DriverManager.getConnection("jdbc:derby:SuDoKuDB", props);
-
-            // fetch next game
-            Statement s = conn.createStatement();
-            ResultSet rs = s.executeQuery("SELECT * FROM GAME FETCH FIRST ROW ONLY");
-            rs.next();
-            g = new Game(rs.getInt(1),
-                    new GameGrid(rs.getString(2)),
-                    new GameGrid(rs.getString(3)));
-
-            // remove the game we're fixing to return
-            s.execute("DELETE FROM GAME WHERE GAME_ID = " + g.getID());
-
-            // close database connection
-            conn.close();
-
-            // have we exhausted all the games?
-            if (gameTableEmpty()) {
-                // if so, restock
-                fetchFromCloud();
+    /**
+     * Get the next game of a particular difficulty that hasn't been played
+     * yet. If there are no games of that difficulty, a game of any
+     * difficulty is returned instead.
+     *
+     * @param difficulty Difficulty of the game to get, or null for any
+     *                   difficulty.
+     * @return Game object representing the next un-played game
+     */
+    @Override
+    public synchronized Game getNextGame(Difficulty difficulty) {
+        long start = System.nanoTime();
+        Game g = nextGame(difficulty);
+        NEXT_GAME_TIME.recordSince(start);
+        return g;
+    }
+
+    @Override
+    public synchronized Game pollClaimedGame() {
+        // games of any difficulty first, then whatever is waiting
+        ArrayDeque<Game> any = prefetch.get(null);
+        if (any != null && !any.isEmpty()) {
+            return any.poll();
+        }
+        for (ArrayDeque<Game> queue : prefetch.values()) {
+            if (!queue.isEmpty()) {
+                return queue.poll();
             }
+        }
+        return null;
+    }
 
-        } catch (SQLException ex) {
-            System.err.println("Cannot connect to local Derby database in getNextGame()!");
+    /**
+     * Get the next game of a particular difficulty, or of any difficulty if
+     * there are none of that difficulty. Must be called holding the lock.
+     *
+     * @param difficulty Difficulty of the game to get, or null for any
+     *                   difficulty.
+     * @return Game object representing the next un-played game
+     */
+    private Game nextGame(Difficulty difficulty) {
+        ArrayDeque<Game> queue = prefetch.get(difficulty);
+        if (queue == null || queue.isEmpty()) {
+            queue = refillQueue(difficulty);
         }
+
+        Game g = queue.poll();
+        if (g == null && difficulty != null) {
+            // nothing of the requested difficulty; settle for anything
+            return nextGame(null);
+        }
+
         return g;
     }
 
+    /**
+     * Claim another batch of games of a particular difficulty from the
+     * store, restocking from the cloud once the store gets down to the low
+     * watermark.
+     *
+     * @param difficulty Difficulty of the games to claim, or null for any
+     *                   difficulty.
+     * @return The refilled queue for that difficulty.
+     */
+    private ArrayDeque<Game> refillQueue(Difficulty difficulty) {
+        ArrayDeque<Game> queue = prefetch.computeIfAbsent(difficulty, d -> new ArrayDeque<>());
+        claim(queue, difficulty);
+
+        // are we running low on games?
+        if (remaining.get() == 0) {
+            cloudDry = false;
+        }
+        if (restocks() && remaining.get() <= lowWatermark && !cloudDry) {
+            // if so, restock
+            cloudDry = fetchFromCloud() == 0;
+
+            // if the store was already empty, try again with the new games
+            if (queue.isEmpty()) {
+                claim(queue, difficulty);
+            }
+        }
+
+        return queue;
+    }
+
+    /**
+     * Claim games from the store into a prefetch queue, keeping the count of
+     * remaining games up to date.
+     *
+     * @param queue      Queue to add the claimed games to.
+     * @param difficulty Difficulty of the games to claim, or null for any
+     *                   difficulty.
+     */
+    private void claim(ArrayDeque<Game> queue, Difficulty difficulty) {
+        List<Game> games = store.nextGames(difficulty, PREFETCH_SIZE);
+        queue.addAll(games);
+
+        // never let a miscount go negative; that would stop restocking
+        remaining.updateAndGet(n -> Math.max(0, n - games.size()));
+    }
+
+    /**
+     * Convert one object from the cloud's JSON array of games into a Game.
+     * The DIFFICULTY field is optional, and may be either a difficulty code
+     * or name; games without one are rated from their initial grid.
+     *
+     * @param j JSON object holding GAME_ID, GAME_DATA, SOLVED_GAME_DATA and,
+     *          optionally, DIFFICULTY.
+     * @return Game represented by the object.
+     * @throws JSONException If a required field is missing.
+     */
+    static Game gameFromJson(JSONObject j) throws JSONException {
+        GameGrid initial = new GameGrid(j.getString("GAME_DATA"));
+        GameGrid solved = new GameGrid(j.getString("SOLVED_GAME_DATA"));
+
+        Difficulty difficulty = null;
+        Object o = j.opt("DIFFICULTY");
+        if (o instanceof Number) {
+            difficulty = Difficulty.fromCode(((Number) o).intValue());
+        } else if (o != null) {
+            difficulty = Difficulty.parse(o.toString());
+        }
+        if (difficulty == null) {
+            difficulty = Difficulty.rate(initial);
+        }
+
+        return new Game(j.getInt("GAME_ID"), initial, solved, difficulty);
+    }
+
     /**
      * Retrieve a large set of SuDoKu games from the cloud. The games are
-     * read as a JSON array and then placed into the local database GAME
-     * table.
+     * read as a JSON array and then placed into the local game store.
+     *
+     * @return Number of games added to the store.
+     */
+    private int fetchFromCloud() {
+        long start = System.nanoTime();
+        int added = feedSync != null ? deltaFetchFromCloud() : fullFetchFromCloud();
+        FETCH_TIME.recordSince(start);
+        GAMES_FETCHED.add(added);
+        return added;
+    }
+
+    /**
+     * Retrieve the entire feed from the cloud, adding the games we don't
+     * already have to the local store.
+     *
+     * @return Number of games added to the store.
      */
-    private void fetchFromCloud() {
+    private int fullFetchFromCloud() {
+        int added = 0;
+        FeedFetchEvent event = new FeedFetchEvent();
+        event.begin();
 
         try {
             // read JSON array containing games from the cloud
-            JSONArray jarr = JsonReader.readJsonArrFromUrl(sJSON_URL);
-
-            // connect to the database
-            Properties props = new Properties();
-            Connection conn = DriverManager.getConnection("jdbc:derby:"
-                    + "SuDoKuDB", props);
+            CountingInputStream in = new CountingInputStream(new URL(sJSON_URL).openStream());
+            JSONArray jarr = JsonReader.readJsonArr(in);
 
-            // create a prepared statement that inserts into the game table
-            PreparedStatement ps = conn.prepareStatement("INSERT INTO GAME "
-                    + "VALUES(?, ?, ?)");
-
-            // iterate through all of the objects in the JSON array
+            // convert each of the objects in the JSON array to a game
+            ArrayList<Game> games = new ArrayList<>(jarr.length());
             for (Object o : jarr) {
-                JSONObject j = (JSONObject) o;
+                games.add(gameFromJson((JSONObject) o));
+            }
 
-                // set parameters in the prepared statement
-                ps.setInt(1, j.getInt("GAME_ID"));
-                ps.setString(2, j.getString("GAME_DATA"));
-                ps.setString(3, j.getString("SOLVED_GAME_DATA"));
+            // add the games to the local store; games already there are
+            // skipped
+            added = store.insertGames(games);
+            remaining.addAndGet(added);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.url = sJSON_URL;
+                event.mode = "full";
+                event.bytes = in.getCount();
+                event.rows = games.size();
+                event.added = added;
+                event.commit();
+            }
 
-                // add the row!
-                ps.executeUpdate();
+        } catch (IOException | JSONException ex) {
+            System.err.println("Cannot access JSON object from cloud!");
+            System.err.println(ex.toString());
+
+            // with no games at all there is nothing we can do
+            if (remaining.get() == 0) {
+                System.err.println("No games available! Exiting!");
+                System.exit(-1);
             }
+        }
 
-            // close database connection
-            conn.close();
+        return added;
+    }
 
-        } catch (IOException | JSONException | SQLException ex) {
-            System.err.println("Cannot access JSON object from cloud! Exiting!");
+    /**
+     * Retrieve only the games we haven't already received from the cloud.
+     * If the feed has nothing new and we're out of games, start over with
+     * the entire feed, so games are recycled just as with a full fetch.
+     *
+     * @return Number of games added to the store.
+     */
+    private int deltaFetchFromCloud() {
+        int added = 0;
+
+        try {
+            added = feedSync.sync(store);
+            remaining.addAndGet(added);
+
+            if (remaining.get() == 0) {
+                feedSync.reset();
+                int again = feedSync.sync(store);
+                remaining.addAndGet(again);
+                added += again;
+            }
+
+        } catch (IOException ex) {
+            System.err.println("Cannot synchronize games from cloud!");
             System.err.println(ex.toString());
-            System.exit(-1);
+
+            // with no games at all there is nothing we can do
+            if (remaining.get() == 0) {
+                System.err.println("No games available! Exiting!");
+                System.exit(-1);
+            }
         }
+
+        return added;
     }
 
     /**
@@ -277,6 +599,20 @@ public class Persistence {
                     // make assignments based on label 
                     if (label.equals("url")) {
                         sJSON_URL = value;
+                    } else if (label.equals("store")) {
+                        sStoreType = value;
+                    } else if (label.equals("sync")) {
+                        sSyncMode = value;
+                    } else if (label.equals("server")) {
+                        sServer = value;
+                    } else if (label.equals("lowwater")) {
+                        try {
+                            lowWatermark = Math.max(0, Integer.parseInt(value));
+                        } catch (NumberFormatException ex) {
+                            System.err.println("Bad lowwater value \"" + value
+                                    + "\" in DoaneSuDoKu.ini; using "
+                                    + lowWatermark + ".");
+                        }
                     }
                 } // while
 
@@ -0,0 +1,325 @@
+package edu.doane.sudoku.persistence;
+
+import java.util.Arrays;
+
+/**
+ * Running aggregate of how players got on with one puzzle, built by
+ * replaying session logs: how many sessions played it, how many were won
+ * or given up, the solve times of the wins, hints taken, how long players
+ * thought before filling each cell correctly, and the wrong numbers they
+ * played. Aggregates built from different logs can be added together.
+ * <p>
+ * Not thread-safe; each replay thread builds its own aggregates, and they
+ * are combined afterward.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class PuzzleAnalytics {
+
+    /**
+     * Number of stall cells and wrong entries reported.
+     */
+    public static final int TOP = 3;
+
+    /**
+     * GAME_ID of the puzzle.
+     */
+    private final int gameId;
+
+    /**
+     * Number of sessions that played the puzzle.
+     */
+    private int sessions;
+
+    /**
+     * Number of sessions in which the player gave up.
+     */
+    private int quits;
+
+    /**
+     * Hints taken in all sessions.
+     */
+    private long hints;
+
+    /**
+     * Solve times, hints and mistakes of the sessions that were won.
+     */
+    private final ResultStats solves = new ResultStats();
+
+    /**
+     * Total time spent before each cell was filled correctly, in
+     * milliseconds, by cell (row * 9 + col).
+     */
+    private final long[] thinkMillis = new long[81];
+
+    /**
+     * Number of times each cell was filled correctly.
+     */
+    private final int[] thinkCount = new int[81];
+
+    /**
+     * Times each wrong number was played in each cell, at cell * 9 +
+     * number - 1; null until the first wrong number.
+     */
+    private int[] wrong;
+
+    /**
+     * Create an empty aggregate.
+     *
+     * @param gameId GAME_ID of the puzzle.
+     */
+    public PuzzleAnalytics(int gameId) {
+        this.gameId = gameId;
+    }
+
+    /**
+     * Count a session starting on the puzzle.
+     */
+    public void addSession() {
+        sessions++;
+    }
+
+    /**
+     * Count a hint taken.
+     */
+    public void addHint() {
+        hints++;
+    }
+
+    /**
+     * Count a session in which the player gave up.
+     */
+    public void addQuit() {
+        quits++;
+    }
+
+    /**
+     * Count a session that was won.
+     *
+     * @param millis   Time on the session's clock when it was won.
+     * @param hints    Hints taken in the session.
+     * @param mistakes Wrong numbers played in the session.
+     */
+    public void addSolve(long millis, int hints, int mistakes) {
+        solves.add(millis, hints, mistakes);
+    }
+
+    /**
+     * Count a cell being filled correctly.
+     *
+     * @param cell   Cell (row * 9 + col).
+     * @param millis Time since the player's previous move, in
+     *               milliseconds.
+     */
+    public void addThink(int cell, long millis) {
+        thinkMillis[cell] += millis;
+        thinkCount[cell]++;
+    }
+
+    /**
+     * Count a wrong number being played.
+     *
+     * @param cell   Cell (row * 9 + col).
+     * @param number Number played, in [1, 9].
+     */
+    public void addWrong(int cell, int number) {
+        if (wrong == null) {
+            wrong = new int[81 * 9];
+        }
+        wrong[cell * 9 + number - 1]++;
+    }
+
+    /**
+     * Add everything counted by another aggregate for the same puzzle.
+     *
+     * @param other Aggregate to add; not changed.
+     */
+    public void addAll(PuzzleAnalytics other) {
+        sessions += other.sessions;
+        quits += other.quits;
+        hints += other.hints;
+        solves.addAll(other.solves);
+        for (int i = 0; i < 81; i++) {
+            thinkMillis[i] += other.thinkMillis[i];
+            thinkCount[i] += other.thinkCount[i];
+        }
+        if (other.wrong != null) {
+            if (wrong == null) {
+                wrong = new int[81 * 9];
+            }
+            for (int i = 0; i < wrong.length; i++) {
+                wrong[i] += other.wrong[i];
+            }
+        }
+    }
+
+    /**
+     * Get the GAME_ID of the puzzle.
+     *
+     * @return GAME_ID.
+     */
+    public int getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Get the number of sessions that played the puzzle.
+     *
+     * @return Number of sessions.
+     */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Get the number of sessions that were won.
+     *
+     * @return Number of wins.
+     */
+    public int getSolved() {
+        return (int) solves.getCount();
+    }
+
+    /**
+     * Get the number of sessions in which the player gave up.
+     *
+     * @return Number of quits.
+     */
+    public int getQuits() {
+        return quits;
+    }
+
+    /**
+     * Get the median solve time of the sessions that were won.
+     *
+     * @return Approximate median, in milliseconds, or 0 if none were won.
+     */
+    public long getMedianMillis() {
+        return solves.getPercentileMillis(0.5);
+    }
+
+    /**
+     * Get the mean number of hints taken per session.
+     *
+     * @return Hints per session, or 0 if there were no sessions.
+     */
+    public double getHintRate() {
+        return sessions == 0 ? 0 : (double) hints / sessions;
+    }
+
+    /**
+     * Find the cells players thought longest about, on average, before
+     * filling them correctly.
+     *
+     * @return Up to TOP cells (row * 9 + col), longest first.
+     */
+    public int[] getStallCells() {
+        double[] mean = new double[81];
+        for (int i = 0; i < 81; i++) {
+            mean[i] = thinkCount[i] == 0 ? -1 : (double) thinkMillis[i] / thinkCount[i];
+        }
+        return top(mean);
+    }
+
+    /**
+     * Get the mean time spent before a cell was filled correctly.
+     *
+     * @param cell Cell (row * 9 + col).
+     * @return Mean time in milliseconds, or 0 if it never was.
+     */
+    public long getMeanThinkMillis(int cell) {
+        return thinkCount[cell] == 0 ? 0 : thinkMillis[cell] / thinkCount[cell];
+    }
+
+    /**
+     * Find the wrong numbers played most often.
+     *
+     * @return Up to TOP entries, most common first, each cell * 9 +
+     * number - 1.
+     */
+    public int[] getCommonWrongEntries() {
+        if (wrong == null) {
+            return new int[0];
+        }
+        double[] counts = new double[wrong.length];
+        for (int i = 0; i < wrong.length; i++) {
+            counts[i] = wrong[i] == 0 ? -1 : wrong[i];
+        }
+        return top(counts);
+    }
+
+    /**
+     * Get the number of times a wrong number was played in a cell.
+     *
+     * @param entry Entry, cell * 9 + number - 1.
+     * @return Number of times it was played.
+     */
+    public int getWrongCount(int entry) {
+        return wrong == null ? 0 : wrong[entry];
+    }
+
+    /**
+     * Encode the stall cells as "cell:meanMillis" pairs separated by
+     * commas, for storing in the database.
+     *
+     * @return Encoded stall cells.
+     */
+    String encodeStallCells() {
+        StringBuilder sb = new StringBuilder();
+        for (int cell : getStallCells()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(cell).append(':').append(getMeanThinkMillis(cell));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Encode the common wrong entries as "cell:number:count" triples
+     * separated by commas, for storing in the database.
+     *
+     * @return Encoded wrong entries.
+     */
+    String encodeWrongEntries() {
+        StringBuilder sb = new StringBuilder();
+        for (int entry : getCommonWrongEntries()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(entry / 9).append(':').append(entry % 9 + 1).append(':')
+                    .append(wrong[entry]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Find the indexes of the largest values, ignoring negative ones.
+     *
+     * @param values Values to rank.
+     * @return Up to TOP indexes, largest value first.
+     */
+    private static int[] top(double[] values) {
+        int[] best = new int[TOP];
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] < 0) {
+                continue;
+            }
+
+            // insertion into the short sorted list
+            int pos = n < TOP ? n++ : TOP;
+            while (pos > 0 && values[best[pos - 1]] < values[i]) {
+                if (pos < TOP) {
+                    best[pos] = best[pos - 1];
+                }
+                pos--;
+            }
+            if (pos < TOP) {
+                best[pos] = i;
+            }
+        }
+        return Arrays.copyOf(best, n);
+    }
+}
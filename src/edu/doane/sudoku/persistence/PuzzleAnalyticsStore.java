@@ -0,0 +1,113 @@
+package edu.doane.sudoku.persistence;
+
+import java.sql.*;
+import java.util.Collection;
+
+/**
+ * Store for per-puzzle analytics built by replaying session logs, kept in
+ * the PUZZLE_ANALYTICS table of the embedded Apache Derby database
+ * SuDoKuDB. Each row covers one puzzle over one period, e.g., the day of
+ * play in the logs written between two log rotations, so a period's rows
+ * come from replaying just that period's logs; writing a period again
+ * replaces its rows, so a replay can safely be run twice.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class PuzzleAnalyticsStore {
+
+    /**
+     * Number of rows inserted per transaction.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Create the store, loading the Derby driver and creating the
+     * PUZZLE_ANALYTICS table if it does not already exist.
+     */
+    public PuzzleAnalyticsStore() {
+        DerbyDatabase.loadDriver();
+        createTable();
+    }
+
+    /**
+     * Write the analytics for a period, replacing any already written for
+     * it.
+     *
+     * @param period    Label of the period, e.g., "2026-10-19"; at most 32
+     *                  characters.
+     * @param analytics Analytics of each puzzle played in the period.
+     * @return Number of rows written.
+     * @throws SQLException If the rows can't be written; the period is
+     *                      then left as it was.
+     */
+    public int write(String period, Collection<PuzzleAnalytics> analytics) throws SQLException {
+        int written = 0;
+
+        try (Connection conn = DerbyDatabase.connect()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement("DELETE FROM "
+                    + "PUZZLE_ANALYTICS WHERE PERIOD = ?");
+                 PreparedStatement insert = conn.prepareStatement("INSERT INTO "
+                         + "PUZZLE_ANALYTICS(PERIOD, GAME_ID, SESSIONS, SOLVED, QUITS, "
+                         + "MEDIAN_MS, HINT_RATE, STALL_CELLS, WRONG_ENTRIES) "
+                         + "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                delete.setString(1, period);
+                delete.executeUpdate();
+
+                for (PuzzleAnalytics a : analytics) {
+                    insert.setString(1, period);
+                    insert.setInt(2, a.getGameId());
+                    insert.setInt(3, a.getSessions());
+                    insert.setInt(4, a.getSolved());
+                    insert.setInt(5, a.getQuits());
+                    insert.setLong(6, a.getMedianMillis());
+                    insert.setDouble(7, a.getHintRate());
+                    insert.setString(8, a.encodeStallCells());
+                    insert.setString(9, a.encodeWrongEntries());
+                    insert.addBatch();
+                    if (++written % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+
+                // the whole period in one transaction, so readers never
+                // see it half replaced
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            }
+        }
+
+        return written;
+    }
+
+    /**
+     * Create the PUZZLE_ANALYTICS table if it does not already exist.
+     */
+    private void createTable() {
+        try (Connection conn = DerbyDatabase.connect();
+             Statement s = conn.createStatement()) {
+
+            if (!DerbyDatabase.tableExists(conn, "PUZZLE_ANALYTICS")) {
+                s.execute("CREATE TABLE PUZZLE_ANALYTICS(PERIOD VARCHAR(32) NOT NULL, "
+                        + "GAME_ID INTEGER NOT NULL, "
+                        + "SESSIONS INTEGER NOT NULL, "
+                        + "SOLVED INTEGER NOT NULL, "
+                        + "QUITS INTEGER NOT NULL, "
+                        + "MEDIAN_MS BIGINT NOT NULL, "
+                        + "HINT_RATE DOUBLE NOT NULL, "
+                        + "STALL_CELLS VARCHAR(128) NOT NULL, "
+                        + "WRONG_ENTRIES VARCHAR(128) NOT NULL, "
+                        + "PRIMARY KEY(PERIOD, GAME_ID))");
+            }
+
+        } catch (SQLException ex) {
+            System.err.println("Can't create puzzle analytics table! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+import edu.doane.sudoku.model.GameGrid;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only GameStore backed by a memory-mapped puzzle bank file, as written
+ * by PuzzleBankBuilder. The file is a 32-byte header followed by fixed-width
+ * 88-byte records, so the location of game N is computed rather than
+ * searched for, and nothing is parsed or held on the heap except the grids
+ * of the games actually handed out.
+ * <p>
+ * Header layout: magic number (int), format version (int), record size
+ * (int), flags (int), record count (long), and 8 reserved bytes.
+ * <p>
+ * Record layout: GAME_ID (int), initial grid (41 bytes), solved grid (41
+ * bytes), difficulty code (1 byte), and 1 reserved byte. Grids are packed
+ * two cells per byte, high nibble first, in row-major order.
+ * <p>
+ * Like FlatFileGameStore, the index of the next un-played game is kept in a
+ * companion cursor file. Games are served in record order, without regard
+ * to difficulty. New games can't be inserted; build a new bank instead.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class PuzzleBank implements GameStore {
+
+    /**
+     * Magic number at the start of every bank file: "SDKB".
+     */
+    static final int MAGIC = 0x53444B42;
+
+    /**
+     * Version of the file format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the file header, in bytes.
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * Size of each record, in bytes.
+     */
+    static final int RECORD_SIZE = 88;
+
+    /**
+     * Size of a packed grid, in bytes.
+     */
+    static final int PACKED_GRID_SIZE = 41;
+
+    /**
+     * Offset of the difficulty code within a record.
+     */
+    static final int DIFFICULTY_OFFSET = 4 + 2 * PACKED_GRID_SIZE;
+
+    /**
+     * Header flag set when records are in ascending GAME_ID order.
+     */
+    static final int FLAG_SORTED = 1;
+
+    /**
+     * Number of records in each mapped segment. A single MappedByteBuffer
+     * can't exceed 2 GB, so large banks are mapped in several pieces.
+     */
+    private static final int RECORDS_PER_SEGMENT = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    /**
+     * Mapped segments of the file's records.
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Number of records in the bank.
+     */
+    private final long size;
+
+    /**
+     * True if the records are sorted by GAME_ID, allowing binary search.
+     */
+    private final boolean sorted;
+
+    /**
+     * File holding the index of the next un-played record.
+     */
+    private final File cursorFile;
+
+    /**
+     * Index of the next un-played record.
+     */
+    private long cursor;
+
+    /**
+     * Open a puzzle bank file.
+     *
+     * @param fileName Name of the bank file. The cursor is kept in a file of
+     *                 the same name with ".pos" appended.
+     */
+    public PuzzleBank(String fileName) {
+        cursorFile = new File(fileName + ".pos");
+
+        MappedByteBuffer[] segs = null;
+        long n = 0;
+        boolean isSorted = false;
+
+        try (RandomAccessFile raf = new RandomAccessFile(fileName, "r");
+             FileChannel channel = raf.getChannel()) {
+
+            // check the header
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC
+                    || header.getInt() != VERSION || header.getInt() != RECORD_SIZE) {
+                throw new IOException("not a puzzle bank file");
+            }
+            isSorted = (header.getInt() & FLAG_SORTED) != 0;
+            n = header.getLong();
+
+            // map the records; the mapping stays valid after the channel
+            // is closed
+            int segCount = (int) ((n + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            segs = new MappedByteBuffer[segCount];
+            for (int i = 0; i < segCount; i++) {
+                long first = (long) i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, n - first);
+                segs[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE);
+            }
+
+            cursor = readCursor();
+
+        } catch (IOException ex) {
+            System.err.println("Can't open puzzle bank " + fileName + "! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+
+        segments = segs;
+        size = n;
+        sorted = isSorted;
+    }
+
+    /**
+     * Get the number of records in the bank, played or not.
+     *
+     * @return Number of records in the bank.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Read the game stored in a particular record.
+     *
+     * @param n Index of the record, in [0, size()).
+     * @return Game stored in record n.
+     * @throws IndexOutOfBoundsException If n is not a valid record index.
+     */
+    public Game getRecord(long n) {
+        if (n < 0 || n >= size) {
+            throw new IndexOutOfBoundsException("Illegal record number in "
+                    + "PuzzleBank.getRecord(): " + n);
+        }
+
+        ByteBuffer seg = segments[(int) (n / RECORDS_PER_SEGMENT)];
+        int pos = (int) (n % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+
+        GameGrid initial = new GameGrid(unpack(seg, pos + 4));
+        Difficulty difficulty = Difficulty.fromCode(seg.get(pos + DIFFICULTY_OFFSET));
+        if (difficulty == null) {
+            difficulty = Difficulty.rate(initial);
+        }
+
+        return new Game(seg.getInt(pos), initial,
+                new GameGrid(unpack(seg, pos + 4 + PACKED_GRID_SIZE)), difficulty);
+    }
+
+    /**
+     * Read just the GAME_ID of a particular record.
+     *
+     * @param n Index of the record, in [0, size()).
+     * @return GAME_ID stored in record n.
+     */
+    private int getId(long n) {
+        ByteBuffer seg = segments[(int) (n / RECORDS_PER_SEGMENT)];
+        return seg.getInt((int) (n % RECORDS_PER_SEGMENT) * RECORD_SIZE);
+    }
+
+    @Override
+    public synchronized Game nextGame() {
+        if (cursor >= size) {
+            return null;
+        }
+
+        Game g = getRecord(cursor);
+        cursor++;
+        try {
+            writeCursor();
+        } catch (IOException ex) {
+            System.err.println("Cannot save puzzle bank cursor!");
+            System.err.println(ex.toString());
+        }
+        return g;
+    }
+
+    @Override
+    public synchronized List<Game> nextGames(Difficulty difficulty, int max) {
+        // records aren't indexed by difficulty, so just take the next ones
+        ArrayList<Game> games = new ArrayList<>(max);
+        Game g;
+        while (games.size() < max && (g = nextGame()) != null) {
+            games.add(g);
+        }
+        return games;
+    }
+
+    @Override
+    public int insertGames(Iterable<Game> games) {
+        System.err.println("Puzzle banks are read-only; use PuzzleBankBuilder "
+                + "to build a new bank.");
+        return 0;
+    }
+
+    @Override
+    public synchronized int count() {
+        return (int) Math.min(Integer.MAX_VALUE, size - cursor);
+    }
+
+    @Override
+    public synchronized Game getGame(int id) {
+        long lo = cursor;
+        long hi = size - 1;
+
+        if (sorted) {
+            // binary search over the un-played records
+            while (lo <= hi) {
+                long mid = (lo + hi) >>> 1;
+                int midId = getId(mid);
+                if (midId < id) {
+                    lo = mid + 1;
+                } else if (midId > id) {
+                    hi = mid - 1;
+                } else {
+                    return getRecord(mid);
+                }
+            }
+        } else {
+            // unsorted banks can only be scanned
+            for (long n = lo; n <= hi; n++) {
+                if (getId(n) == id) {
+                    return getRecord(n);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() {
+        // the mappings are released when the buffers are garbage collected
+    }
+
+    /**
+     * Pack an 81-character game data string into PACKED_GRID_SIZE bytes,
+     * two cells per byte.
+     *
+     * @param gameData 81-character game data string.
+     * @param dest     Buffer to write the packed grid to, at its current
+     *                 position.
+     */
+    static void pack(String gameData, ByteBuffer dest) {
+        for (int i = 0; i < 81; i += 2) {
+            int hi = gameData.charAt(i) - '0';
+            int lo = (i + 1 < 81) ? gameData.charAt(i + 1) - '0' : 0;
+            dest.put((byte) ((hi << 4) | lo));
+        }
+    }
+
+    /**
+     * Unpack a grid packed by pack() back into an 81-character game data
+     * string.
+     *
+     * @param src Buffer holding the packed grid.
+     * @param pos Absolute position of the packed grid in the buffer.
+     * @return 81-character game data string.
+     */
+    static String unpack(ByteBuffer src, int pos) {
+        char[] data = new char[81];
+        for (int i = 0; i < 81; i += 2) {
+            int b = src.get(pos + i / 2);
+            data[i] = (char) ('0' + ((b >> 4) & 0xF));
+            if (i + 1 < 81) {
+                data[i + 1] = (char) ('0' + (b & 0xF));
+            }
+        }
+        return new String(data);
+    }
+
+    /**
+     * Read the cursor from the cursor file.
+     *
+     * @return Index stored in the cursor file, or 0 if there is no cursor
+     * file yet.
+     * @throws IOException If the cursor file exists but can't be read.
+     */
+    private long readCursor() throws IOException {
+        if (!cursorFile.exists()) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(cursorFile))) {
+            return in.readLong();
+        } catch (EOFException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Save the cursor to the cursor file.
+     *
+     * @throws IOException If the cursor file can't be written.
+     */
+    private void writeCursor() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(cursorFile))) {
+            out.writeLong(cursor);
+        }
+    }
+}
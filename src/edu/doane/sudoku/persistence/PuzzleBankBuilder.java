@@ -0,0 +1,189 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Game;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Offline tool that builds a PuzzleBank file from a GAME.json feed. The feed
+ * is parsed one object at a time, so feeds far larger than the heap can be
+ * converted. If the feed isn't already in GAME_ID order, the records are
+ * sorted afterward so the bank supports binary search by ID.
+ * <p>
+ * Usage: java edu.doane.sudoku.persistence.PuzzleBankBuilder source bank
+ * where source is a URL or the name of a local GAME.json file, and bank is
+ * the name of the bank file to write.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class PuzzleBankBuilder {
+
+    /**
+     * Run the builder.
+     *
+     * @param args Command-line arguments, as described in the class comment.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: java edu.doane.sudoku.persistence.PuzzleBankBuilder "
+                    + "<GAME.json URL or file> <bank file>");
+            System.exit(-1);
+        }
+
+        try {
+            long start = System.nanoTime();
+            long n = build(args[0], new File(args[1]));
+            System.out.printf("Wrote %d games to %s in %.1f s%n", n, args[1],
+                    (System.nanoTime() - start) / 1e9);
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Cannot build puzzle bank!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Build a bank file from a GAME.json feed.
+     *
+     * @param source URL or local file name of the GAME.json feed.
+     * @param bank   Bank file to write.
+     * @return Number of games written to the bank.
+     * @throws IOException If the feed can't be read or the bank can't be
+     *                     written.
+     */
+    public static long build(String source, File bank) throws IOException {
+        InputStream is = source.contains("://") ? new URL(source).openStream()
+                : new FileInputStream(source);
+
+        long[] count = {0};
+        boolean[] sorted = {true};
+        int[] lastId = {Integer.MIN_VALUE};
+
+        try (Reader rd = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8), 1 << 16);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     new FileOutputStream(bank), 1 << 16))) {
+
+            // placeholder header; rewritten once we know the count
+            out.write(new byte[PuzzleBank.HEADER_SIZE]);
+
+            ByteBuffer record = ByteBuffer.allocate(PuzzleBank.RECORD_SIZE);
+            JsonReader.streamJsonArr(rd, j -> {
+                Game g = Persistence.gameFromJson(j);
+                int id = g.getID();
+
+                try {
+                    writeRecord(out, record, g);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+
+                if (id <= lastId[0]) {
+                    sorted[0] = false;
+                }
+                lastId[0] = id;
+                count[0]++;
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        writeHeader(bank, count[0], sorted[0]);
+
+        if (!sorted[0]) {
+            sortBank(bank, count[0]);
+        }
+
+        return count[0];
+    }
+
+    /**
+     * Write one game as a bank record.
+     *
+     * @param out    Stream to write the record to.
+     * @param record Scratch buffer of PuzzleBank.RECORD_SIZE bytes.
+     * @param g      Game to write.
+     * @throws IOException If the record can't be written.
+     */
+    static void writeRecord(DataOutputStream out, ByteBuffer record, Game g) throws IOException {
+        record.clear();
+        record.putInt(g.getID());
+        PuzzleBank.pack(g.getInitial().getGameData(), record);
+        PuzzleBank.pack(g.getSolved().getGameData(), record);
+        record.put((byte) g.getDifficulty().getCode());
+        out.write(record.array());
+    }
+
+    /**
+     * Write the header at the start of a bank file.
+     *
+     * @param bank   Bank file.
+     * @param count  Number of records in the bank.
+     * @param sorted True if the records are in GAME_ID order.
+     * @throws IOException If the file can't be written.
+     */
+    static void writeHeader(File bank, long count, boolean sorted) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PuzzleBank.HEADER_SIZE);
+        header.putInt(PuzzleBank.MAGIC);
+        header.putInt(PuzzleBank.VERSION);
+        header.putInt(PuzzleBank.RECORD_SIZE);
+        header.putInt(sorted ? PuzzleBank.FLAG_SORTED : 0);
+        header.putLong(count);
+        header.flip();
+
+        try (RandomAccessFile raf = new RandomAccessFile(bank, "rw")) {
+            raf.getChannel().write(header, 0);
+        }
+    }
+
+    /**
+     * Rewrite a bank file so its records are in GAME_ID order. Only the IDs
+     * and record numbers are held in memory, as one long per record.
+     *
+     * @param bank  Unsorted bank file.
+     * @param count Number of records in the bank.
+     * @throws IOException If the file can't be read or written.
+     */
+    private static void sortBank(File bank, long count) throws IOException {
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Too many unsorted records to sort: " + count);
+        }
+
+        File tmp = new File(bank.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(bank, "r");
+             FileChannel in = raf.getChannel();
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     new FileOutputStream(tmp), 1 << 16))) {
+
+            // key = id in the high half, record number in the low half, so
+            // sorting the keys sorts by id
+            long[] keys = new long[(int) count];
+            ByteBuffer id = ByteBuffer.allocate(4);
+            for (int n = 0; n < count; n++) {
+                id.clear();
+                in.read(id, PuzzleBank.HEADER_SIZE + (long) n * PuzzleBank.RECORD_SIZE);
+                keys[n] = ((long) id.getInt(0) << 32) | n;
+            }
+            Arrays.sort(keys);
+
+            out.write(new byte[PuzzleBank.HEADER_SIZE]);
+            byte[] record = new byte[PuzzleBank.RECORD_SIZE];
+            ByteBuffer buf = ByteBuffer.wrap(record);
+            for (long key : keys) {
+                buf.clear();
+                in.read(buf, PuzzleBank.HEADER_SIZE + (key & 0xFFFFFFFFL) * PuzzleBank.RECORD_SIZE);
+                out.write(record);
+            }
+        }
+
+        Files.move(tmp.toPath(), bank.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        writeHeader(bank, count, true);
+    }
+}
@@ -0,0 +1,265 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+import edu.doane.sudoku.model.GameGrid;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Puzzle server for running many desktop clients from one shared game
+ * store, e.g., in a lab. The server process owns the Persistence instance
+ * (and so the local store and the cloud feed, as set in its own
+ * DoaneSuDoKu.ini); clients set their store to "remote" and claim games
+ * through a RemoteGameStore instead of keeping their own database.
+ * <p>
+ * Each client keeps one connection open and sends one-line requests, each
+ * answered before the next is read:
+ * <pre>
+ * NEXT difficulty max  -&gt;  GAMES n, then n game lines
+ * COUNT                -&gt;  COUNT n
+ * GET id               -&gt;  GAME game-line, or NONE
+ * QUIT                 -&gt;  (connection closed)
+ * </pre>
+ * Difficulties are sent as codes, with 0 meaning any difficulty; game lines
+ * are "id initial solved difficulty". Games are claimed through the
+ * synchronized Persistence methods, so no game goes to two clients.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class PuzzleServer {
+
+    /**
+     * Port used when none is given.
+     */
+    public static final int DEFAULT_PORT = 7625;
+
+    /**
+     * Most games handed out for one NEXT request.
+     */
+    static final int MAX_BATCH = 100;
+
+    /**
+     * Socket accepting client connections.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * Threads serving connected clients, one per client.
+     */
+    private final ExecutorService clients;
+
+    /**
+     * Connections of the clients being served, so stop() can drop them.
+     */
+    private final Set<Socket> connected = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Source of the games handed out.
+     */
+    private final Persistence persistence;
+
+    /**
+     * Create a server listening on a port. Nothing is accepted until start()
+     * is called.
+     *
+     * @param port        Port to listen on; 0 picks any free port.
+     * @param persistence Source of the games handed out.
+     * @throws IOException If the port can't be opened.
+     */
+    public PuzzleServer(int port, Persistence persistence) throws IOException {
+        this.serverSocket = new ServerSocket(port);
+        this.persistence = persistence;
+        this.clients = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "puzzle-client");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Get the port the server is listening on.
+     *
+     * @return Port number.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Start accepting clients on a background thread.
+     */
+    public void start() {
+        Thread acceptor = new Thread(this::acceptLoop, "puzzle-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Stop accepting clients and drop the connected ones.
+     */
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException ex) {
+            // nothing more we can do
+        }
+        clients.shutdownNow();
+
+        // the client threads are blocked reading; closing their sockets
+        // ends them
+        for (Socket s : connected) {
+            try {
+                s.close();
+            } catch (IOException ex) {
+                // nothing more we can do
+            }
+        }
+    }
+
+    /**
+     * Accept clients until the server socket is closed.
+     */
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                clients.execute(() -> serve(socket));
+            } catch (SocketException ex) {
+                // the server was stopped
+                return;
+            } catch (IOException ex) {
+                System.err.println("Cannot accept puzzle client!");
+                System.err.println(ex.toString());
+            }
+        }
+    }
+
+    /**
+     * Answer one client's requests until it quits or disconnects.
+     *
+     * @param socket Connection to the client.
+     */
+    private void serve(Socket socket) {
+        connected.add(socket);
+        if (serverSocket.isClosed()) {
+            // stopped while this client was being accepted
+            connected.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                // nothing more we can do
+            }
+            return;
+        }
+
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     s.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     s.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.trim().split(" ");
+                switch (parts[0]) {
+                    case "NEXT": {
+                        Difficulty d = Difficulty.fromCode(Integer.parseInt(parts[1]));
+                        int max = Math.min(MAX_BATCH, Integer.parseInt(parts[2]));
+                        List<Game> games = persistence.getNextGames(d, max);
+                        out.write("GAMES " + games.size() + "\n");
+                        for (Game g : games) {
+                            out.write(encode(g) + "\n");
+                        }
+                        break;
+                    }
+                    case "COUNT":
+                        out.write("COUNT " + persistence.getRemainingGames() + "\n");
+                        break;
+                    case "GET": {
+                        Game g = persistence.getGame(Integer.parseInt(parts[1]));
+                        out.write(g == null ? "NONE\n" : "GAME " + encode(g) + "\n");
+                        break;
+                    }
+                    case "QUIT":
+                        return;
+                    default:
+                        out.write("ERROR unknown request\n");
+                }
+                out.flush();
+            }
+
+        } catch (IOException | RuntimeException ex) {
+            if (!serverSocket.isClosed()) {
+                System.err.println("Puzzle client " + socket.getRemoteSocketAddress()
+                        + " dropped: " + ex);
+            }
+        } finally {
+            connected.remove(socket);
+        }
+    }
+
+    /**
+     * Convert a game to a line of the protocol.
+     *
+     * @param g Game to convert.
+     * @return "id initial solved difficulty".
+     */
+    static String encode(Game g) {
+        return g.toString() + " " + g.getDifficulty().getCode();
+    }
+
+    /**
+     * Convert a line of the protocol back into a game.
+     *
+     * @param line "id initial solved difficulty".
+     * @return Game represented by the line.
+     */
+    static Game decode(String line) {
+        String[] parts = line.split(" ");
+        GameGrid initial = new GameGrid(parts[1]);
+        Difficulty difficulty = Difficulty.fromCode(Integer.parseInt(parts[3]));
+        if (difficulty == null) {
+            difficulty = Difficulty.rate(initial);
+        }
+        return new Game(Integer.parseInt(parts[0]), initial, new GameGrid(parts[2]),
+                difficulty);
+    }
+
+    /**
+     * Run a puzzle server, serving games from the store set in this
+     * process's DoaneSuDoKu.ini.
+     *
+     * @param args Optional port number; DEFAULT_PORT if not given.
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        try {
+            PuzzleServer server = new PuzzleServer(port, Persistence.getInstance());
+            server.start();
+            System.out.println("Serving puzzles on port " + server.getPort());
+
+            // the server threads are daemons; keep the process alive
+            Thread.currentThread().join();
+
+        } catch (IOException ex) {
+            System.err.println("Cannot start puzzle server on port " + port + "! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Game;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Command-line check of a PuzzleServer and its RemoteGameStore clients,
+ * with both sides on localhost. A server is started on a store of
+ * synthetic games, and several clients claim batches from it at once;
+ * the check fails if any game is handed out twice, if COUNT or GET
+ * disagree with the server, if a client can't carry on after the server
+ * is restarted, or if a NEXT the server never answered is sent again.
+ * The last check waits out the client's read timeout.
+ * <p>
+ * Usage: java edu.doane.sudoku.persistence.PuzzleServerCheck [games] [clients]
+ * where games is the number of games in the store (default 2000) and
+ * clients the number of clients claiming at once (default 8). Run it in an
+ * empty scratch directory: it writes its own DoaneSuDoKu.ini and
+ * SuDoKuGames.txt there, and won't overwrite existing ones.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class PuzzleServerCheck {
+
+    /**
+     * Games asked for by each NEXT request.
+     */
+    private static final int BATCH = 10;
+
+    /**
+     * Number of checks that failed.
+     */
+    private static int failures = 0;
+
+    /**
+     * Run the check.
+     *
+     * @param args Command-line arguments, as described in the class comment.
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        if (new File("DoaneSuDoKu.ini").exists() || new File("SuDoKuGames.txt").exists()) {
+            System.err.println("Run PuzzleServerCheck in an empty directory! Exiting!");
+            System.exit(-1);
+        }
+
+        try {
+            // a flat file store, with a feed that can't be reached; only
+            // half the games are claimed, so it's never needed
+            try (Writer ini = new FileWriter("DoaneSuDoKu.ini")) {
+                ini.write("url http://127.0.0.1:9/GAME.json\nstore file\nsync full\nlowwater 0\n");
+            }
+            GameStore store = Persistence.createStore("file");
+            store.insertGames(GameStoreBenchmark.makeGames(n));
+            store.close();
+
+            Persistence persistence = Persistence.getInstance();
+            PuzzleServer server = new PuzzleServer(0, persistence);
+            server.start();
+            int port = server.getPort();
+            String address = "localhost:" + port;
+
+            checkClaims(address, n, clients);
+            checkCountAndGet(address, persistence, n);
+            server = checkRestart(server, port, persistence);
+            server.stop();
+            checkNoResend();
+
+        } catch (IOException | InterruptedException ex) {
+            System.err.println("Puzzle server check could not run!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+
+        System.out.println(failures == 0 ? "all checks passed" : failures + " checks FAILED");
+        System.exit(failures == 0 ? 0 : -1);
+    }
+
+    /**
+     * Have several clients claim games at once, and check that no game
+     * went to two of them.
+     *
+     * @param address Address of the server.
+     * @param n       Number of games in the store.
+     * @param clients Number of clients.
+     * @throws InterruptedException If interrupted waiting for the clients.
+     */
+    private static void checkClaims(String address, int n, int clients)
+            throws InterruptedException {
+        int rounds = Math.max(1, n / 2 / (clients * BATCH));
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger claimed = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        long start = System.nanoTime();
+        Thread[] threads = new Thread[clients];
+        for (int t = 0; t < clients; t++) {
+            threads[t] = new Thread(() -> {
+                RemoteGameStore remote = new RemoteGameStore(address);
+                for (int r = 0; r < rounds; r++) {
+                    for (Game g : remote.nextGames(null, BATCH)) {
+                        claimed.incrementAndGet();
+                        if (!seen.add(g.getID())) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }
+                remote.close();
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long ms = (System.nanoTime() - start) / 1_000_000;
+
+        check(duplicates.get() == 0 && claimed.get() == clients * rounds * BATCH,
+                clients + " clients claimed " + claimed.get() + " games, "
+                        + duplicates.get() + " twice, in " + ms + " ms");
+    }
+
+    /**
+     * Check that COUNT and GET answer as the server's Persistence does.
+     *
+     * @param address     Address of the server.
+     * @param persistence The server's Persistence.
+     * @param n           Number of games in the store.
+     */
+    private static void checkCountAndGet(String address, Persistence persistence, int n) {
+        RemoteGameStore remote = new RemoteGameStore(address);
+        int count = remote.count();
+        check(count == persistence.getRemainingGames(), "COUNT " + count);
+
+        // the last game is never claimed by checkClaims()
+        Game g = remote.getGame(n);
+        check(g != null && g.getID() == n, "GET " + n);
+        remote.close();
+    }
+
+    /**
+     * Restart the server on the same port, and check that a client
+     * connected to the old one reconnects and carries on.
+     *
+     * @param server      Running server.
+     * @param port        Port it listens on.
+     * @param persistence Source of the games handed out.
+     * @return The new server.
+     * @throws IOException If the new server can't be started.
+     */
+    private static PuzzleServer checkRestart(PuzzleServer server, int port,
+            Persistence persistence) throws IOException {
+        RemoteGameStore remote = new RemoteGameStore("localhost:" + port);
+        List<Game> before = remote.nextGames(null, 1);
+
+        server.stop();
+        server = new PuzzleServer(port, persistence);
+        server.start();
+
+        List<Game> after = remote.nextGames(null, 1);
+        check(before.size() == 1 && after.size() == 1
+                        && before.get(0).getID() != after.get(0).getID(),
+                "NEXT after the server restarted");
+        remote.close();
+        return server;
+    }
+
+    /**
+     * Check that a NEXT the server received but never answered is not
+     * sent again; the server may have claimed its games already.
+     *
+     * @throws IOException If the stand-in server can't be started.
+     * @throws InterruptedException If interrupted waiting for it.
+     */
+    private static void checkNoResend() throws IOException, InterruptedException {
+        AtomicInteger requests = new AtomicInteger();
+        try (ServerSocket silent = new ServerSocket(0)) {
+            Thread t = new Thread(() -> {
+                while (!silent.isClosed()) {
+                    try {
+                        Socket s = silent.accept();
+                        new Thread(() -> countRequests(s, requests)).start();
+                    } catch (IOException ex) {
+                        return;
+                    }
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+
+            RemoteGameStore remote = new RemoteGameStore("localhost:" + silent.getLocalPort());
+            List<Game> games = remote.nextGames(null, BATCH);
+            check(games.isEmpty() && requests.get() == 1,
+                    "unanswered NEXT sent " + requests.get() + " times");
+        }
+    }
+
+    /**
+     * Count the requests on a connection, answering none of them.
+     *
+     * @param s        Connection to a client.
+     * @param requests Count of requests seen.
+     */
+    private static void countRequests(Socket s, AtomicInteger requests) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                s.getInputStream(), StandardCharsets.US_ASCII))) {
+            while (in.readLine() != null) {
+                requests.incrementAndGet();
+            }
+        } catch (IOException ex) {
+            // the client gave up
+        }
+    }
+
+    /**
+     * Report the result of one check.
+     *
+     * @param ok   True if the check passed.
+     * @param what Description of the check.
+     */
+    private static void check(boolean ok, String what) {
+        System.out.println((ok ? "ok      " : "FAILED  ") + what);
+        if (!ok) {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameStore that claims games from a PuzzleServer over one persistent
+ * connection, for desktop clients sharing a server's store rather than
+ * keeping their own database. Games are claimed in batches, so a client
+ * talks to the server once per prefetch, not once per game.
+ * <p>
+ * The server does all the restocking from the cloud; games can't be
+ * inserted through a remote store. A connection the server has closed is
+ * noticed before a request is sent, and replaced. If a request fails
+ * anyway, COUNT and GET are sent once more on a new connection, but NEXT
+ * is only sent again if it never reached the server: once the server may
+ * have claimed the games, asking again could lose them.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class RemoteGameStore implements GameStore {
+
+    /**
+     * How long to wait for the server to accept or answer, in milliseconds.
+     */
+    private static final int TIMEOUT_MS = 10000;
+
+    /**
+     * Host name of the server.
+     */
+    private final String host;
+
+    /**
+     * Port of the server.
+     */
+    private final int port;
+
+    /**
+     * Connection to the server, or null if not connected.
+     */
+    private Socket socket;
+
+    /**
+     * Reader for the server's answers.
+     */
+    private BufferedReader in;
+
+    /**
+     * Writer for requests to the server.
+     */
+    private Writer out;
+
+    /**
+     * Create a store connected to a puzzle server.
+     *
+     * @param server Address of the server, as "host:port" or just "host" to
+     *               use PuzzleServer.DEFAULT_PORT.
+     */
+    public RemoteGameStore(String server) {
+        int colon = server.lastIndexOf(':');
+        if (colon < 0) {
+            host = server;
+            port = PuzzleServer.DEFAULT_PORT;
+        } else {
+            host = server.substring(0, colon);
+            port = Integer.parseInt(server.substring(colon + 1));
+        }
+
+        try {
+            connect();
+        } catch (IOException ex) {
+            System.err.println("Can't connect to puzzle server " + server + "! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+
+    @Override
+    public Game nextGame() {
+        List<Game> games = nextGames(null, 1);
+        return games.isEmpty() ? null : games.get(0);
+    }
+
+    @Override
+    public synchronized List<Game> nextGames(Difficulty difficulty, int max) {
+        ArrayList<Game> games = new ArrayList<>(max);
+        int code = difficulty == null ? 0 : difficulty.getCode();
+        String request = "NEXT " + code + " " + Math.min(max, PuzzleServer.MAX_BATCH);
+
+        try {
+            String answer = request(request, false);
+            int n = Integer.parseInt(answer.substring("GAMES ".length()));
+            for (int i = 0; i < n; i++) {
+                games.add(PuzzleServer.decode(in.readLine()));
+            }
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Cannot get games from puzzle server!");
+            System.err.println(ex.toString());
+            disconnect();
+        }
+
+        return games;
+    }
+
+    @Override
+    public int insertGames(Iterable<Game> games) {
+        System.err.println("Games can't be inserted through a puzzle server; "
+                + "the server restocks itself.");
+        return 0;
+    }
+
+    @Override
+    public synchronized int count() {
+        try {
+            String answer = request("COUNT", true);
+            return Integer.parseInt(answer.substring("COUNT ".length()));
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Cannot count games on puzzle server!");
+            System.err.println(ex.toString());
+            disconnect();
+            return 0;
+        }
+    }
+
+    @Override
+    public synchronized Game getGame(int id) {
+        try {
+            String answer = request("GET " + id, true);
+            return answer.startsWith("GAME ")
+                    ? PuzzleServer.decode(answer.substring("GAME ".length()))
+                    : null;
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Cannot get game " + id + " from puzzle server!");
+            System.err.println(ex.toString());
+            disconnect();
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (socket != null) {
+            try {
+                out.write("QUIT\n");
+                out.flush();
+            } catch (IOException ex) {
+                // closing anyway
+            }
+            disconnect();
+        }
+    }
+
+    /**
+     * Send one request and read the first line of the answer, connecting
+     * first if need be. If the request fails, it is sent once more on a new
+     * connection, if it is idempotent or never reached the server.
+     *
+     * @param request    Request line, without the newline.
+     * @param idempotent True if the request can safely be handled twice.
+     * @return First line of the answer.
+     * @throws IOException If the server can't be reached, or didn't answer
+     *                     a request that can't be sent again.
+     */
+    private String request(String request, boolean idempotent) throws IOException {
+        if (socket != null && isStale()) {
+            disconnect();
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            boolean sent = false;
+            try {
+                if (socket == null) {
+                    connect();
+                }
+                out.write(request + "\n");
+                out.flush();
+                sent = true;
+                String answer = in.readLine();
+                if (answer == null) {
+                    throw new EOFException("puzzle server closed the connection");
+                }
+                return answer;
+
+            } catch (IOException ex) {
+                disconnect();
+                if (attempt > 0 || (sent && !idempotent)) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Determine if the server has closed the connection, e.g., because it
+     * was restarted, without sending anything. Every answer has been read
+     * by the time this is called, so the server has nothing to send; a
+     * read that doesn't time out means the connection is gone.
+     *
+     * @return True if the connection should be replaced.
+     */
+    private boolean isStale() {
+        try {
+            socket.setSoTimeout(1);
+            try {
+                // end of stream, or bytes that answer nothing we asked
+                socket.getInputStream().read();
+                return true;
+            } finally {
+                socket.setSoTimeout(TIMEOUT_MS);
+            }
+        } catch (SocketTimeoutException ex) {
+            // nothing to read, and the connection is still open
+            return false;
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * Open the connection to the server.
+     *
+     * @throws IOException If the server can't be reached.
+     */
+    private void connect() throws IOException {
+        Socket s = new Socket();
+        s.connect(new InetSocketAddress(host, port), TIMEOUT_MS);
+        s.setSoTimeout(TIMEOUT_MS);
+        s.setTcpNoDelay(true);
+
+        socket = s;
+        in = new BufferedReader(new InputStreamReader(s.getInputStream(),
+                StandardCharsets.US_ASCII));
+        out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(),
+                StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Drop the connection to the server; the next request reconnects.
+     */
+    private void disconnect() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                // nothing more we can do
+            }
+        }
+        socket = null;
+        in = null;
+        out = null;
+    }
+}
@@ -0,0 +1,364 @@
+package edu.doane.sudoku.persistence;
+
+import java.util.Arrays;
+
+/**
+ * Running aggregate of completed-game results for one game or one
+ * difficulty: how many results, the mean solve time, hints and mistakes, a
+ * sketch of the solve time distribution, and the fastest times. Adding a
+ * result and answering any query take constant time, no matter how many
+ * results have been added.
+ * <p>
+ * The sketch is a histogram with logarithmically sized buckets, each 5%
+ * wider than the one before, starting at one second. Percentiles read from
+ * it are accurate to within about 5%.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class ResultStats {
+
+    /**
+     * Number of buckets in the solve time sketch.
+     */
+    private static final int BUCKETS = 256;
+
+    /**
+     * Ratio between the upper bounds of consecutive buckets.
+     */
+    private static final double GROWTH = 1.05;
+
+    /**
+     * Number of fastest times kept for the leaderboard.
+     */
+    public static final int LEADERBOARD_SIZE = 10;
+
+    /**
+     * Number of results added.
+     */
+    private long count;
+
+    /**
+     * Sum of the solve times, in milliseconds.
+     */
+    private long sumMillis;
+
+    /**
+     * Sum of the hints used.
+     */
+    private long sumHints;
+
+    /**
+     * Sum of the mistakes made.
+     */
+    private long sumMistakes;
+
+    /**
+     * Solve time histogram.
+     */
+    private final long[] sketch;
+
+    /**
+     * Fastest solve times, in milliseconds, fastest first.
+     */
+    private long[] best;
+
+    /**
+     * Create an empty aggregate.
+     */
+    public ResultStats() {
+        sketch = new long[BUCKETS];
+        best = new long[0];
+    }
+
+    /**
+     * Add one result to the aggregate.
+     *
+     * @param millis   Solve time, in milliseconds.
+     * @param hints    Number of hints used.
+     * @param mistakes Number of mistakes made.
+     */
+    public synchronized void add(long millis, int hints, int mistakes) {
+        count++;
+        sumMillis += millis;
+        sumHints += hints;
+        sumMistakes += mistakes;
+        sketch[bucket(millis)]++;
+
+        // keep the leaderboard sorted and short
+        if (best.length < LEADERBOARD_SIZE || millis < best[best.length - 1]) {
+            int pos = Arrays.binarySearch(best, millis);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            long[] next = new long[Math.min(best.length + 1, LEADERBOARD_SIZE)];
+            System.arraycopy(best, 0, next, 0, pos);
+            next[pos] = millis;
+            System.arraycopy(best, pos, next, pos + 1, next.length - pos - 1);
+            best = next;
+        }
+    }
+
+    /**
+     * Add all the results in another aggregate to this one, e.g., to
+     * combine aggregates built in parallel.
+     *
+     * @param other Aggregate whose results to add; not changed.
+     */
+    public void addAll(ResultStats other) {
+        long[] otherSketch;
+        long[] otherBest;
+        long n, ms, h, m;
+        synchronized (other) {
+            otherSketch = other.sketch.clone();
+            otherBest = other.best.clone();
+            n = other.count;
+            ms = other.sumMillis;
+            h = other.sumHints;
+            m = other.sumMistakes;
+        }
+
+        synchronized (this) {
+            count += n;
+            sumMillis += ms;
+            sumHints += h;
+            sumMistakes += m;
+            for (int i = 0; i < BUCKETS; i++) {
+                sketch[i] += otherSketch[i];
+            }
+
+            // both leaderboards are sorted; keep the fastest of the two
+            long[] merged = new long[Math.min(best.length + otherBest.length, LEADERBOARD_SIZE)];
+            int a = 0;
+            int b = 0;
+            for (int i = 0; i < merged.length; i++) {
+                if (b == otherBest.length || (a < best.length && best[a] <= otherBest[b])) {
+                    merged[i] = best[a++];
+                } else {
+                    merged[i] = otherBest[b++];
+                }
+            }
+            best = merged;
+        }
+    }
+
+    /**
+     * Get the number of results added.
+     *
+     * @return Number of results.
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the mean solve time.
+     *
+     * @return Mean solve time in milliseconds, or 0 if there are no results.
+     */
+    public synchronized long getMeanMillis() {
+        return count == 0 ? 0 : sumMillis / count;
+    }
+
+    /**
+     * Get the mean number of hints used.
+     *
+     * @return Mean hints per result, or 0 if there are no results.
+     */
+    public synchronized double getMeanHints() {
+        return count == 0 ? 0 : (double) sumHints / count;
+    }
+
+    /**
+     * Get the mean number of mistakes made.
+     *
+     * @return Mean mistakes per result, or 0 if there are no results.
+     */
+    public synchronized double getMeanMistakes() {
+        return count == 0 ? 0 : (double) sumMistakes / count;
+    }
+
+    /**
+     * Get an approximate percentile of the solve times.
+     *
+     * @param p Percentile to get, in [0, 1]; 0.5 is the median.
+     * @return Approximate solve time at that percentile, in milliseconds,
+     * or 0 if there are no results.
+     */
+    public synchronized long getPercentileMillis(double p) {
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(p * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += sketch[i];
+            if (seen >= target) {
+                return bucketMidpoint(i);
+            }
+        }
+        return bucketMidpoint(BUCKETS - 1);
+    }
+
+    /**
+     * Answer "how did I compare?": the fraction of results with a slower
+     * solve time than the one given.
+     *
+     * @param millis Solve time to compare, in milliseconds.
+     * @return Approximate fraction of results slower than millis, in
+     * [0, 1]; 0 if there are no results.
+     */
+    public synchronized double getFractionSlowerThan(long millis) {
+        if (count == 0) {
+            return 0;
+        }
+
+        int b = bucket(millis);
+        long slower = 0;
+        for (int i = b + 1; i < BUCKETS; i++) {
+            slower += sketch[i];
+        }
+        // count half of the results in the same bucket as slower
+        return (slower + sketch[b] / 2.0) / count;
+    }
+
+    /**
+     * Get the fastest solve times.
+     *
+     * @return Up to LEADERBOARD_SIZE fastest solve times, in milliseconds,
+     * fastest first.
+     */
+    public synchronized long[] getBestMillis() {
+        return best.clone();
+    }
+
+    /**
+     * Encode the solve time sketch as a string, for storing in the
+     * database. Only non-empty buckets are written, as "bucket:count" pairs
+     * separated by commas.
+     *
+     * @return Encoded sketch.
+     */
+    synchronized String encodeSketch() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (sketch[i] != 0) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(i).append(':').append(sketch[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Encode the leaderboard as a comma-separated list of times.
+     *
+     * @return Encoded leaderboard.
+     */
+    synchronized String encodeBest() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < best.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(best[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Get the sum of the solve times.
+     *
+     * @return Sum of the solve times, in milliseconds.
+     */
+    synchronized long getSumMillis() {
+        return sumMillis;
+    }
+
+    /**
+     * Get the sum of the hints used.
+     *
+     * @return Sum of the hints.
+     */
+    synchronized long getSumHints() {
+        return sumHints;
+    }
+
+    /**
+     * Get the sum of the mistakes made.
+     *
+     * @return Sum of the mistakes.
+     */
+    synchronized long getSumMistakes() {
+        return sumMistakes;
+    }
+
+    /**
+     * Rebuild an aggregate from its stored form.
+     *
+     * @param count       Number of results.
+     * @param sumMillis   Sum of the solve times, in milliseconds.
+     * @param sumHints    Sum of the hints used.
+     * @param sumMistakes Sum of the mistakes made.
+     * @param sketch      Sketch, as written by encodeSketch().
+     * @param best        Leaderboard, as written by encodeBest().
+     * @return Rebuilt aggregate.
+     */
+    static ResultStats decode(long count, long sumMillis, long sumHints,
+                              long sumMistakes, String sketch, String best) {
+        ResultStats stats = new ResultStats();
+        stats.count = count;
+        stats.sumMillis = sumMillis;
+        stats.sumHints = sumHints;
+        stats.sumMistakes = sumMistakes;
+
+        if (!sketch.isEmpty()) {
+            for (String pair : sketch.split(",")) {
+                int colon = pair.indexOf(':');
+                stats.sketch[Integer.parseInt(pair.substring(0, colon))] =
+                        Long.parseLong(pair.substring(colon + 1));
+            }
+        }
+
+        if (!best.isEmpty()) {
+            String[] times = best.split(",");
+            stats.best = new long[times.length];
+            for (int i = 0; i < times.length; i++) {
+                stats.best[i] = Long.parseLong(times[i]);
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * Find the sketch bucket for a solve time. Bucket 0 holds everything
+     * up to one second; bucket i holds times up to GROWTH^i seconds.
+     *
+     * @param millis Solve time, in milliseconds.
+     * @return Bucket index, in [0, BUCKETS).
+     */
+    private static int bucket(long millis) {
+        if (millis <= 1000) {
+            return 0;
+        }
+        int b = (int) Math.ceil(Math.log(millis / 1000.0) / Math.log(GROWTH));
+        return Math.min(b, BUCKETS - 1);
+    }
+
+    /**
+     * Get a representative time for a sketch bucket.
+     *
+     * @param b Bucket index.
+     * @return Geometric midpoint of the bucket, in milliseconds.
+     */
+    private static long bucketMidpoint(int b) {
+        if (b == 0) {
+            return 500;
+        }
+        return Math.round(1000 * Math.pow(GROWTH, b - 0.5));
+    }
+}
@@ -0,0 +1,359 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.metrics.DatabaseEvent;
+import edu.doane.sudoku.model.Difficulty;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store for the results of completed games, kept in the RESULT table of the
+ * embedded Apache Derby database SuDoKuDB. Alongside the raw results, the
+ * RESULT_STATS table holds a running ResultStats aggregate for every game
+ * and every difficulty, updated as each result is written, so leaderboard
+ * and "how did I compare?" questions are answered from a single row rather
+ * than by scanning the results.
+ * <p>
+ * record() only queues a result and returns; a background thread writes
+ * queued results and the aggregates they touch in batches, one transaction
+ * per batch.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class ResultStore {
+
+    /**
+     * Most results written in one batch.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * How long the writer waits for a result before checking whether the
+     * store is closing, in milliseconds.
+     */
+    private static final long POLL_MS = 200;
+
+    /**
+     * Key prefix in RESULT_STATS for per-game aggregates.
+     */
+    private static final String GAME_KEY = "G:";
+
+    /**
+     * Key prefix in RESULT_STATS for per-difficulty aggregates.
+     */
+    private static final String DIFFICULTY_KEY = "D:";
+
+    /**
+     * Result of one completed game, waiting to be written.
+     */
+    private static class Result {
+        final int gameId;
+        final int difficulty;
+        final long millis;
+        final int hints;
+        final int mistakes;
+        final Timestamp finished;
+
+        Result(int gameId, int difficulty, long millis, int hints, int mistakes) {
+            this.gameId = gameId;
+            this.difficulty = difficulty;
+            this.millis = millis;
+            this.hints = hints;
+            this.mistakes = mistakes;
+            this.finished = new Timestamp(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Results waiting to be written.
+     */
+    private final BlockingQueue<Result> queue;
+
+    /**
+     * Aggregates read from or written to RESULT_STATS, by key.
+     */
+    private final ConcurrentHashMap<String, ResultStats> cache;
+
+    /**
+     * Background thread writing results.
+     */
+    private final Thread writer;
+
+    /**
+     * Set when the store is closing; the writer drains the queue and stops.
+     */
+    private volatile boolean closing;
+
+    /**
+     * Create the store, loading the Derby driver and creating the RESULT and
+     * RESULT_STATS tables if they do not already exist.
+     */
+    public ResultStore() {
+        queue = new LinkedBlockingQueue<>();
+        cache = new ConcurrentHashMap<>();
+
+        DerbyDatabase.loadDriver();
+        createTables();
+
+        writer = new Thread(this::writeLoop, "result-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        // don't lose the last results if the app exits without close()
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "result-writer-exit"));
+    }
+
+    /**
+     * Record the result of a completed game. Never blocks on the database.
+     *
+     * @param gameId     ID of the game that was completed.
+     * @param difficulty Difficulty of the game.
+     * @param millis     Time taken to solve the game, in milliseconds.
+     * @param hints      Number of hints used.
+     * @param mistakes   Number of mistakes made.
+     */
+    public void record(int gameId, Difficulty difficulty, long millis, int hints, int mistakes) {
+        queue.add(new Result(gameId, difficulty.getCode(), millis, hints, mistakes));
+    }
+
+    /**
+     * Get the aggregate of all results for one game.
+     *
+     * @param gameId ID of the game.
+     * @return Aggregate of the results for the game; empty if the game has
+     * never been completed.
+     */
+    public ResultStats getGameStats(int gameId) {
+        return getStats(GAME_KEY + gameId);
+    }
+
+    /**
+     * Get the aggregate of all results for one difficulty.
+     *
+     * @param difficulty Difficulty of interest.
+     * @return Aggregate of the results for games of that difficulty.
+     */
+    public ResultStats getDifficultyStats(Difficulty difficulty) {
+        return getStats(DIFFICULTY_KEY + difficulty.getCode());
+    }
+
+    /**
+     * Write any queued results and stop the background thread.
+     */
+    public void close() {
+        // Derby aborts the connection of an interrupted thread, so just ask
+        // the writer to stop and wait for it
+        closing = true;
+        try {
+            writer.join(5000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get an aggregate, reading it from RESULT_STATS the first time it is
+     * asked for.
+     *
+     * @param key RESULT_STATS key of the aggregate.
+     * @return Aggregate for the key.
+     */
+    private ResultStats getStats(String key) {
+        return cache.computeIfAbsent(key, this::loadStats);
+    }
+
+    /**
+     * Read one aggregate from RESULT_STATS.
+     *
+     * @param key RESULT_STATS key of the aggregate.
+     * @return Stored aggregate, or an empty one if there is no row for the
+     * key or it can't be read.
+     */
+    private ResultStats loadStats(String key) {
+        try (Connection conn = DerbyDatabase.connect();
+             PreparedStatement ps = conn.prepareStatement("SELECT N, SUM_MS, "
+                     + "SUM_HINTS, SUM_MISTAKES, SKETCH, BEST FROM RESULT_STATS "
+                     + "WHERE STAT_KEY = ?")) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return ResultStats.decode(rs.getLong(1), rs.getLong(2),
+                            rs.getLong(3), rs.getLong(4), rs.getString(5), rs.getString(6));
+                }
+            }
+        } catch (SQLException | RuntimeException ex) {
+            System.err.println("Can't read result statistics for " + key + "!");
+            System.err.println(ex.toString());
+        }
+        return new ResultStats();
+    }
+
+    /**
+     * Body of the background thread: wait for results, then write them and
+     * everything else queued behind them as one batch.
+     */
+    private void writeLoop() {
+        List<Result> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                Result first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                }
+            } catch (InterruptedException ex) {
+                return;
+            }
+
+            queue.drainTo(batch, BATCH_SIZE - batch.size());
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+
+            if (closing && queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write a batch of results and the aggregates they change, in a single
+     * transaction.
+     *
+     * @param batch Results to write.
+     */
+    private void writeBatch(List<Result> batch) {
+        HashSet<String> dirty = new HashSet<>();
+        DatabaseEvent event = new DatabaseEvent();
+        event.begin();
+
+        try (Connection conn = DerbyDatabase.connect()) {
+            conn.setAutoCommit(false);
+            try {
+                // raw results
+                try (PreparedStatement ps = conn.prepareStatement("INSERT INTO "
+                        + "RESULT(GAME_ID, DIFFICULTY, SOLVE_MS, HINTS, MISTAKES, "
+                        + "FINISHED) VALUES(?, ?, ?, ?, ?, ?)")) {
+                    for (Result r : batch) {
+                        ps.setInt(1, r.gameId);
+                        ps.setInt(2, r.difficulty);
+                        ps.setLong(3, r.millis);
+                        ps.setInt(4, r.hints);
+                        ps.setInt(5, r.mistakes);
+                        ps.setTimestamp(6, r.finished);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+
+                // fold the results into the aggregates
+                for (Result r : batch) {
+                    String gameKey = GAME_KEY + r.gameId;
+                    String diffKey = DIFFICULTY_KEY + r.difficulty;
+                    getStats(gameKey).add(r.millis, r.hints, r.mistakes);
+                    getStats(diffKey).add(r.millis, r.hints, r.mistakes);
+                    dirty.add(gameKey);
+                    dirty.add(diffKey);
+                }
+
+                // write the changed aggregates, inserting rows for new keys
+                try (PreparedStatement update = conn.prepareStatement("UPDATE "
+                        + "RESULT_STATS SET N = ?, SUM_MS = ?, SUM_HINTS = ?, "
+                        + "SUM_MISTAKES = ?, SKETCH = ?, BEST = ? WHERE STAT_KEY = ?");
+                     PreparedStatement insert = conn.prepareStatement("INSERT INTO "
+                             + "RESULT_STATS(N, SUM_MS, SUM_HINTS, SUM_MISTAKES, "
+                             + "SKETCH, BEST, STAT_KEY) VALUES(?, ?, ?, ?, ?, ?, ?)")) {
+                    for (String key : dirty) {
+                        ResultStats stats = getStats(key);
+                        synchronized (stats) {
+                            setStats(update, key, stats);
+                            if (update.executeUpdate() == 0) {
+                                setStats(insert, key, stats);
+                                insert.executeUpdate();
+                            }
+                        }
+                    }
+                }
+
+                conn.commit();
+                event.finish("RESULT", "insert", batch.size());
+            } catch (SQLException ex) {
+                // roll back, or closing the connection fails and it leaks,
+                // holding its locks on RESULT and RESULT_STATS
+                conn.rollback();
+                throw ex;
+            }
+
+        } catch (SQLException ex) {
+            System.err.println("Can't save " + batch.size() + " game results!");
+            System.err.println(ex.toString());
+
+            // the cached aggregates may now be ahead of the database; read
+            // them again the next time they are needed
+            cache.keySet().removeAll(dirty);
+        }
+    }
+
+    /**
+     * Fill in the parameters of the RESULT_STATS update or insert statement.
+     *
+     * @param ps    Statement to fill in.
+     * @param key   RESULT_STATS key of the aggregate.
+     * @param stats Aggregate to write.
+     * @throws SQLException If a parameter can't be set.
+     */
+    private static void setStats(PreparedStatement ps, String key, ResultStats stats)
+            throws SQLException {
+        ps.setLong(1, stats.getCount());
+        ps.setLong(2, stats.getSumMillis());
+        ps.setLong(3, stats.getSumHints());
+        ps.setLong(4, stats.getSumMistakes());
+        ps.setString(5, stats.encodeSketch());
+        ps.setString(6, stats.encodeBest());
+        ps.setString(7, key);
+    }
+
+    /**
+     * Create the RESULT and RESULT_STATS tables if they do not already exist.
+     */
+    private void createTables() {
+        try (Connection conn = DerbyDatabase.connect();
+             Statement s = conn.createStatement()) {
+
+            if (!DerbyDatabase.tableExists(conn, "RESULT")) {
+                s.execute("CREATE TABLE RESULT(RESULT_ID INTEGER "
+                        + "GENERATED ALWAYS AS IDENTITY, "
+                        + "GAME_ID INTEGER NOT NULL, "
+                        + "DIFFICULTY SMALLINT NOT NULL, "
+                        + "SOLVE_MS BIGINT NOT NULL, "
+                        + "HINTS INTEGER NOT NULL, "
+                        + "MISTAKES INTEGER NOT NULL, "
+                        + "FINISHED TIMESTAMP NOT NULL, "
+                        + "PRIMARY KEY(RESULT_ID))");
+            }
+
+            if (!DerbyDatabase.tableExists(conn, "RESULT_STATS")) {
+                s.execute("CREATE TABLE RESULT_STATS(STAT_KEY VARCHAR(16) NOT NULL, "
+                        + "N BIGINT NOT NULL, "
+                        + "SUM_MS BIGINT NOT NULL, "
+                        + "SUM_HINTS BIGINT NOT NULL, "
+                        + "SUM_MISTAKES BIGINT NOT NULL, "
+                        + "SKETCH VARCHAR(4000) NOT NULL, "
+                        + "BEST VARCHAR(256) NOT NULL, "
+                        + "PRIMARY KEY(STAT_KEY))");
+            }
+
+        } catch (SQLException ex) {
+            System.err.println("Can't create result tables! Exiting!");
+            System.err.println(ex.toString());
+            System.exit(-1);
+        }
+    }
+}
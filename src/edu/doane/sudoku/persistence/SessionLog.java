@@ -0,0 +1,659 @@
+package edu.doane.sudoku.persistence;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only log of game session events, for rebuilding sessions after a
+ * crash and for replaying them later. Every move is one fixed-size
+ * 16-byte event; now and then the whole state of a session is written as
+ * a snapshot, so rebuilding a session only means loading its latest
+ * snapshot and applying the events after it.
+ * <p>
+ * Appending only copies the record into an in-memory buffer; a background
+ * thread writes full buffers, and whatever is buffered every FLUSH_MS
+ * milliseconds, to the file, so moves never wait on disk. Sessions are
+ * spread over LANES lanes by ID, each with its own buffers and lock, so
+ * appends for different sessions rarely wait on each other; records of
+ * one session stay in order, but records of different sessions may be
+ * interleaved differently than they were appended. A crash can lose the
+ * last FLUSH_MS of events. A record torn by a crash ends the log when it
+ * is read back, and is cut off when the log is opened again.
+ * <p>
+ * Every record starts with a 16-byte header: the record type, the cell
+ * (row * 9 + col), the number, flags, the session's elapsed time in
+ * milliseconds, and the session ID. A snapshot's cell, number and flags
+ * hold the payload length instead, and the payload follows the header.
+ * <p>
+ * A long-running server rotates its logs, e.g., daily, with
+ * SessionEngine.rotateLog(), so each log covers one period. The sessions
+ * live at a rotation are carried into the new log as CARRY snapshots, so
+ * each log can be replayed, or recovered from, on its own.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class SessionLog {
+
+    /**
+     * Record type: a number was played.
+     */
+    public static final byte PLAY = 1;
+
+    /**
+     * Record type: a number was removed.
+     */
+    public static final byte REMOVE = 2;
+
+    /**
+     * Record type: a note was toggled.
+     */
+    public static final byte NOTE = 3;
+
+    /**
+     * Record type: a hint was taken.
+     */
+    public static final byte HINT = 4;
+
+    /**
+     * Record type: the session was paused.
+     */
+    public static final byte PAUSE = 5;
+
+    /**
+     * Record type: the session was resumed.
+     */
+    public static final byte RESUME = 6;
+
+    /**
+     * Record type: the player gave up, and was shown the solution.
+     */
+    public static final byte QUIT = 7;
+
+    /**
+     * Record type: the session ended.
+     */
+    public static final byte END = 8;
+
+    /**
+     * Record type: snapshot of a session's whole state.
+     */
+    public static final byte SNAPSHOT = 9;
+
+    /**
+     * Record type: snapshot of a session carried over from the previous
+     * log when the logs were rotated; the session started before this log.
+     */
+    public static final byte CARRY = 10;
+
+    /**
+     * Event flag: the number played doesn't match the solution.
+     */
+    public static final byte WRONG = 1;
+
+    /**
+     * Event flag: the move completed the game.
+     */
+    public static final byte WON = 2;
+
+    /**
+     * Size of a record header, and of a whole event, in bytes.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * How often buffered records are written, in milliseconds.
+     */
+    private static final long FLUSH_MS = 200;
+
+    /**
+     * Number of lanes appends are spread over; a power of two.
+     */
+    private static final int LANES = 16;
+
+    /**
+     * Size of each in-memory buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Largest snapshot payload, in bytes.
+     */
+    private static final int MAX_PAYLOAD = BUFFER_SIZE - HEADER_SIZE;
+
+    /**
+     * Log file.
+     */
+    private final File file;
+
+    /**
+     * Channel appending to the log file; only used by the constructor, the
+     * writer thread and close().
+     */
+    private final FileChannel channel;
+
+    /**
+     * Buffers and locks of the lanes; a session always goes to the same
+     * lane, so its records stay in order.
+     */
+    private final Lane[] lanes;
+
+    /**
+     * Background thread writing buffers to the file.
+     */
+    private final Thread writer;
+
+    /**
+     * Set by close(); appends after this throw.
+     */
+    private volatile boolean closing;
+
+    /**
+     * Open a log, appending to the file if it already exists. A record torn
+     * by a crash at the end of the file is cut off first, so the records
+     * appended now follow the last whole one.
+     *
+     * @param fileName Name of the log file.
+     * @throws IOException If the file can't be opened.
+     */
+    public SessionLog(String fileName) throws IOException {
+        file = new File(fileName);
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            Reader reader = new Reader(channel);
+            reader.read(null);
+            if (reader.end < channel.size()) {
+                System.err.println("Dropping " + (channel.size() - reader.end)
+                        + " torn bytes from session log " + file);
+                channel.truncate(reader.end);
+            }
+            channel.position(reader.end);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+
+        lanes = new Lane[LANES];
+        for (int i = 0; i < LANES; i++) {
+            lanes[i] = new Lane();
+        }
+
+        writer = new Thread(this::writeLoop, "session-log");
+        writer.setDaemon(true);
+        writer.start();
+
+        // don't lose the last few events if the app exits without close()
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "session-log-exit"));
+    }
+
+    /**
+     * Append an event. Never blocks on disk unless the writer has fallen a
+     * whole buffer behind.
+     *
+     * @param session ID of the session.
+     * @param type    Record type, e.g., PLAY.
+     * @param cell    Cell the event is about (row * 9 + col), or 0.
+     * @param number  Number the event is about, or 0.
+     * @param flags   Event flags, e.g., WRONG.
+     * @param millis  Time on the session's clock, in milliseconds, after
+     *                the event.
+     * @throws IllegalStateException If the log has been closed.
+     */
+    public void append(long session, byte type, int cell, int number,
+            int flags, long millis) {
+        Lane lane = laneOf(session);
+        synchronized (lane) {
+            reserve(lane, HEADER_SIZE);
+            lane.putHeader(type, cell, number, flags, millis, session);
+        }
+    }
+
+    /**
+     * Append a snapshot of a session's state.
+     *
+     * @param session ID of the session.
+     * @param millis  Time on the session's clock, in milliseconds.
+     * @param payload Encoded state of the session; at most MAX_PAYLOAD
+     *                bytes.
+     * @throws IllegalStateException If the log has been closed.
+     */
+    public void appendSnapshot(long session, long millis, byte[] payload) {
+        appendPayload(SNAPSHOT, session, millis, payload);
+    }
+
+    /**
+     * Append a snapshot of a session carried over from the previous log.
+     *
+     * @param session ID of the session.
+     * @param millis  Time on the session's clock, in milliseconds.
+     * @param payload Encoded state of the session; at most MAX_PAYLOAD
+     *                bytes.
+     * @throws IllegalStateException If the log has been closed.
+     */
+    public void appendCarried(long session, long millis, byte[] payload) {
+        appendPayload(CARRY, session, millis, payload);
+    }
+
+    /**
+     * Append a record with a payload.
+     *
+     * @param type    Record type, SNAPSHOT or CARRY.
+     * @param session ID of the session.
+     * @param millis  Time on the session's clock, in milliseconds.
+     * @param payload Encoded state of the session; at most MAX_PAYLOAD
+     *                bytes.
+     * @throws IllegalStateException If the log has been closed.
+     */
+    private void appendPayload(byte type, long session, long millis, byte[] payload) {
+        if (payload.length > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Snapshot too big: " + payload.length + " bytes");
+        }
+        Lane lane = laneOf(session);
+        synchronized (lane) {
+            reserve(lane, HEADER_SIZE + payload.length);
+            lane.putHeader(type, payload.length >>> 16, payload.length >>> 8,
+                    payload.length, millis, session);
+            lane.active.put(payload);
+        }
+    }
+
+    /**
+     * Write everything appended so far to the file.
+     */
+    public void flush() {
+        for (Lane lane : lanes) {
+            synchronized (lane) {
+                waitForSpare(lane);
+                if (lane.active.position() > 0 && !closing) {
+                    handOff(lane);
+                    waitForSpare(lane);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write everything appended so far and stop the writer thread.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+        }
+
+        // wake appenders waiting for a spare buffer, so they throw
+        for (Lane lane : lanes) {
+            synchronized (lane) {
+                lane.notifyAll();
+            }
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        // the writer has stopped, so the remaining buffers are ours to write
+        try {
+            for (Lane lane : lanes) {
+                synchronized (lane) {
+                    if (lane.pending != null) {
+                        writeBuffer(lane.pending);
+                        lane.pending = null;
+                    }
+                    writeBuffer(lane.active);
+                }
+            }
+            channel.force(false);
+            channel.close();
+        } catch (IOException ex) {
+            System.err.println("Cannot write session log " + file + "!");
+            System.err.println(ex.toString());
+        }
+    }
+
+    /**
+     * Receives the records of a log as it is read back.
+     */
+    public interface Visitor {
+
+        /**
+         * Called for each event.
+         *
+         * @param session ID of the session.
+         * @param type    Record type, e.g., PLAY.
+         * @param cell    Cell the event is about (row * 9 + col).
+         * @param number  Number the event is about.
+         * @param flags   Event flags, e.g., WRONG.
+         * @param millis  Time on the session's clock after the event.
+         */
+        void event(long session, byte type, int cell, int number, int flags, long millis);
+
+        /**
+         * Called for each snapshot.
+         *
+         * @param session ID of the session.
+         * @param millis  Time on the session's clock.
+         * @param payload Encoded state of the session.
+         */
+        void snapshot(long session, long millis, ByteBuffer payload);
+
+        /**
+         * Called for each snapshot carried over from the previous log. By
+         * default, handled like any other snapshot.
+         *
+         * @param session ID of the session.
+         * @param millis  Time on the session's clock.
+         * @param payload Encoded state of the session.
+         */
+        default void carried(long session, long millis, ByteBuffer payload) {
+            snapshot(session, millis, payload);
+        }
+    }
+
+    /**
+     * Read a log back, in order, stopping at the end of the file or at the
+     * first torn or malformed record.
+     *
+     * @param fileName Name of the log file.
+     * @param visitor  Visitor receiving the records.
+     * @return Number of records read.
+     * @throws IOException If the file can't be read.
+     */
+    public static long replay(String fileName, Visitor visitor) throws IOException {
+        try (FileChannel in = FileChannel.open(new File(fileName).toPath(),
+                StandardOpenOption.READ)) {
+            Reader reader = new Reader(in);
+            reader.read(visitor);
+            return reader.records;
+        }
+    }
+
+    /**
+     * Reads the records of a log from a channel, keeping track of where the
+     * last whole record ends.
+     */
+    private static class Reader {
+
+        /**
+         * Channel to read from.
+         */
+        private final FileChannel in;
+
+        /**
+         * Buffer of bytes read but not yet parsed, in read mode.
+         */
+        private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * Number of whole records read.
+         */
+        private long records;
+
+        /**
+         * Offset in the file just past the last whole record.
+         */
+        private long end;
+
+        /**
+         * Create a reader.
+         *
+         * @param in Channel to read from, positioned at the start of the log.
+         */
+        Reader(FileChannel in) {
+            this.in = in;
+            buf.flip();
+        }
+
+        /**
+         * Read records until the end of the channel or the first torn or
+         * malformed record.
+         *
+         * @param visitor Visitor receiving the records, or null to just
+         *                find where they end.
+         * @throws IOException If the channel can't be read.
+         */
+        void read(Visitor visitor) throws IOException {
+            while (fill(HEADER_SIZE)) {
+                byte type = buf.get();
+                int cell = buf.get() & 0xFF;
+                int number = buf.get() & 0xFF;
+                int flags = buf.get() & 0xFF;
+                long millis = buf.getInt() & 0xFFFFFFFFL;
+                long session = buf.getLong();
+
+                if (type == SNAPSHOT || type == CARRY) {
+                    int length = (cell << 16) | (number << 8) | flags;
+                    if (length > MAX_PAYLOAD || !fill(length)) {
+                        return;
+                    }
+                    if (visitor != null) {
+                        ByteBuffer payload = buf.slice();
+                        payload.limit(length);
+                        if (type == SNAPSHOT) {
+                            visitor.snapshot(session, millis, payload);
+                        } else {
+                            visitor.carried(session, millis, payload);
+                        }
+                    }
+                    buf.position(buf.position() + length);
+                    end += HEADER_SIZE + length;
+                } else if (type >= PLAY && type <= END && cell < 81) {
+                    if (visitor != null) {
+                        visitor.event(session, type, cell, number, flags, millis);
+                    }
+                    end += HEADER_SIZE;
+                } else {
+                    return;
+                }
+                records++;
+            }
+        }
+
+        /**
+         * Make sure the buffer holds at least n unread bytes, reading more
+         * from the channel if need be.
+         *
+         * @param n Number of bytes needed.
+         * @return False if the channel ended first.
+         * @throws IOException If the channel can't be read.
+         */
+        private boolean fill(int n) throws IOException {
+            if (buf.remaining() >= n) {
+                return true;
+            }
+            buf.compact();
+            while (buf.position() < n) {
+                if (in.read(buf) < 0) {
+                    buf.flip();
+                    return false;
+                }
+            }
+            buf.flip();
+            return true;
+        }
+    }
+
+    /**
+     * Get the lane a session's records go to.
+     *
+     * @param session ID of the session.
+     * @return The session's lane.
+     */
+    private Lane laneOf(long session) {
+        return lanes[(int) session & (LANES - 1)];
+    }
+
+    /**
+     * Make room for n bytes in a lane's active buffer, handing it to the
+     * writer if it is too full. Must be called holding the lane's lock.
+     *
+     * @param lane Lane to append to.
+     * @param n    Number of bytes needed; at most BUFFER_SIZE.
+     * @throws IllegalStateException If the log has been closed.
+     */
+    private void reserve(Lane lane, int n) {
+        if (closing) {
+            throw new IllegalStateException("Session log " + file + " is closed");
+        }
+        while (lane.active.remaining() < n) {
+            if (lane.spare != null) {
+                handOff(lane);
+            } else {
+                // the writer has fallen a whole buffer behind
+                try {
+                    lane.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted appending to session log");
+                }
+                if (closing) {
+                    throw new IllegalStateException("Session log " + file + " is closed");
+                }
+            }
+        }
+    }
+
+    /**
+     * Hand a lane's active buffer to the writer and take the spare, if it
+     * is free. Must be called holding the lane's lock.
+     *
+     * @param lane Lane whose buffer is full.
+     */
+    private void handOff(Lane lane) {
+        if (lane.spare != null) {
+            lane.pending = lane.active;
+            lane.active = lane.spare;
+            lane.spare = null;
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Wait until the writer has written the buffer handed to it by a lane,
+     * if any. Must be called holding the lane's lock.
+     *
+     * @param lane Lane to wait on.
+     */
+    private void waitForSpare(Lane lane) {
+        while (lane.spare == null && !closing) {
+            try {
+                lane.wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Body of the writer thread: write each buffer handed off, and hand off
+     * every lane's active buffer every FLUSH_MS milliseconds.
+     */
+    private void writeLoop() {
+        long deadline = System.nanoTime() + FLUSH_MS * 1_000_000L;
+        while (!closing) {
+            boolean due = System.nanoTime() - deadline >= 0;
+            if (due) {
+                deadline += FLUSH_MS * 1_000_000L;
+            }
+
+            for (Lane lane : lanes) {
+                ByteBuffer full;
+                synchronized (lane) {
+                    if (due && lane.pending == null && lane.active.position() > 0) {
+                        handOff(lane);
+                    }
+                    full = lane.pending;
+                    lane.pending = null;
+                }
+                if (full == null) {
+                    continue;
+                }
+
+                try {
+                    writeBuffer(full);
+                } catch (IOException ex) {
+                    System.err.println("Cannot write session log " + file + "!");
+                    System.err.println(ex.toString());
+                    full.clear();
+                }
+
+                synchronized (lane) {
+                    lane.spare = full;
+                    lane.notifyAll();
+                }
+            }
+
+            // sleep until the next flush, or until a lane hands off a buffer
+            long wait = deadline - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+
+    /**
+     * Write a buffer to the file and empty it.
+     *
+     * @param buf Buffer, in write mode.
+     * @throws IOException If the file can't be written.
+     */
+    private void writeBuffer(ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    /**
+     * One lane of the log: a lock, with the buffers its sessions' records
+     * are appended to. Its fields are guarded by the lane's monitor.
+     */
+    private static class Lane {
+
+        /**
+         * Buffer records are appended to.
+         */
+        private ByteBuffer active = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * Empty buffer, ready to swap with active; null while the writer is
+         * writing it.
+         */
+        private ByteBuffer spare = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * Buffer handed to the writer and not yet written, or null.
+         */
+        private ByteBuffer pending;
+
+        /**
+         * Write a record header to the active buffer, after reserve().
+         *
+         * @param type    Record type.
+         * @param cell    Cell, or high byte of a snapshot's payload length.
+         * @param number  Number, or middle byte of the payload length.
+         * @param flags   Flags, or low byte of the payload length.
+         * @param millis  Time on the session's clock, in milliseconds.
+         * @param session ID of the session.
+         */
+        void putHeader(byte type, int cell, int number, int flags, long millis,
+                long session) {
+            active.put(type);
+            active.put((byte) cell);
+            active.put((byte) number);
+            active.put((byte) flags);
+            active.putInt((int) Math.min(millis, 0xFFFFFFFFL));
+            active.putLong(session);
+        }
+    }
+}
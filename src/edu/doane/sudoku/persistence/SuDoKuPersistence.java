@@ -0,0 +1,49 @@
+package edu.doane.sudoku.persistence;
+
+import edu.doane.sudoku.model.Difficulty;
+import edu.doane.sudoku.model.Game;
+
+/**
+ * Interface for the persistence a SuDoKu controller needs: a source of
+ * games that haven't been played yet, and somewhere to keep the results of
+ * games that have been won. Implementations must be safe to share between
+ * controllers running on different threads; no two calls may be handed the
+ * same game.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public interface SuDoKuPersistence {
+
+    /**
+     * Get the next game of a particular difficulty that hasn't been played
+     * yet. If there are no games of that difficulty, a game of any
+     * difficulty is returned instead.
+     *
+     * @param difficulty Difficulty of the game to get, or null for any
+     *                   difficulty.
+     * @return Game object representing the next un-played game
+     */
+    Game getNextGame(Difficulty difficulty);
+
+    /**
+     * Get a game that has already been claimed and is waiting to be handed
+     * out, without claiming more or going to the cloud, for when a game is
+     * wanted but waiting for one isn't acceptable, e.g., at exit.
+     *
+     * @return An un-played game, or null if none is waiting.
+     */
+    Game pollClaimedGame();
+
+    /**
+     * Record the result of a game that was won. Must not block on disk.
+     *
+     * @param gameId     GAME_ID of the game.
+     * @param difficulty Difficulty of the game.
+     * @param millis     Time taken to solve the game, in milliseconds.
+     * @param hints      Number of hints taken.
+     * @param mistakes   Number of wrong numbers played.
+     */
+    void recordResult(int gameId, Difficulty difficulty, long millis, int hints,
+            int mistakes);
+}
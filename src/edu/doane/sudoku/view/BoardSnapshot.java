@@ -0,0 +1,101 @@
+package edu.doane.sudoku.view;
+
+/**
+ * Everything the board shows, packed one int per cell, for updating the
+ * whole board at once with SuDoKuUI.applyBoard(). Each cell (row * 9 +
+ * col) holds its number in the low four bits, GIVEN if the number is a
+ * given, and its note mask shifted left by NOTES_SHIFT, where bit n of the
+ * mask is set if n is a note. Snapshots are immutable, so a view can
+ * compare one against what it shows without copying it.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public final class BoardSnapshot {
+
+    /**
+     * Bits of a packed cell holding its number.
+     */
+    public static final int NUMBER = 0x0F;
+
+    /**
+     * Bit of a packed cell set if its number is a given.
+     */
+    public static final int GIVEN = 0x10;
+
+    /**
+     * Shift of the note mask in a packed cell.
+     */
+    public static final int NOTES_SHIFT = 16;
+
+    /**
+     * Packed cells, in row-major order.
+     */
+    private final int[] cells;
+
+    /**
+     * Create a snapshot from packed cells.
+     *
+     * @param cells 81 packed cells, in row-major order; copied.
+     * @throws IllegalArgumentException If there aren't 81 cells.
+     */
+    public BoardSnapshot(int[] cells) {
+        if (cells.length != 81) {
+            throw new IllegalArgumentException("A board has 81 cells, not " + cells.length);
+        }
+        this.cells = cells.clone();
+    }
+
+    /**
+     * Pack one cell.
+     *
+     * @param number   Number in the cell, in [0, 9]; 0 for none.
+     * @param given    True if the number is a given.
+     * @param noteMask Notes in the cell; bit n is set if n is a note.
+     * @return Packed cell.
+     */
+    public static int pack(int number, boolean given, int noteMask) {
+        return number | (given ? GIVEN : 0) | (noteMask << NOTES_SHIFT);
+    }
+
+    /**
+     * Get a packed cell. Two cells look the same exactly when their packed
+     * values are equal.
+     *
+     * @param cell Index of the cell (row * 9 + col).
+     * @return Packed cell.
+     */
+    public int getPacked(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * Get the number in a cell.
+     *
+     * @param cell Index of the cell (row * 9 + col).
+     * @return Number in [1, 9], or 0 if the cell is empty.
+     */
+    public int getNumber(int cell) {
+        return cells[cell] & NUMBER;
+    }
+
+    /**
+     * Determine if a cell holds a given.
+     *
+     * @param cell Index of the cell (row * 9 + col).
+     * @return True if the cell's number is a given.
+     */
+    public boolean isGiven(int cell) {
+        return (cells[cell] & GIVEN) != 0;
+    }
+
+    /**
+     * Get the notes in a cell.
+     *
+     * @param cell Index of the cell (row * 9 + col).
+     * @return Note mask; bit n is set if n is a note.
+     */
+    public int getNoteMask(int cell) {
+        return cells[cell] >>> NOTES_SHIFT;
+    }
+}
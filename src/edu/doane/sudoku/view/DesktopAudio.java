@@ -1,19 +1,21 @@
 package edu.doane.sudoku.view;
 
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-import javafx.util.Duration;
-
-import java.net.URISyntaxException;
+import javafx.scene.media.AudioClip;
 
 /**
  * Singleton class providing simple audio for the desktop SuDoKu application.
+ * The sounds are short AudioClips, decoded into memory once by load(), so
+ * playing one is a quick call that doesn't wait on the media stack. An
+ * AudioClip mixes each play() in over any copies still playing, so a
+ * sound can start again before the last one has finished, as when numbers
+ * are typed quickly, from one clip per sound.
  *
  * @author Mark M. Meysenburg
  * @version 01/10/2020
  */
-public class DesktopAudio {
+public class DesktopAudio implements SuDoKuAudio {
 
     /**
      * Reference to the one instance of the audio player that's allowed to exist.
@@ -21,82 +23,86 @@ public class DesktopAudio {
     private static DesktopAudio instance = null;
 
     /**
-     * Media for celebrating a win.
+     * Sound for celebrating a win.
      */
-    private MediaPlayer celebrateMedia;
+    private volatile AudioClip celebrate;
 
     /**
-     * Media for clearing the grid.
+     * Sound for clearing the grid.
      */
-    private MediaPlayer clearGridMedia;
+    private volatile AudioClip clearGrid;
 
     /**
-     * Media for erasing a number.
+     * Sound for erasing a number.
      */
-    private MediaPlayer eraseNumberMedia;
+    private volatile AudioClip eraseNumber;
 
     /**
-     * Media for starting a new game.
+     * Sound for starting a new game.
      */
-    private MediaPlayer newGameMedia;
+    private volatile AudioClip newGame;
 
     /**
-     * Media for toggling a note.
+     * Sound for toggling a note.
      */
-    private MediaPlayer noteToggleMedia;
+    private volatile AudioClip noteToggle;
 
     /**
-     * Media for playing a number.
+     * Sound for playing a number.
      */
-    private MediaPlayer playNumberMedia;
-
-    private MediaPlayer punishSound;
+    private volatile AudioClip playNumber;
 
     /**
-     * Private default constructor prevents users from instantiating.
+     * Sound for taking a hint or giving up.
      */
-    private DesktopAudio() {
-        try {
-            // celebration media
-            Media media1 = new Media(ClassLoader.getSystemResource("resources/audio/celebrate.wav").toURI().toString());
-            celebrateMedia = new MediaPlayer(media1);
-            celebrateMedia.setAutoPlay(false);
-
-            // clear grid media
-            Media media2 = new Media(ClassLoader.getSystemResource("resources/audio/clear-grid.wav").toURI().toString());
-            clearGridMedia = new MediaPlayer(media2);
-            clearGridMedia.setAutoPlay(false);
+    private volatile AudioClip punish;
 
-            // erase number media
-            Media media3 = new Media(ClassLoader.getSystemResource("resources/audio/erase-number.wav").toURI().toString());
-            eraseNumberMedia = new MediaPlayer(media3);
-            eraseNumberMedia.setAutoPlay(false);
-
-            // new game media
-            Media media4 = new Media(ClassLoader.getSystemResource("resources/audio/new-game.wav").toURI().toString());
-            newGameMedia = new MediaPlayer(media4);
-            newGameMedia.setAutoPlay(false);
-
-            // note toggle media
-            Media media5 = new Media(ClassLoader.getSystemResource("resources/audio/note-toggle.wav").toURI().toString());
-            noteToggleMedia = new MediaPlayer(media5);
-            noteToggleMedia.setAutoPlay(false);
-
-            // play number media
-            Media media6 = new Media(ClassLoader.getSystemResource("resources/audio/play-number.wav").toURI().toString());
-            playNumberMedia = new MediaPlayer(media6);
-            playNumberMedia.setAutoPlay(false);
+    /**
+     * Has load() been called yet?
+     */
+    private boolean loadStarted = false;
 
-            Media media7 = new Media(ClassLoader.getSystemResource("resources/audio/punishSound.wav").toURI().toString());
-            punishSound = new MediaPlayer(media7);
-            punishSound.setAutoPlay(false);
+    /**
+     * Private default constructor prevents users from instantiating. No
+     * media is loaded until load() is called.
+     */
+    private DesktopAudio() {
+    }
 
+    /**
+     * Load the audio media. Slow, so best called on a background thread
+     * at startup; sounds requested before their media has loaded are
+     * skipped. The sounds made while typing are loaded first. Only the
+     * first call does anything.
+     */
+    public void load() {
+        synchronized (this) {
+            if (loadStarted) {
+                return;
+            }
+            loadStarted = true;
+        }
 
+        try {
+            playNumber = loadClip("play-number.wav");
+            eraseNumber = loadClip("erase-number.wav");
+            noteToggle = loadClip("note-toggle.wav");
+            punish = loadClip("punishSound.wav");
+            newGame = loadClip("new-game.wav");
+            clearGrid = loadClip("clear-grid.wav");
+            celebrate = loadClip("celebrate.wav");
         } catch (Exception exception) {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle("Media Error");
-            alert.setHeaderText(null);
-            alert.setContentText("Unable to load audio media.");
+            System.err.println("Unable to load audio media.");
+            System.err.println(exception.toString());
+
+            // alerts can only be made on the JavaFX thread
+            Platform.runLater(() -> {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("Media Error");
+                alert.setHeaderText(null);
+                alert.setContentText("Unable to load audio media.");
+                alert.show();
+            });
         }
     }
 
@@ -105,7 +111,7 @@ public class DesktopAudio {
      *
      * @return The instance of the DesktopAudio object.
      */
-    public static DesktopAudio getInstance() {
+    public static synchronized DesktopAudio getInstance() {
         if(instance == null) {
             instance = new DesktopAudio();
         }
@@ -116,78 +122,79 @@ public class DesktopAudio {
     /**
      * Play the win game sound.
      */
+    @Override
     public void playCelebrate() {
-        if(playNumberMedia != null) {
-            playNumberMedia.stop();
-            playNumberMedia.setStartTime(Duration.seconds(0));
-            playNumberMedia.play();
-        }
+        play(celebrate);
     }
 
     /**
      * Play the clear grid sound.
      */
+    @Override
     public void playClearGrid() {
-        if(clearGridMedia != null) {
-            clearGridMedia.stop();
-            clearGridMedia.setStartTime(Duration.seconds(0));
-            clearGridMedia.play();
-        }
+        play(clearGrid);
     }
 
     /**
      * Play the erase number sound.
      */
+    @Override
     public void playEraseNumber() {
-        if(eraseNumberMedia != null) {
-            eraseNumberMedia.stop();
-            eraseNumberMedia.setStartTime(Duration.seconds(0));
-            eraseNumberMedia.play();
-        }
+        play(eraseNumber);
     }
 
     /**
      * Play the new game sound.
      */
+    @Override
     public void playNewGame() {
-        if(newGameMedia != null) {
-            newGameMedia.stop();
-            newGameMedia.setStartTime(Duration.seconds(0));
-            newGameMedia.play();
-        }
+        play(newGame);
     }
 
     /**
      * Play the note toggling sound.
      */
+    @Override
     public void playNoteToggle() {
-        if(noteToggleMedia != null) {
-            noteToggleMedia.stop();
-            noteToggleMedia.setStartTime(Duration.seconds(0));
-            noteToggleMedia.play();
-        }
+        play(noteToggle);
     }
 
     /**
      * Play the play number sound.
      */
+    @Override
     public void playPlayNumber() {
-        if(playNumberMedia != null) {
-            playNumberMedia.stop();
-            playNumberMedia.setStartTime(Duration.seconds(0));
-            playNumberMedia.play();
-        }
+        play(playNumber);
     }
 
     /**
      * Play the punish sound
      */
-
+    @Override
     public void playPunish(){
-        if(punishSound != null){
-            punishSound.stop();
-            punishSound.setStartTime(Duration.seconds(0));
-            punishSound.play();
+        play(punish);
+    }
+
+    /**
+     * Load a sound.
+     *
+     * @param name File name of the sound in resources/audio.
+     * @return The sound, decoded.
+     * @throws Exception If the sound can't be found or loaded.
+     */
+    private static AudioClip loadClip(String name) throws Exception {
+        return new AudioClip(ClassLoader.getSystemResource("resources/audio/" + name)
+                .toURI().toString());
+    }
+
+    /**
+     * Play a sound, if it has been loaded.
+     *
+     * @param clip Sound to play, or null if it hasn't been loaded yet.
+     */
+    private static void play(AudioClip clip) {
+        if (clip != null) {
+            clip.play();
         }
     }
 }
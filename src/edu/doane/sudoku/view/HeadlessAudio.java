@@ -0,0 +1,47 @@
+package edu.doane.sudoku.view;
+
+/**
+ * SuDoKuAudio that plays nothing, for controllers running without a
+ * desktop, e.g., on a server or in load tests. It has no state, so one
+ * instance can be shared by any number of controllers.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class HeadlessAudio implements SuDoKuAudio {
+
+    @Override
+    public void playCelebrate() {
+        // silent
+    }
+
+    @Override
+    public void playClearGrid() {
+        // silent
+    }
+
+    @Override
+    public void playEraseNumber() {
+        // silent
+    }
+
+    @Override
+    public void playNewGame() {
+        // silent
+    }
+
+    @Override
+    public void playNoteToggle() {
+        // silent
+    }
+
+    @Override
+    public void playPlayNumber() {
+        // silent
+    }
+
+    @Override
+    public void playPunish() {
+        // silent
+    }
+}
@@ -0,0 +1,231 @@
+package edu.doane.sudoku.view;
+
+/**
+ * SuDoKuUI with no window, for driving a controller from code, e.g., in
+ * load tests. It keeps what a real view would show: the numbers and
+ * givens on the grid, the notes, the timer text, and the last game
+ * celebrated. Every confirmation is answered yes, except confirmExit(),
+ * which is answered no so a controller can't exit the JVM.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class HeadlessUI implements SuDoKuUI {
+
+    /**
+     * Number shown in each cell (row * 9 + col), or 0.
+     */
+    private final int[] numbers = new int[81];
+
+    /**
+     * Whether each cell shows a given.
+     */
+    private final boolean[] givens = new boolean[81];
+
+    /**
+     * Notes shown in each cell; bit n is set if n is a note.
+     */
+    private final int[] notes = new int[81];
+
+    /**
+     * Difficulty names offered, or null.
+     */
+    private String[] difficulties;
+
+    /**
+     * Text the timer shows.
+     */
+    private String timerValue = "";
+
+    /**
+     * Number of times celebrate() has been called.
+     */
+    private int celebrations;
+
+    /**
+     * GAME_ID passed to the last celebrate(), or -1.
+     */
+    private int celebratedId = -1;
+
+    /**
+     * Whether the grid is hidden by pauseHide().
+     */
+    private boolean hidden;
+
+    @Override
+    public void clearGrid(boolean newGame) {
+        // like the desktop view, a cell only stops being a given when a
+        // new game starts
+        for (int i = 0; i < 81; i++) {
+            if (newGame) {
+                givens[i] = false;
+            }
+            numbers[i] = 0;
+            notes[i] = 0;
+        }
+    }
+
+    @Override
+    public void setDifficulties(String[] difficulties) {
+        this.difficulties = difficulties.clone();
+    }
+
+    @Override
+    public void setGiven(int row, int col, int number) {
+        numbers[row * 9 + col] = number;
+        givens[row * 9 + col] = true;
+        notes[row * 9 + col] = 0;
+    }
+
+    @Override
+    public void setNumber(int row, int col, int number) {
+        numbers[row * 9 + col] = number;
+        notes[row * 9 + col] = 0;
+    }
+
+    @Override
+    public void applyBoard(BoardSnapshot board) {
+        for (int i = 0; i < 81; i++) {
+            numbers[i] = board.getNumber(i);
+            givens[i] = board.isGiven(i);
+            notes[i] = board.getNoteMask(i);
+        }
+    }
+
+    @Override
+    public void toggleNote(int row, int col, int number) {
+        notes[row * 9 + col] ^= 1 << number;
+    }
+
+    @Override
+    public void setTimerValue(String value) {
+        timerValue = value;
+    }
+
+    @Override
+    public void celebrate(int id, int hintCount, String time) {
+        celebrations++;
+        celebratedId = id;
+    }
+
+    @Override
+    public boolean confirmExit() {
+        return false;
+    }
+
+    @Override
+    public boolean confirmNewGame() {
+        return true;
+    }
+
+    @Override
+    public boolean confirmRageQuit() {
+        return true;
+    }
+
+    @Override
+    public void displayAbout() {
+        // nothing to show
+    }
+
+    @Override
+    public boolean confirmHintException() {
+        return true;
+    }
+
+    @Override
+    public void pauseHide() {
+        hidden = !hidden;
+    }
+
+    /**
+     * Get the number shown in a cell.
+     *
+     * @param row Row of the cell, in [0, 8].
+     * @param col Column of the cell, in [0, 8].
+     * @return Number shown, or 0 if the cell is empty.
+     */
+    public int getNumber(int row, int col) {
+        return numbers[row * 9 + col];
+    }
+
+    /**
+     * Determine if a cell shows a given.
+     *
+     * @param row Row of the cell, in [0, 8].
+     * @param col Column of the cell, in [0, 8].
+     * @return True if the cell shows a given.
+     */
+    public boolean isGiven(int row, int col) {
+        return givens[row * 9 + col];
+    }
+
+    /**
+     * Get the notes shown in a cell.
+     *
+     * @param row Row of the cell, in [0, 8].
+     * @param col Column of the cell, in [0, 8].
+     * @return Note mask; bit n is set if n is a note.
+     */
+    public int getNoteMask(int row, int col) {
+        return notes[row * 9 + col];
+    }
+
+    /**
+     * Get the givens shown on the grid.
+     *
+     * @return 81-character game data holding only the givens.
+     */
+    public String getGivenData() {
+        char[] data = new char[81];
+        for (int i = 0; i < 81; i++) {
+            data[i] = givens[i] ? (char) ('0' + numbers[i]) : '0';
+        }
+        return new String(data);
+    }
+
+    /**
+     * Get the difficulty names the controller offered.
+     *
+     * @return Difficulty names, or null if none were offered.
+     */
+    public String[] getDifficulties() {
+        return difficulties == null ? null : difficulties.clone();
+    }
+
+    /**
+     * Get the text the timer shows.
+     *
+     * @return Timer text.
+     */
+    public String getTimerValue() {
+        return timerValue;
+    }
+
+    /**
+     * Get the number of wins celebrated.
+     *
+     * @return Number of calls to celebrate().
+     */
+    public int getCelebrations() {
+        return celebrations;
+    }
+
+    /**
+     * Get the GAME_ID of the last game celebrated.
+     *
+     * @return GAME_ID, or -1 if no game has been won.
+     */
+    public int getCelebratedId() {
+        return celebratedId;
+    }
+
+    /**
+     * Determine if the grid is hidden because the game is paused.
+     *
+     * @return True if the grid is hidden.
+     */
+    public boolean isHidden() {
+        return hidden;
+    }
+}
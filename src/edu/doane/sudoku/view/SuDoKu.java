@@ -2,13 +2,17 @@ package edu.doane.sudoku.view;
 
 import edu.doane.sudoku.controller.DesktopController;
 import edu.doane.sudoku.controller.DesktopTimer;
+import edu.doane.sudoku.controller.StartupReport;
 import edu.doane.sudoku.controller.SuDoKuController;
 import javafx.application.Application;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
@@ -29,33 +33,38 @@ public class SuDoKu extends Application implements SuDoKuUI {
     private SuDoKuController controller;
 
     /**
-     * 9x9 array of UICells, displaying the numbers / notes of the game.
+     * Board displaying the numbers / notes of the game.
      */
-    private UICell[][] cells;
+    private UIBoard board;
 
     /**
-     * Pane holding a 3x3 grid of blocks, each of which holds a 3x3 block of
-     * cells.
+     * Selection model holding the selected cell and notes mode.
      */
-    private UIGrid grid;
+    private UISelection selection;
 
     /**
-     * 3x3 grid of blocks that go on the grid.
+     * Menu bar with Game and Help menus.
      */
-    private UIBlock[][] blocks;
+    private MenuBar mnuBar;
 
     /**
-     * Menu bar with Game and Help menus.
+     * Game menu, which also holds the new game by difficulty submenu.
      */
-    private MenuBar mnuBar;
+    private Menu mnuGame;
 
     /**
      * Status bar, with timer and notes mode strings.
      */
     private UIStatusBar statusBar;
 
+    /**
+     * Debug overlay showing the metrics on top of the grid.
+     */
+    private UIMetricsOverlay metricsOverlay;
+
     @Override
     public void start(Stage primaryStage) throws Exception {
+        long start = StartupReport.now();
 
         // set up the menus
         configureMenus();
@@ -66,11 +75,16 @@ public class SuDoKu extends Application implements SuDoKuUI {
         // set up the status bar
         statusBar = new UIStatusBar();
 
+        // the metrics overlay sits on top of the grid, hidden until asked for
+        Region grid = board.getRegion();
+        StackPane boardPane = new StackPane(grid, metricsOverlay);
+        StackPane.setAlignment(metricsOverlay, Pos.TOP_LEFT);
+
         // configure main UI
         Scene scene = new Scene(new VBox(), 800, 800);
         grid.setPrefSize(800, 800);
         grid.setMaxSize(Region.USE_COMPUTED_SIZE, Region.USE_COMPUTED_SIZE);
-        ((VBox) scene.getRoot()).getChildren().addAll(mnuBar, grid, statusBar);
+        ((VBox) scene.getRoot()).getChildren().addAll(mnuBar, boardPane, statusBar);
         primaryStage.setOnCloseRequest(e -> confirmExit()); //Ryan: Bug Hunt item 4. This line calls the confirmExit when Window's X button is pressed
 
         primaryStage.setScene(scene);
@@ -79,63 +93,35 @@ public class SuDoKu extends Application implements SuDoKuUI {
 
         // display the UI
         primaryStage.show();
+        StartupReport.record("window", start, StartupReport.now());
 
         // create and connect controller and timer
+        long controllerStart = StartupReport.now();
         controller = new DesktopController(this, new DesktopTimer());
+        StartupReport.record("first game", controllerStart, StartupReport.now());
 
         // configure key events
-        scene.setOnKeyPressed(new UIKeyHandler(cells, controller, statusBar));
+        scene.setOnKeyPressed(new UIKeyHandler(selection, controller, statusBar));
     }
 
     /**
-     * Create the game grid (UIGrid, UIBlocks, UICells).
+     * Create the game grid and its selection model. The board is drawn on
+     * a single Canvas when the application is started with
+     * --renderer=canvas, and built from UIGrid, UIBlocks and UICells
+     * otherwise.
      */
     private void configureGrid() {
-        buildCells();
-        buildGrid();
-    }
+        selection = new UISelection(cell -> board.isOpen(cell));
 
-    /**
-     * Create the 9x9 array of UICells displaying the numbers / notes in the
-     * game.
-     */
-    private void buildCells() {
-        cells = new UICell[9][9];
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                cells[row][col] = new UICell();
-            }
-        }
-    }
-
-    /**
-     * Configure one of the JPanels that holds a 3x3 block of cells.
-     *
-     * @param row Row of the block
-     * @param col Column of the block
-     */
-    private void buildBlock(int row, int col) {
-        blocks[row][col] = new UIBlock();
-        for (int r = 0; r < 3; r++) {
-            for (int c = 0; c < 3; c++) {
-                blocks[row][col].add(cells[row * 3 + r][col * 3 + c], c, r, 1, 1);
-            }
-        }
-    }
-
-    /**
-     * Create the Panes that hold the cells and provide the lines between the
-     * cells and blocks of cells.
-     */
-    private void buildGrid() {
-        grid = new UIGrid();
-
-        blocks = new UIBlock[3][3];
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                buildBlock(row, col);
-                grid.add(blocks[row][col], col, row, 1, 1);
+        String renderer = getParameters().getNamed().get("renderer");
+        if ("canvas".equals(renderer)) {
+            board = new UICanvasBoard(selection);
+        } else {
+            if (renderer != null && !renderer.equals("cells")) {
+                System.err.println("Unknown renderer \"" + renderer
+                        + "\"; using cells.");
             }
+            board = new UICellBoard(selection);
         }
     }
 
@@ -143,7 +129,7 @@ public class SuDoKu extends Application implements SuDoKuUI {
      * Create menu bar, menus, and menu items
      */
     private void configureMenus() {
-        Menu mnuGame, mnuHelp;
+        Menu mnuHelp;
         MenuItem mtmNewGame, mtmClearGrid , mtmExit, mtmAbout, mtmRageQuit;
 
         mnuGame = new Menu("_Game");
@@ -192,7 +178,18 @@ public class SuDoKu extends Application implements SuDoKuUI {
             }
         });
 
-        mnuHelp.getItems().addAll(mtmAbout);
+        // debug overlay with the metrics, toggled with F3
+        metricsOverlay = new UIMetricsOverlay();
+        CheckMenuItem mtmMetrics = new CheckMenuItem("_Metrics");
+        mtmMetrics.setAccelerator(KeyCombination.keyCombination("F3"));
+        mtmMetrics.setOnAction(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent event) {
+                metricsOverlay.show(mtmMetrics.isSelected());
+            }
+        });
+
+        mnuHelp.getItems().addAll(mtmAbout, mtmMetrics);
 
 
         mnuBar = new MenuBar(mnuGame, mnuHelp);
@@ -201,7 +198,9 @@ public class SuDoKu extends Application implements SuDoKuUI {
     /**
      * Application entry point.
      *
-     * @param args command-line arguments. Ignored by this application
+     * @param args command-line arguments. --renderer=canvas draws the board
+     *             on a single Canvas; --renderer=cells, the default, builds
+     *             it from nodes
      */
     public static void main(String[] args) {
         launch(args);
@@ -221,15 +220,7 @@ public class SuDoKu extends Application implements SuDoKuUI {
             DesktopAudio.getInstance().playClearGrid();
         }
 
-        for(int row = 0; row < 9; row++) {
-            for(int col = 0; col < 9; col++) {
-                if(newGame) {
-                    cells[row][col].unsetGiven();
-                }
-                cells[row][col].clearNumber();
-                cells[row][col].clearAllNotes();
-            }
-        }
+        board.clear(newGame);
     }
 
     /**
@@ -239,7 +230,20 @@ public class SuDoKu extends Application implements SuDoKuUI {
      */
     @Override
     public void setDifficulties(String[] difficulties) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        Menu mnuDifficulty = new Menu("New game by _difficulty");
+        for (String difficulty : difficulties) {
+            MenuItem mtmDifficulty = new MenuItem(difficulty);
+            mtmDifficulty.setOnAction(new EventHandler<ActionEvent>() {
+                @Override
+                public void handle(ActionEvent event) {
+                    controller.requestGame(difficulty);
+                }
+            });
+            mnuDifficulty.getItems().add(mtmDifficulty);
+        }
+
+        // goes right after the plain "New game" item
+        mnuGame.getItems().add(1, mnuDifficulty);
     }
 
     /**
@@ -251,29 +255,7 @@ public class SuDoKu extends Application implements SuDoKuUI {
      */
     @Override
     public void setGiven(int row, int col, int number) {
-        char n = '0';
-        switch(number) {
-            case 1:
-                n = '1'; break;
-            case 2:
-                n = '2'; break;
-            case 3:
-                n = '3'; break;
-            case 4:
-                n = '4'; break;
-            case 5:
-                n = '5'; break;
-            case 6:
-                n = '6'; break;
-            case 7:
-                n = '7'; break;
-            case 8:
-                n = '8'; break;
-            case 9:
-                n = '9'; break;
-        }
-
-        cells[row][col].setGiven(n);
+        board.setGiven(row, col, number);
     }
 
     /**
@@ -291,31 +273,17 @@ public class SuDoKu extends Application implements SuDoKuUI {
             DesktopAudio.getInstance().playEraseNumber();
         }
 
-        char n = '0';
-        switch(number) {
-            case 0:
-                n = '0'; break;
-            case 1:
-                n = '1'; break;
-            case 2:
-                n = '2'; break;
-            case 3:
-                n = '3'; break;
-            case 4:
-                n = '4'; break;
-            case 5:
-                n = '5'; break;
-            case 6:
-                n = '6'; break;
-            case 7:
-                n = '7'; break;
-            case 8:
-                n = '8'; break;
-            case 9:
-                n = '9'; break;
-        }
+        board.setNumber(row, col, number);
+    }
 
-        cells[row][col].setNumber(n);
+    /**
+     * Show a whole board at once, updating only the cells that changed.
+     *
+     * @param board Board to show.
+     */
+    @Override
+    public void applyBoard(BoardSnapshot board) {
+        this.board.apply(board);
     }
 
     /**
@@ -328,8 +296,7 @@ public class SuDoKu extends Application implements SuDoKuUI {
     @Override
     public void toggleNote(int row, int col, int number) {
         DesktopAudio.getInstance().playNoteToggle();
-        char c = (char)('0' + number);
-        cells[row][col].toggleNote(c);
+        board.toggleNote(row, col, number);
     }
 
     /**
@@ -445,11 +412,7 @@ public class SuDoKu extends Application implements SuDoKuUI {
      */
     @Override
     public void pauseHide(){
-        for (int row = 0; row < 9; row++){
-            for (int col = 0; col < 9; col++){
-                cells[row][col].hide();
-            }
-        }
+        board.togglePaused();
     }
 
 }
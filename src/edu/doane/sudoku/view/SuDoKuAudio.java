@@ -0,0 +1,46 @@
+package edu.doane.sudoku.view;
+
+/**
+ * Interface for the sounds played by SuDoKu applications. Implementations
+ * must be safe to call from any thread.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public interface SuDoKuAudio {
+
+    /**
+     * Play the win game sound.
+     */
+    void playCelebrate();
+
+    /**
+     * Play the clear grid sound.
+     */
+    void playClearGrid();
+
+    /**
+     * Play the erase number sound.
+     */
+    void playEraseNumber();
+
+    /**
+     * Play the new game sound.
+     */
+    void playNewGame();
+
+    /**
+     * Play the note toggling sound.
+     */
+    void playNoteToggle();
+
+    /**
+     * Play the play number sound.
+     */
+    void playPlayNumber();
+
+    /**
+     * Play the punish sound, e.g., when a hint is taken.
+     */
+    void playPunish();
+}
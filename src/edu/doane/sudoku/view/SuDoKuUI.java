@@ -41,6 +41,16 @@ public interface SuDoKuUI {
      */
     void setNumber(int row, int col, int number);
 
+    /**
+     * Show a whole board at once, e.g., when a game is loaded, cleared or
+     * given up: numbers, givens and notes. Only the cells that differ from
+     * what is shown are updated, and no sounds are played; the caller
+     * plays the one sound that goes with the change.
+     *
+     * @param board Board to show.
+     */
+    void applyBoard(BoardSnapshot board);
+
     /**
      * Toggle a number at the specified location.
      *
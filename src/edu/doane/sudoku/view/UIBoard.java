@@ -0,0 +1,80 @@
+package edu.doane.sudoku.view;
+
+import javafx.scene.layout.Region;
+
+/**
+ * Interface for the renderers of the 9x9 board in the desktop SuDoKu game.
+ * The board shows the numbers, notes and selection; SuDoKu handles the
+ * menus, dialogs and sounds around it. Cells are given by row and column,
+ * or by index (row * 9 + col).
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public interface UIBoard {
+
+    /**
+     * Get the JavaFX Region showing the board.
+     *
+     * @return Region to place in the scene.
+     */
+    Region getRegion();
+
+    /**
+     * Remove every number and note from the board.
+     *
+     * @param newGame true if the board is being cleared for a new game, in
+     *                which case no cell holds a given any more; false
+     *                otherwise.
+     */
+    void clear(boolean newGame);
+
+    /**
+     * Place a given in a cell.
+     *
+     * @param row    Row of the cell.
+     * @param col    Column of the cell.
+     * @param number Given, in [1, 9].
+     */
+    void setGiven(int row, int col, int number);
+
+    /**
+     * Place a number in a cell, or erase it.
+     *
+     * @param row    Row of the cell.
+     * @param col    Column of the cell.
+     * @param number Number in [1, 9], or 0 to erase the cell's number.
+     */
+    void setNumber(int row, int col, int number);
+
+    /**
+     * Show a whole board, updating only the cells that differ from what is
+     * shown.
+     *
+     * @param board Board to show.
+     */
+    void apply(BoardSnapshot board);
+
+    /**
+     * Toggle a note in a cell.
+     *
+     * @param row    Row of the cell.
+     * @param col    Column of the cell.
+     * @param number Note to toggle, in [1, 9].
+     */
+    void toggleNote(int row, int col, int number);
+
+    /**
+     * Hide the numbers and notes while the game is paused, or show them
+     * again when it is resumed.
+     */
+    void togglePaused();
+
+    /**
+     * Is a cell open, i.e., without a number in it?
+     *
+     * @param cell Index of the cell (row * 9 + col).
+     * @return True if the cell holds no number, false otherwise.
+     */
+    boolean isOpen(int cell);
+}
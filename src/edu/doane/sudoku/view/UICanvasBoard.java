@@ -0,0 +1,397 @@
+package edu.doane.sudoku.view;
+
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Board renderer drawing the whole board on one Canvas, for machines where
+ * the thousand or so nodes of UICellBoard make every update slow. The
+ * board is kept in arrays; a change marks its cell dirty, and the dirty
+ * cells are repainted together once the current event has been handled.
+ * The cell under the mouse pointer is found from its coordinates, so the
+ * cells need no nodes or handlers of their own. It looks like
+ * UICellBoard: the same colors, fonts, gaps and note positions.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class UICanvasBoard extends Pane implements UIBoard {
+
+    /**
+     * Width of the black gap between blocks, in pixels.
+     */
+    private static final double BLOCK_GAP = 4;
+
+    /**
+     * Width of the gap between cells in a block, in pixels.
+     */
+    private static final double CELL_GAP = 2;
+
+    /**
+     * Color of the cells in their normal state.
+     */
+    private static final Color NORMAL = Color.LIGHTGRAY;
+
+    /**
+     * Color of the cell selected for number entry.
+     */
+    private static final Color SELECTED = Color.LAVENDERBLUSH;
+
+    /**
+     * Color of the cell selected for notes entry.
+     */
+    private static final Color NOTES = Color.LIGHTPINK;
+
+    /**
+     * Font of the numbers.
+     */
+    private static final Font NUMBER_FONT = Font.font("ArialBold", 20);
+
+    /**
+     * Font of the notes.
+     */
+    private static final Font NOTE_FONT = Font.font("Arial", 12);
+
+    /**
+     * Horizontal position of each note's center, as a fraction of the
+     * cell's width; location 0 is not used. 1 - 3 go up the left side, 4 -
+     * 6 across the top, and 7 - 9 down the right side.
+     */
+    private static final double[] NOTE_X = {0, 0.1, 0.1, 0.1, 0.3, 0.5, 0.7, 0.9, 0.9, 0.9};
+
+    /**
+     * Vertical position of each note's center, as a fraction of the cell's
+     * height; location 0 is not used.
+     */
+    private static final double[] NOTE_Y = {0, 0.83, 0.5, 0.17, 0.17, 0.17, 0.17, 0.17, 0.5, 0.83};
+
+    /**
+     * Canvas the board is drawn on.
+     */
+    private final Canvas canvas;
+
+    /**
+     * Selection model shared with the key handler.
+     */
+    private final UISelection selection;
+
+    /**
+     * Number in each cell, or 0.
+     */
+    private final byte[] numbers = new byte[81];
+
+    /**
+     * True for the cells holding givens.
+     */
+    private final boolean[] givens = new boolean[81];
+
+    /**
+     * Notes in each cell; bit n is set if note n is.
+     */
+    private final short[] notes = new short[81];
+
+    /**
+     * True for the cells that need repainting.
+     */
+    private final boolean[] dirty = new boolean[81];
+
+    /**
+     * True if a repaint of the dirty cells has been scheduled.
+     */
+    private boolean repaintPending;
+
+    /**
+     * True while the game is paused and the numbers are hidden.
+     */
+    private boolean paused;
+
+    /**
+     * Create an empty board.
+     *
+     * @param selection Selection model; the board shows its selected cell,
+     *                  and selects the cell under the mouse pointer.
+     */
+    public UICanvasBoard(UISelection selection) {
+        super();
+        this.selection = selection;
+
+        canvas = new Canvas();
+        getChildren().add(canvas);
+
+        // moving the mouse over a cell selects it, as with UICell
+        canvas.setOnMouseMoved(e -> {
+            int cell = cellAt(e.getX(), e.getY());
+            if (cell != UISelection.NONE) {
+                selection.select(cell);
+            }
+        });
+
+        selection.setListener((previous, selected) -> {
+            if (previous != UISelection.NONE) {
+                markDirty(previous);
+            }
+            if (selected != UISelection.NONE) {
+                markDirty(selected);
+            }
+        });
+    }
+
+    @Override
+    public Region getRegion() {
+        return this;
+    }
+
+    @Override
+    public void clear(boolean newGame) {
+        for (int i = 0; i < 81; i++) {
+            if (newGame) {
+                givens[i] = false;
+            }
+            numbers[i] = 0;
+            notes[i] = 0;
+            markDirty(i);
+        }
+    }
+
+    @Override
+    public void setGiven(int row, int col, int number) {
+        int cell = row * 9 + col;
+        givens[cell] = true;
+        numbers[cell] = (byte) number;
+        markDirty(cell);
+    }
+
+    @Override
+    public void setNumber(int row, int col, int number) {
+        int cell = row * 9 + col;
+        numbers[cell] = (byte) number;
+        markDirty(cell);
+    }
+
+    @Override
+    public void apply(BoardSnapshot board) {
+        for (int i = 0; i < 81; i++) {
+            if (board.getPacked(i) != BoardSnapshot.pack(numbers[i], givens[i], notes[i])) {
+                numbers[i] = (byte) board.getNumber(i);
+                givens[i] = board.isGiven(i);
+                notes[i] = (short) board.getNoteMask(i);
+                markDirty(i);
+            }
+        }
+    }
+
+    @Override
+    public void toggleNote(int row, int col, int number) {
+        int cell = row * 9 + col;
+        notes[cell] ^= 1 << number;
+        markDirty(cell);
+    }
+
+    @Override
+    public void togglePaused() {
+        paused = !paused;
+        for (int i = 0; i < 81; i++) {
+            markDirty(i);
+        }
+    }
+
+    @Override
+    public boolean isOpen(int cell) {
+        return numbers[cell] == 0;
+    }
+
+    /**
+     * Size the canvas to the pane, redrawing everything if the size
+     * changed.
+     */
+    @Override
+    protected void layoutChildren() {
+        double w = snapSizeX(getWidth());
+        double h = snapSizeY(getHeight());
+        if (canvas.getWidth() != w || canvas.getHeight() != h) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            paintAll();
+        }
+    }
+
+    /**
+     * Find the cell at a point on the canvas.
+     *
+     * @param x Horizontal coordinate.
+     * @param y Vertical coordinate.
+     * @return Index of the cell (row * 9 + col), or NONE if the point is
+     * on a gap or off the board.
+     */
+    private int cellAt(double x, double y) {
+        int col = lineAt(x, canvas.getWidth());
+        int row = lineAt(y, canvas.getHeight());
+        return row < 0 || col < 0 ? UISelection.NONE : row * 9 + col;
+    }
+
+    /**
+     * Find the row or column at a coordinate.
+     *
+     * @param p    Coordinate.
+     * @param size Width or height of the board.
+     * @return Row or column in [0, 8], or -1 if the coordinate is on a gap
+     * or off the board.
+     */
+    private static int lineAt(double p, double size) {
+        double block = blockSize(size);
+        double cell = cellSize(size);
+        if (p < 0) {
+            return -1;
+        }
+        int b = (int) (p / (block + BLOCK_GAP));
+        double inBlock = p - b * (block + BLOCK_GAP);
+        if (b > 2 || inBlock >= block) {
+            return -1;
+        }
+        int c = (int) (inBlock / (cell + CELL_GAP));
+        if (c > 2 || inBlock - c * (cell + CELL_GAP) >= cell) {
+            return -1;
+        }
+        return b * 3 + c;
+    }
+
+    /**
+     * Get the width or height of a block.
+     *
+     * @param size Width or height of the board.
+     * @return Size of a block.
+     */
+    private static double blockSize(double size) {
+        return (size - 2 * BLOCK_GAP) / 3;
+    }
+
+    /**
+     * Get the width or height of a cell.
+     *
+     * @param size Width or height of the board.
+     * @return Size of a cell.
+     */
+    private static double cellSize(double size) {
+        return (blockSize(size) - 2 * CELL_GAP) / 3;
+    }
+
+    /**
+     * Get where a row or column starts.
+     *
+     * @param line Row or column, in [0, 8].
+     * @param size Width or height of the board.
+     * @return Coordinate of its top or left edge.
+     */
+    private static double offset(int line, double size) {
+        return line / 3 * (blockSize(size) + BLOCK_GAP) + line % 3 * (cellSize(size) + CELL_GAP);
+    }
+
+    /**
+     * Mark a cell as needing a repaint, scheduling one if need be, so a
+     * burst of changes costs one repaint.
+     *
+     * @param cell Index of the cell.
+     */
+    private void markDirty(int cell) {
+        dirty[cell] = true;
+        if (!repaintPending) {
+            repaintPending = true;
+            Platform.runLater(this::paintDirty);
+        }
+    }
+
+    /**
+     * Repaint the dirty cells.
+     */
+    private void paintDirty() {
+        repaintPending = false;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        for (int i = 0; i < 81; i++) {
+            if (dirty[i]) {
+                paintCell(gc, i);
+            }
+        }
+    }
+
+    /**
+     * Paint the whole board: the gaps, then every cell.
+     */
+    private void paintAll() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double w = canvas.getWidth();
+        double h = canvas.getHeight();
+
+        // the board is black, showing through between blocks, and the
+        // blocks are dark slate gray, showing through between cells
+        gc.setFill(Color.BLACK);
+        gc.fillRect(0, 0, w, h);
+        gc.setFill(Color.DARKSLATEGRAY);
+        for (int row = 0; row < 9; row += 3) {
+            for (int col = 0; col < 9; col += 3) {
+                gc.fillRect(offset(col, w), offset(row, h), blockSize(w), blockSize(h));
+            }
+        }
+
+        for (int i = 0; i < 81; i++) {
+            paintCell(gc, i);
+        }
+    }
+
+    /**
+     * Paint one cell: its background, number and notes.
+     *
+     * @param gc   Graphics context of the canvas.
+     * @param cell Index of the cell.
+     */
+    private void paintCell(GraphicsContext gc, int cell) {
+        dirty[cell] = false;
+        double w = canvas.getWidth();
+        double h = canvas.getHeight();
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        // whole pixels, so repainting a cell never blends into the gaps
+        double x = Math.round(offset(cell % 9, w));
+        double y = Math.round(offset(cell / 9, h));
+        double cw = Math.round(offset(cell % 9, w) + cellSize(w)) - x;
+        double ch = Math.round(offset(cell / 9, h) + cellSize(h)) - y;
+
+        if (!selection.isSelected(cell)) {
+            gc.setFill(NORMAL);
+        } else if (selection.isNotesMode()) {
+            gc.setFill(NOTES);
+        } else {
+            gc.setFill(SELECTED);
+        }
+        gc.fillRect(x, y, cw, ch);
+
+        if (paused) {
+            return;
+        }
+
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        if (numbers[cell] != 0) {
+            gc.setFont(NUMBER_FONT);
+            gc.setFill(givens[cell] ? Color.BLACK : Color.BLUE);
+            gc.fillText(Integer.toString(numbers[cell]), x + cw / 2, y + ch / 2);
+        }
+        if (notes[cell] != 0) {
+            gc.setFont(NOTE_FONT);
+            gc.setFill(Color.RED);
+            for (int n = 1; n <= 9; n++) {
+                if ((notes[cell] & (1 << n)) != 0) {
+                    gc.fillText(Integer.toString(n), x + cw * NOTE_X[n], y + ch * NOTE_Y[n]);
+                }
+            }
+        }
+    }
+}
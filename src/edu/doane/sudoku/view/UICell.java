@@ -55,19 +55,19 @@ public class UICell extends BorderPane implements EventHandler<MouseEvent> {
     private boolean isRunning;
 
     /**
-     * Flag indicating notes mode or normal number mode.
+     * Flag indicating if this cell holds a given or not.
      */
-    private boolean notesMode;
+    private boolean isGiven;
 
     /**
-     * Flag indicating if this cell holds a given or not.
+     * Index of this cell (row * 9 + col).
      */
-    private boolean isGiven;
+    private final int index;
 
     /**
-     * True if the mouse pointer is over this cell and we're not in notes mode.
+     * Selection model shared by all the cells.
      */
-    private boolean isSelected;
+    private final UISelection selection;
 
     /**
      * Label showing the number held in the cell.
@@ -81,9 +81,14 @@ public class UICell extends BorderPane implements EventHandler<MouseEvent> {
 
     /**
      * Set up an empty, no-notes, un-selected cell.
+     *
+     * @param index     Index of the cell (row * 9 + col).
+     * @param selection Selection model shared by all the cells.
      */
-    public UICell() {
+    public UICell(int index, UISelection selection) {
         super();
+        this.index = index;
+        this.selection = selection;
 
         // create and initialize the notes array; location 0 is not used
         notes = new boolean[10];
@@ -139,38 +144,35 @@ public class UICell extends BorderPane implements EventHandler<MouseEvent> {
         setCenter(lblNumber);
 
         // set initial flags for our modes
-        notesMode = false;
-        isSelected = false;
         isGiven = false;
         isRunning = true;
 
-        // the class handles its own mouse entry and exit events, to set the
-        // background fill color and selectedness of the cell
+        // moving the mouse over the cell selects it; the selection stays
+        // when the pointer leaves, so the keyboard can carry on from there
         setOnMouseEntered(this);
-        setOnMouseExited(this);
-    }
-
-    /**
-     * Turn on notes-entry mode.
-     */
-    public void setNotesMode() {
-        notesMode = true;
     }
 
     /**
-     * Turn off notes-entering mode.
+     * Set the background to show whether the cell is selected, and in
+     * which mode. Called by the selection model's listener.
      */
-    public void setNormalMode() {
-        notesMode = false;
+    public void showSelection() {
+        if (!selection.isSelected(index)) {
+            setBackground(normalBackground);
+        } else if (selection.isNotesMode()) {
+            setBackground(notesBackground);
+        } else {
+            setBackground(selectedBackground);
+        }
     }
 
     /**
-     * Is this cell selected? I.e., is the mouse pointer over the cell?
+     * Is this cell open, i.e., without a number in it?
      *
-     * @return True if the cell is selected, false otherwise.
+     * @return True if the cell holds no number, false otherwise.
      */
-    public boolean isSelected() {
-        return isSelected;
+    public boolean isOpen() {
+        return num.isEmpty() || num.equals("0");
     }
 
     /**
@@ -266,15 +268,7 @@ public class UICell extends BorderPane implements EventHandler<MouseEvent> {
     @Override
     public void handle(MouseEvent event) {
         if(event.getEventType().equals(MouseEvent.MOUSE_ENTERED)) {
-            isSelected = true;
-            if(notesMode) {
-                setBackground(notesBackground);
-            } else {
-                setBackground(selectedBackground);
-            }
-        } else if(event.getEventType().equals(MouseEvent.MOUSE_EXITED)) {
-            isSelected = false;
-            setBackground(normalBackground);
+            selection.select(index);
         }
     }
 }
@@ -0,0 +1,189 @@
+package edu.doane.sudoku.view;
+
+import javafx.scene.layout.Region;
+
+/**
+ * Board renderer made of JavaFX nodes: a UIGrid holding a 3x3 grid of
+ * UIBlocks, each holding a 3x3 block of UICells.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class UICellBoard extends UIGrid implements UIBoard {
+
+    /**
+     * 9x9 array of UICells, displaying the numbers / notes of the game.
+     */
+    private final UICell[][] cells;
+
+    /**
+     * What each cell shows, packed as in BoardSnapshot, so apply() can
+     * skip the cells that are already right.
+     */
+    private final int[] shown = new int[81];
+
+    /**
+     * True while the game is paused and the cells are hidden.
+     */
+    private boolean paused;
+
+    /**
+     * Build the grid, blocks and cells.
+     *
+     * @param selection Selection model; the board shows its selected cell.
+     */
+    public UICellBoard(UISelection selection) {
+        super();
+
+        cells = new UICell[9][9];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                cells[row][col] = new UICell(row * 9 + col, selection);
+            }
+        }
+
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                add(buildBlock(row, col), col, row, 1, 1);
+            }
+        }
+
+        // only the cells whose selection changed are redrawn
+        selection.setListener((previous, selected) -> {
+            if (previous != UISelection.NONE) {
+                cells[previous / 9][previous % 9].showSelection();
+            }
+            if (selected != UISelection.NONE && selected != previous) {
+                cells[selected / 9][selected % 9].showSelection();
+            }
+        });
+
+        // new cells show "0" and won't display played numbers until they
+        // have been cleared for a game, so clear them now; after this,
+        // shown[] matches what every cell really shows
+        clear(true);
+    }
+
+    /**
+     * Configure one of the Panes that holds a 3x3 block of cells.
+     *
+     * @param row Row of the block
+     * @param col Column of the block
+     * @return The block.
+     */
+    private UIBlock buildBlock(int row, int col) {
+        UIBlock block = new UIBlock();
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 3; c++) {
+                block.add(cells[row * 3 + r][col * 3 + c], c, r, 1, 1);
+            }
+        }
+        return block;
+    }
+
+    @Override
+    public Region getRegion() {
+        return this;
+    }
+
+    @Override
+    public void clear(boolean newGame) {
+        for(int row = 0; row < 9; row++) {
+            for(int col = 0; col < 9; col++) {
+                if(newGame) {
+                    cells[row][col].unsetGiven();
+                }
+                cells[row][col].clearNumber();
+                cells[row][col].clearAllNotes();
+                shown[row * 9 + col] &= newGame ? 0 : BoardSnapshot.GIVEN;
+            }
+        }
+    }
+
+    @Override
+    public void setGiven(int row, int col, int number) {
+        cells[row][col].setGiven(toChar(number));
+        int cell = row * 9 + col;
+        shown[cell] = (shown[cell] & ~BoardSnapshot.NUMBER) | BoardSnapshot.GIVEN | number;
+    }
+
+    @Override
+    public void setNumber(int row, int col, int number) {
+        cells[row][col].setNumber(toChar(number));
+        int cell = row * 9 + col;
+        shown[cell] = (shown[cell] & ~BoardSnapshot.NUMBER) | number;
+    }
+
+    @Override
+    public void apply(BoardSnapshot board) {
+        for (int i = 0; i < 81; i++) {
+            int changed = shown[i] ^ board.getPacked(i);
+            if (changed == 0) {
+                continue;
+            }
+            UICell cell = cells[i / 9][i % 9];
+
+            // the same calls clearGrid() and the controller's loops made
+            if ((changed & (BoardSnapshot.NUMBER | BoardSnapshot.GIVEN)) != 0) {
+                int number = board.getNumber(i);
+                if (board.isGiven(i)) {
+                    cell.setGiven(toChar(number));
+                } else {
+                    cell.unsetGiven();
+                    if (number == 0) {
+                        cell.clearNumber();
+                    } else {
+                        cell.setNumber(toChar(number));
+                    }
+                }
+            }
+
+            // toggle just the notes that differ
+            int notes = changed >>> BoardSnapshot.NOTES_SHIFT;
+            for (int n = 1; n <= 9; n++) {
+                if ((notes & (1 << n)) != 0) {
+                    cell.toggleNote(toChar(n));
+                }
+            }
+            shown[i] = board.getPacked(i);
+        }
+    }
+
+    @Override
+    public void toggleNote(int row, int col, int number) {
+        cells[row][col].toggleNote(toChar(number));
+        shown[row * 9 + col] ^= 1 << (number + BoardSnapshot.NOTES_SHIFT);
+    }
+
+    @Override
+    public void togglePaused() {
+        for (int row = 0; row < 9; row++){
+            for (int col = 0; col < 9; col++){
+                cells[row][col].hide();
+            }
+        }
+
+        // the cells drop their notes when they are shown again
+        paused = !paused;
+        if (!paused) {
+            for (int i = 0; i < 81; i++) {
+                shown[i] &= (1 << BoardSnapshot.NOTES_SHIFT) - 1;
+            }
+        }
+    }
+
+    @Override
+    public boolean isOpen(int cell) {
+        return cells[cell / 9][cell % 9].isOpen();
+    }
+
+    /**
+     * Convert a number to the character the cells take.
+     *
+     * @param number Number in [0, 9].
+     * @return Character '0' through '9'; '0' for anything out of range.
+     */
+    private static char toChar(int number) {
+        return number >= 1 && number <= 9 ? (char) ('0' + number) : '0';
+    }
+}
@@ -1,25 +1,45 @@
 package edu.doane.sudoku.view;
 
 import edu.doane.sudoku.controller.SuDoKuController;
+import edu.doane.sudoku.metrics.CommandEvent;
 import javafx.event.EventHandler;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 
+import java.util.EnumMap;
+
 /**
- * Class to handle keyboard input in the desktop SuDoKu game.
+ * Class to handle keyboard input in the desktop SuDoKu game. Each key is
+ * looked up in a table of commands, and commands on a cell go to the cell
+ * held by the selection model. Besides the game commands, the keyboard
+ * moves the selection: the arrow keys move it one cell, Home and End go
+ * to the ends of the row (or, with the shortcut key, of the grid), and
+ * Tab and Shift+Tab jump to the next and previous open cell.
  *
  * @author Mark M. Meysenburg
  * @version 1/11/2020
  */
 public class UIKeyHandler implements EventHandler<KeyEvent> {
+
     /**
-     * Flag telling if we're in note entry mode or not.
+     * Something a key does.
      */
-    private boolean notesMode;
+    private interface Command {
+
+        /**
+         * Carry out the command.
+         *
+         * @param event Key event that asked for it.
+         * @return Name of the controller command carried out, to be
+         * recorded, or null if it was only navigation or did nothing.
+         */
+        String run(KeyEvent event);
+    }
 
     /**
-     * Reference to the cells in the user interface.
+     * Selection model holding the selected cell and notes mode.
      */
-    private final UICell[][] cells;
+    private final UISelection selection;
 
     /**
      * Reference to the status bar.
@@ -31,149 +51,195 @@ public class UIKeyHandler implements EventHandler<KeyEvent> {
      */
     private SuDoKuController controller;
 
+    /**
+     * Command for each key that does something.
+     */
+    private final EnumMap<KeyCode, Command> commands = new EnumMap<>(KeyCode.class);
+
     /**
      * Construct the key handler.
      *
-     * @param cells User interface cells
+     * @param selection Selection model shared with the user interface cells
      * @param controller Reference to the application's controller
      * @param pnlStatusBar User interface status bar
      */
-    public UIKeyHandler(UICell[][] cells, SuDoKuController controller, UIStatusBar pnlStatusBar) {
-        this.cells = cells;
+    public UIKeyHandler(UISelection selection, SuDoKuController controller, UIStatusBar pnlStatusBar) {
+        this.selection = selection;
         this.controller = controller;
-        notesMode = false;
         this.pnlStatusBar = pnlStatusBar;
+        buildCommands();
     }
 
     @Override
     public void handle(KeyEvent event) {
-        // get the character typed
-        char c = event.getCode().getChar().charAt(0);
-
-        // and handle the input
-        switch (c) {
-            // n toggles notes mode
-            case 'n':
-            case 'N':
-                notesMode = !notesMode;
-                setNotesOrNormal();
-
-                break;
-            case 'h':
-            case 'H':
-
-                // get hint
-                getHint(c);
-
-                break;
-
-            //pause
-            case 'p':
-            case 'P':
-                pause(c);
-                break;
-
-            // 1 - 9 sets number or note
-            case '1':
-            case '2':
-            case '3':
-            case '4':
-            case '5':
-            case '6':
-            case '7':
-            case '8':
-            case '9':
-                if (notesMode) {
-                    setNote(c);
-                } else {
-                    setNumber(c);
-                }
-                break;
-
-            // space clears number from cell
-            case ' ':
-                if (!notesMode) {
-                    setNumber(' ');
-                }
-                break;
+        Command command = commands.get(event.getCode());
+        if (command == null) {
+            return;
+        }
+        event.consume();
+
+        CommandEvent jfr = new CommandEvent();
+        jfr.begin();
+        String name = command.run(event);
+
+        // navigation isn't recorded
+        jfr.end();
+        if (name != null && jfr.shouldCommit()) {
+            jfr.command = name;
+            jfr.cell = selection.getSelected();
+            jfr.commit();
         }
     }
 
     /**
-     * Cause a note to be set in the selected cell.
-     *
-     * @param c Character holding number value to set.
+     * Fill in the table of commands.
      */
-    private void setNote(char c) {
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                if (cells[row][col].isSelected()) {
-                    // ask the controller to set the note
-                    controller.setNote(row, col, Integer.parseInt(Character.toString(c)));
-
-                    // get us out of the loop once the note has been set
-                    break;
-                }
-            }
+    private void buildCommands() {
+        // n toggles notes mode
+        commands.put(KeyCode.N, e -> toggleNotesMode());
+
+        // get hint
+        commands.put(KeyCode.H, e -> getHint());
+
+        //pause
+        commands.put(KeyCode.P, e -> pause());
+
+        // 1 - 9 sets number or note, from the main keys or the keypad
+        for (int n = 1; n <= 9; n++) {
+            int number = n;
+            Command c = e -> setNumberOrNote(number);
+            commands.put(KeyCode.valueOf("DIGIT" + n), c);
+            commands.put(KeyCode.valueOf("NUMPAD" + n), c);
         }
+
+        // space, backspace and delete clear number from cell
+        Command clear = e -> removeNumber();
+        commands.put(KeyCode.SPACE, clear);
+        commands.put(KeyCode.BACK_SPACE, clear);
+        commands.put(KeyCode.DELETE, clear);
+
+        // navigation
+        commands.put(KeyCode.UP, e -> move(-1, 0));
+        commands.put(KeyCode.DOWN, e -> move(1, 0));
+        commands.put(KeyCode.LEFT, e -> move(0, -1));
+        commands.put(KeyCode.RIGHT, e -> move(0, 1));
+        commands.put(KeyCode.KP_UP, e -> move(-1, 0));
+        commands.put(KeyCode.KP_DOWN, e -> move(1, 0));
+        commands.put(KeyCode.KP_LEFT, e -> move(0, -1));
+        commands.put(KeyCode.KP_RIGHT, e -> move(0, 1));
+        commands.put(KeyCode.HOME, e -> {
+            if (e.isShortcutDown()) {
+                selection.select(0);
+            } else {
+                selection.rowStart();
+            }
+            return null;
+        });
+        commands.put(KeyCode.END, e -> {
+            if (e.isShortcutDown()) {
+                selection.select(80);
+            } else {
+                selection.rowEnd();
+            }
+            return null;
+        });
+        commands.put(KeyCode.TAB, e -> {
+            selection.jump(!e.isShiftDown());
+            return null;
+        });
     }
 
-    private void pause(char c){
-        controller.pause();
+    /**
+     * Move the selection.
+     *
+     * @param rows Rows to move down; negative moves up.
+     * @param cols Columns to move right; negative moves left.
+     * @return Null; navigation isn't recorded.
+     */
+    private String move(int rows, int cols) {
+        selection.move(rows, cols);
+        return null;
     }
 
-    private void getHint(char c){
-        for (int row = 0; row < 9; row++){
-            for (int col = 0; col < 9; col++){
-                if(cells[row][col].isSelected()){
-                    controller.getHint(row, col);
-                }
-            }
+    /**
+     * Play a number in the selected cell, or toggle a note there in notes
+     * mode.
+     *
+     * @param number Number in [1, 9].
+     * @return Name of the command, or null if no cell is selected.
+     */
+    private String setNumberOrNote(int number) {
+        int cell = selection.getSelected();
+        if (cell == UISelection.NONE) {
+            return null;
+        }
+        if (selection.isNotesMode()) {
+            // ask the controller to set the note
+            controller.setNote(cell / 9, cell % 9, number);
+            return "setNote";
         }
+
+        // ask the controller to set the number
+        controller.playNumber(cell / 9, cell % 9, number);
+        return "playNumber";
     }
 
     /**
-     * Toggle between notes and normal mode
+     * Remove the number from the selected cell. Does nothing in notes
+     * mode.
+     *
+     * @return Name of the command, or null if nothing was asked for.
      */
-    private void setNotesOrNormal() {
-        // update cells so they can display the correct image
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                if (notesMode) {
-                    cells[row][col].setNotesMode();
-                } else {
-                    cells[row][col].setNormalMode();
-                }
-            }
+    private String removeNumber() {
+        int cell = selection.getSelected();
+        if (cell == UISelection.NONE || selection.isNotesMode()) {
+            return null;
         }
-        // update status bar so it indicates notes mode status
-        if (notesMode) {
-            pnlStatusBar.setNotesMode();
-        } else {
-            pnlStatusBar.setNormalMode();
+
+        // ask the controller to remove the number
+        controller.removeNumber(cell / 9, cell % 9);
+        return "removeNumber";
+    }
+
+    /**
+     * Ask for a hint in the selected cell.
+     *
+     * @return Name of the command, or null if no cell is selected.
+     */
+    private String getHint() {
+        int cell = selection.getSelected();
+        if (cell == UISelection.NONE) {
+            return null;
         }
+        controller.getHint(cell / 9, cell % 9);
+        return "getHint";
     }
+
     /**
-     * Cause a number to be set in the selected cell.
+     * Pause or resume the game.
      *
-     * @param c Character holding the number value to set.
+     * @return Name of the command.
      */
-    private void setNumber(char c) {
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                if (cells[row][col].isSelected()) {
-                    if(c == ' ') {
-                        // ask the controller to remove the number
-                        controller.removeNumber(row, col);
-                    } else {
-                        // ask the controller to set the number
-                        controller.playNumber(row, col, Integer.parseInt(Character.toString(c)));
-                    }
-
-                    // get us out of the loop once the number has been set
-                    break;
-                }
-            }
+    private String pause() {
+        controller.pause();
+        return "pause";
+    }
+
+    /**
+     * Toggle between notes and normal mode
+     *
+     * @return Name of the command.
+     */
+    private String toggleNotesMode() {
+        // the selected cell shows the mode in its background
+        selection.setNotesMode(!selection.isNotesMode());
+
+        // update status bar so it indicates notes mode status
+        if (selection.isNotesMode()) {
+            pnlStatusBar.setNotesMode();
+        } else {
+            pnlStatusBar.setNormalMode();
         }
+        return "notesMode";
     }
 }
@@ -0,0 +1,69 @@
+package edu.doane.sudoku.view;
+
+import edu.doane.sudoku.metrics.Metrics;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.util.Duration;
+
+/**
+ * Debug overlay showing the application's metrics on top of the grid. It
+ * lets mouse clicks through to the grid, and only refreshes its text,
+ * once a second, while it is shown.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class UIMetricsOverlay extends Label {
+
+    /**
+     * How often the text is refreshed, in milliseconds.
+     */
+    private static final double REFRESH_MS = 1000;
+
+    /**
+     * JavaFX Timeline refreshing the text.
+     */
+    private final Timeline refresher;
+
+    /**
+     * Construct the overlay, hidden.
+     */
+    public UIMetricsOverlay() {
+        super();
+
+        setFont(Font.font("Monospaced", 12));
+        setTextFill(Color.WHITE);
+        setBackground(new Background(new BackgroundFill(
+                Color.rgb(0, 0, 0, 0.75), null, null)));
+        setPadding(new Insets(8));
+        setAlignment(Pos.TOP_LEFT);
+        setMouseTransparent(true);
+        setVisible(false);
+
+        refresher = new Timeline(new KeyFrame(Duration.millis(REFRESH_MS),
+                e -> setText(Metrics.report())));
+        refresher.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /**
+     * Show or hide the overlay.
+     *
+     * @param show True to show the overlay, false to hide it.
+     */
+    public void show(boolean show) {
+        setVisible(show);
+        if (show) {
+            setText(Metrics.report());
+            refresher.play();
+        } else {
+            refresher.stop();
+        }
+    }
+}
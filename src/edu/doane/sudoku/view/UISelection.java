@@ -0,0 +1,199 @@
+package edu.doane.sudoku.view;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Selection model for the desktop SuDoKu game: which cell numbers and
+ * notes go to, and whether they go in as notes. The selected cell is kept
+ * as its index (row * 9 + col), so the key handler finds it without
+ * looking at the cells, and only the cells whose selection changed are
+ * redrawn. The mouse selects the cell under the pointer, and the keyboard
+ * moves the selection around the grid.
+ *
+ * @author agent
+ * @version 10/19/2026
+ */
+public class UISelection {
+
+    /**
+     * Receives changes to the selection.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the selected cell or the notes mode changes. When
+         * only the mode changes, previous and selected are the same.
+         *
+         * @param previous Cell selected before, or NONE.
+         * @param selected Cell selected now, or NONE.
+         */
+        void selectionChanged(int previous, int selected);
+    }
+
+    /**
+     * Index meaning no cell is selected.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Tells which cells are still open, i.e., have no number in them; jump()
+     * stops only at these.
+     */
+    private final IntPredicate open;
+
+    /**
+     * Selected cell (row * 9 + col), or NONE.
+     */
+    private int selected;
+
+    /**
+     * Flag telling if we're in note entry mode or not.
+     */
+    private boolean notesMode;
+
+    /**
+     * Listener told about changes, or null.
+     */
+    private Listener listener;
+
+    /**
+     * Create a selection with no cell selected, in normal mode.
+     *
+     * @param open Tells if a cell (row * 9 + col) has no number in it.
+     */
+    public UISelection(IntPredicate open) {
+        this.open = open;
+        selected = NONE;
+        notesMode = false;
+    }
+
+    /**
+     * Set the listener told about changes to the selection.
+     *
+     * @param listener Listener, or null for none.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Get the selected cell.
+     *
+     * @return Index of the selected cell (row * 9 + col), or NONE.
+     */
+    public int getSelected() {
+        return selected;
+    }
+
+    /**
+     * Is a cell the selected one?
+     *
+     * @param cell Index of the cell (row * 9 + col).
+     * @return True if the cell is selected, false otherwise.
+     */
+    public boolean isSelected(int cell) {
+        return cell == selected;
+    }
+
+    /**
+     * Are numbers typed entered as notes?
+     *
+     * @return True in notes mode, false otherwise.
+     */
+    public boolean isNotesMode() {
+        return notesMode;
+    }
+
+    /**
+     * Turn notes mode on or off.
+     *
+     * @param notesMode True for notes mode, false for normal mode.
+     */
+    public void setNotesMode(boolean notesMode) {
+        if (this.notesMode != notesMode) {
+            this.notesMode = notesMode;
+            fire(selected);
+        }
+    }
+
+    /**
+     * Select a cell.
+     *
+     * @param cell Index of the cell (row * 9 + col), or NONE to select no
+     *             cell.
+     * @throws IllegalArgumentException If the index is out of range.
+     */
+    public void select(int cell) {
+        if (cell < NONE || cell >= 81) {
+            throw new IllegalArgumentException("Cell must be in [0, 80], or NONE: " + cell);
+        }
+        if (cell != selected) {
+            fire(cell);
+        }
+    }
+
+    /**
+     * Move the selection by a number of rows and columns, wrapping around
+     * the edges of the grid. With no cell selected, the middle cell is
+     * selected.
+     *
+     * @param rows Rows to move down; negative moves up.
+     * @param cols Columns to move right; negative moves left.
+     */
+    public void move(int rows, int cols) {
+        if (selected == NONE) {
+            select(40);
+            return;
+        }
+        int row = Math.floorMod(selected / 9 + rows, 9);
+        int col = Math.floorMod(selected % 9 + cols, 9);
+        select(row * 9 + col);
+    }
+
+    /**
+     * Select the first cell of the selected row, or of the grid if no cell
+     * is selected.
+     */
+    public void rowStart() {
+        select(selected == NONE ? 0 : selected - selected % 9);
+    }
+
+    /**
+     * Select the last cell of the selected row, or of the grid if no cell
+     * is selected.
+     */
+    public void rowEnd() {
+        select(selected == NONE ? 80 : selected - selected % 9 + 8);
+    }
+
+    /**
+     * Select the next open cell in reading order, wrapping from the last
+     * cell to the first. The selection stays put if no other cell is open.
+     *
+     * @param forward True to look forward, false to look backward.
+     */
+    public void jump(boolean forward) {
+        int start = selected != NONE ? selected : forward ? -1 : 81;
+        int step = forward ? 1 : -1;
+        for (int i = 1; i <= 81; i++) {
+            int cell = Math.floorMod(start + i * step, 81);
+            if (cell != selected && open.test(cell)) {
+                select(cell);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Change the selected cell and tell the listener.
+     *
+     * @param cell Newly selected cell, or NONE.
+     */
+    private void fire(int cell) {
+        int previous = selected;
+        selected = cell;
+        if (listener != null) {
+            listener.selectionChanged(previous, cell);
+        }
+    }
+}